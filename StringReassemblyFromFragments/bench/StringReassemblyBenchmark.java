@@ -0,0 +1,514 @@
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import components.set.Set;
+import components.set.Set1L;
+import components.simplereader.SimpleReader;
+import components.simplereader.SimpleReader1L;
+import components.simplewriter.SimpleWriter;
+import components.simplewriter.SimpleWriter1L;
+
+/**
+ * Benchmarks for {@code StringReassembly} and its assemblers, run over the
+ * fragment files in {@code data} and over synthetic fragment sets 10 to 1000
+ * times the size of the Gettysburg address.
+ *
+ * <p>
+ * Each operation is run a few times to warm up the JIT, then timed over
+ * several more runs; for each it reports time per run, throughput, and bytes
+ * allocated per run (when the JVM can measure allocation). For the synthetic
+ * inputs it also reports the exponent {@code b} of the best fit
+ * {@code time = a * n^b} over the input sizes {@code n}, so that a change that
+ * turns a near-linear stage back into a quadratic or cubic one shows up as a
+ * jump in {@code b}.
+ *
+ * @author Justin Imber
+ *
+ */
+public final class StringReassemblyBenchmark {
+
+    /**
+     * The bundled fragment files.
+     */
+    private static final String[] DATA_FILES = { "data/cheer-8-2.txt",
+            "data/gettysburg-30-4.txt", "data/gettysburg-30-6.txt",
+            "data/declaration-50-8.txt", "data/declaration-50-10.txt" };
+
+    /**
+     * Fragment file whose text is the source of the synthetic inputs.
+     */
+    private static final String SYNTHETIC_SOURCE = "data/gettysburg-30-6.txt";
+
+    /**
+     * Sizes of the synthetic inputs, as multiples of the source text.
+     */
+    private static final int[] SCALES = { 10, 100, 1000 };
+
+    /**
+     * Length of each synthetic fragment.
+     */
+    private static final int FRAGMENT_LENGTH = 30;
+
+    /**
+     * Minimum overlap between consecutive synthetic fragments.
+     */
+    private static final int MIN_OVERLAP = 6;
+
+    /**
+     * Coverage of the synthetic fragment sets.
+     */
+    private static final double COVERAGE = 3.0;
+
+    /**
+     * Largest input for which the cubic {@code StringReassembly.assemble} is
+     * benchmarked.
+     */
+    private static final int MAX_GREEDY_FRAGMENTS = 400;
+
+    /**
+     * Largest input for which the all-pairs overlap graph is benchmarked.
+     */
+    private static final int MAX_ALL_PAIRS_FRAGMENTS = 12000;
+
+    /**
+     * Number of overlap pairs timed per data set.
+     */
+    private static final int OVERLAP_FRAGMENTS = 200;
+
+    /**
+     * Number of untimed warm-up runs of each operation.
+     */
+    private static final int WARMUP_RUNS = 3;
+
+    /**
+     * Number of timed runs of each operation.
+     */
+    private static final int MEASURED_RUNS = 5;
+
+    /**
+     * Nanoseconds per second.
+     */
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    /**
+     * Nanoseconds per millisecond.
+     */
+    private static final double NANOS_PER_MILLI = 1e6;
+
+    /**
+     * Running sum of the results of timed operations that return nothing else
+     * the benchmark keeps, so that the JIT cannot drop the work as dead code.
+     */
+    private static volatile long sink;
+
+    /**
+     * Private no-argument constructor to prevent instantiation of this utility
+     * class.
+     */
+    private StringReassemblyBenchmark() {
+    }
+
+    /**
+     * An operation to be timed.
+     */
+    private interface Operation {
+
+        /**
+         * Runs the operation once.
+         *
+         * @throws IOException
+         *             if the operation fails to read its input
+         */
+        void run() throws IOException;
+
+    }
+
+    /**
+     * Time and allocation of one benchmarked operation.
+     */
+    private static final class Measurement {
+
+        /**
+         * Average nanoseconds per run.
+         */
+        private final double nanosPerRun;
+
+        /**
+         * Average bytes allocated per run, or -1 if not measurable.
+         */
+        private final double bytesPerRun;
+
+        /**
+         * Constructor.
+         *
+         * @param nanosPerRun
+         *            average nanoseconds per run
+         * @param bytesPerRun
+         *            average bytes allocated per run, or -1
+         */
+        Measurement(double nanosPerRun, double bytesPerRun) {
+            this.nanosPerRun = nanosPerRun;
+            this.bytesPerRun = bytesPerRun;
+        }
+
+    }
+
+    /**
+     * Reports the number of bytes allocated so far by the current thread, or
+     * -1 if the JVM cannot tell.
+     *
+     * @return bytes allocated by the current thread, or -1
+     */
+    private static long allocatedBytes() {
+        long bytes = -1;
+        java.lang.management.ThreadMXBean bean = ManagementFactory
+                .getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean sunBean =
+                    (com.sun.management.ThreadMXBean) bean;
+            if (sunBean.isThreadAllocatedMemorySupported()
+                    && sunBean.isThreadAllocatedMemoryEnabled()) {
+                bytes = sunBean.getThreadAllocatedBytes(
+                        Thread.currentThread().getId());
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Runs {@code op} {@code WARMUP_RUNS} times untimed and then
+     * {@code MEASURED_RUNS} times timed.
+     *
+     * @param op
+     *            the operation
+     * @return average time and allocation per timed run
+     * @throws IOException
+     *             if the operation fails
+     */
+    private static Measurement measure(Operation op) throws IOException {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            op.run();
+        }
+        long bytesBefore = allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            op.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        long bytesAfter = allocatedBytes();
+        double bytesPerRun = -1;
+        if (bytesBefore >= 0 && bytesAfter >= 0) {
+            bytesPerRun = (double) (bytesAfter - bytesBefore) / MEASURED_RUNS;
+        }
+        return new Measurement((double) elapsed / MEASURED_RUNS, bytesPerRun);
+    }
+
+    /**
+     * Times {@code op} and prints one line of results for it.
+     *
+     * @param out
+     *            the output stream
+     * @param input
+     *            name of the input
+     * @param name
+     *            name of the operation
+     * @param items
+     *            number of items (pairs, lines, fragments) handled per run
+     * @param op
+     *            the operation
+     * @return average time and allocation per run
+     * @throws IOException
+     *             if the operation fails
+     * @updates out
+     * @requires out.is_open
+     */
+    private static Measurement report(SimpleWriter out, String input,
+            String name, int items, Operation op) throws IOException {
+        Measurement m = measure(op);
+        double seconds = m.nanosPerRun / NANOS_PER_SECOND;
+        String allocation = "n/a";
+        if (m.bytesPerRun >= 0) {
+            allocation = String.format("%.0f B/run, %.1f MB/s", m.bytesPerRun,
+                    m.bytesPerRun / seconds / (1 << 20));
+        }
+        out.println(String.format(
+                "%-28s %-30s %10.3f ms/run %14.0f items/s  %s", input, name,
+                m.nanosPerRun / NANOS_PER_MILLI, items / seconds, allocation));
+        return m;
+    }
+
+    /**
+     * Returns the lines of the file {@code fileName}.
+     *
+     * @param fileName
+     *            the file
+     * @return the lines of the file
+     */
+    private static List<String> readLines(String fileName) {
+        List<String> lines = new ArrayList<>();
+        SimpleReader in = new SimpleReader1L(fileName);
+        while (!in.atEOS()) {
+            lines.add(in.nextLine());
+        }
+        in.close();
+        return lines;
+    }
+
+    /**
+     * Returns the lines of the file {@code fileName} that are not substrings
+     * of other lines.
+     *
+     * @param fileName
+     *            the file
+     * @return the maximal lines of the file
+     */
+    private static Set<String> maximalLines(String fileName) {
+        SimpleReader in = new SimpleReader1L(fileName);
+        Set<String> lines = StringReassembly.linesFromInput(in);
+        in.close();
+        return lines;
+    }
+
+    /**
+     * Returns a copy of {@code strSet}.
+     *
+     * @param strSet
+     *            the set to copy
+     * @return a copy of {@code strSet}
+     */
+    private static Set<String> copyOf(Set<String> strSet) {
+        Set<String> copy = strSet.newInstance();
+        for (String str : strSet) {
+            copy.add(str);
+        }
+        return copy;
+    }
+
+    /**
+     * Writes a synthetic fragment file {@code scale} times the size of
+     * {@code source}: the text is made of words of {@code source} picked at
+     * random, and is cut by {@link FragmentGenerator} into fragments of
+     * {@code FRAGMENT_LENGTH} characters that overlap their successors by at
+     * least {@code MIN_OVERLAP} characters.
+     *
+     * @param source
+     *            the source text
+     * @param scale
+     *            size of the text as a multiple of {@code |source|}
+     * @param seed
+     *            seed of the random choices
+     * @return the synthetic fragment file
+     * @throws IOException
+     *             if the file cannot be written
+     */
+    private static File syntheticFile(String source, int scale, long seed)
+            throws IOException {
+        Random random = new Random(seed);
+        String[] words = source.split(" ");
+        StringBuilder text = new StringBuilder();
+        while (text.length() < source.length() * scale) {
+            text.append(words[random.nextInt(words.length)]).append(' ');
+        }
+        File file = File.createTempFile("synthetic-" + scale + "x-", ".txt");
+        file.deleteOnExit();
+        FragmentGenerator.write(FragmentGenerator.fragments(text.toString(),
+                FRAGMENT_LENGTH, MIN_OVERLAP, COVERAGE, seed), file.getPath());
+        return file;
+    }
+
+    /**
+     * Reports the exponent {@code b} of the least-squares fit of
+     * {@code time = a * n^b} to the given points.
+     *
+     * @param sizes
+     *            input sizes
+     * @param nanos
+     *            times for those sizes
+     * @param count
+     *            number of points
+     * @return the fitted exponent
+     * @requires count >= 2
+     */
+    private static double scalingExponent(int[] sizes, double[] nanos,
+            int count) {
+        double sumX = 0;
+        double sumY = 0;
+        double sumXY = 0;
+        double sumXX = 0;
+        for (int i = 0; i < count; i++) {
+            double x = Math.log(sizes[i]);
+            double y = Math.log(nanos[i]);
+            sumX += x;
+            sumY += y;
+            sumXY += x * y;
+            sumXX += x * x;
+        }
+        return (count * sumXY - sumX * sumY) / (count * sumXX - sumX * sumX);
+    }
+
+    /**
+     * Benchmarks every operation on one bundled fragment file.
+     *
+     * @param out
+     *            the output stream
+     * @param fileName
+     *            the fragment file
+     * @throws IOException
+     *             if an operation fails
+     * @updates out
+     * @requires out.is_open
+     */
+    private static void benchmarkDataFile(SimpleWriter out,
+            final String fileName) throws IOException {
+        final List<String> lines = readLines(fileName);
+        final Set<String> maximal = maximalLines(fileName);
+        final String[] fragments = OverlapGraphAssembler
+                .snapshot(copyOf(maximal));
+        final int pairs = Math.min(fragments.length, OVERLAP_FRAGMENTS);
+        report(out, fileName, "overlap", pairs * (pairs - 1), () -> {
+            long total = 0;
+            for (int i = 0; i < pairs; i++) {
+                for (int j = 0; j < pairs; j++) {
+                    if (i != j) {
+                        total += StringReassembly.overlap(fragments[i],
+                                fragments[j]);
+                    }
+                }
+            }
+            sink += total;
+        });
+        report(out, fileName, "addToSetAvoidingSubstrings", lines.size(),
+                () -> {
+                    Set<String> strSet = new Set1L<>();
+                    for (String line : lines) {
+                        StringReassembly.addToSetAvoidingSubstrings(strSet,
+                                line);
+                    }
+                });
+        report(out, fileName, "linesFromInput", lines.size(), () -> {
+            maximalLines(fileName);
+        });
+        report(out, fileName, "linesFromInputInParallel", lines.size(), () -> {
+            SimpleReader in = new SimpleReader1L(fileName);
+            StringReassembly.linesFromInputInParallel(in);
+            in.close();
+        });
+        if (maximal.size() <= MAX_GREEDY_FRAGMENTS) {
+            report(out, fileName, "assemble", maximal.size(), () -> {
+                StringReassembly.assemble(copyOf(maximal));
+            });
+        }
+        report(out, fileName, "RollingHashOverlap", maximal.size(), () -> {
+            RollingHashOverlap.assemble(copyOf(maximal));
+        });
+        report(out, fileName, "OverlapGraphAssembler", maximal.size(), () -> {
+            OverlapGraphAssembler.assemble(copyOf(maximal));
+        });
+        report(out, fileName, "BestOverlapGraphAssembler", maximal.size(),
+                () -> {
+                    BestOverlapGraphAssembler.assemble(copyOf(maximal));
+                });
+        report(out, fileName,
+                "BeamSearchAssembler (width "
+                        + BeamSearchAssembler.DEFAULT_WIDTH + ")",
+                maximal.size(), () -> {
+                    BeamSearchAssembler.assemble(copyOf(maximal),
+                            BeamSearchAssembler.DEFAULT_WIDTH);
+                });
+    }
+
+    /**
+     * Benchmarks loading and assembly on synthetic inputs of increasing size,
+     * and reports how their running times scale.
+     *
+     * @param out
+     *            the output stream
+     * @throws IOException
+     *             if an operation fails
+     * @updates out
+     * @requires out.is_open
+     */
+    private static void benchmarkScaling(SimpleWriter out) throws IOException {
+        Set<String> sourceSet = maximalLines(SYNTHETIC_SOURCE);
+        OverlapGraphAssembler.assemble(sourceSet);
+        String source = sourceSet.removeAny().replace('~', ' ');
+        int[] sizes = new int[SCALES.length];
+        double[] loadNanos = new double[SCALES.length];
+        double[] indexNanos = new double[SCALES.length];
+        double[] graphNanos = new double[SCALES.length];
+        double[] bestNanos = new double[SCALES.length];
+        int graphPoints = 0;
+        for (int s = 0; s < SCALES.length; s++) {
+            final File file = syntheticFile(source, SCALES[s], SCALES[s]);
+            final String input = "synthetic " + SCALES[s] + "x";
+            final Set<String> maximal = maximalLines(file.getPath());
+            sizes[s] = maximal.size();
+            loadNanos[s] = report(out, input, "linesFromInput", sizes[s],
+                    () -> {
+                        maximalLines(file.getPath());
+                    }).nanosPerRun;
+            indexNanos[s] = report(out, input,
+                    "OverlapGraphAssembler (k=" + MIN_OVERLAP + ")", sizes[s],
+                    () -> {
+                        OverlapGraphAssembler.assemble(copyOf(maximal),
+                                MIN_OVERLAP);
+                    }).nanosPerRun;
+            bestNanos[s] = report(out, input,
+                    "BestOverlapGraphAssembler (k=" + MIN_OVERLAP + ")",
+                    sizes[s], () -> {
+                        BestOverlapGraphAssembler.assemble(copyOf(maximal),
+                                MIN_OVERLAP);
+                    }).nanosPerRun;
+            if (sizes[s] <= MAX_ALL_PAIRS_FRAGMENTS) {
+                graphNanos[s] = report(out, input, "OverlapGraphAssembler",
+                        sizes[s], () -> {
+                            OverlapGraphAssembler.assemble(copyOf(maximal));
+                        }).nanosPerRun;
+                graphPoints++;
+            }
+        }
+        out.println();
+        out.println(String.format("scaling exponent, linesFromInput: %.2f",
+                scalingExponent(sizes, loadNanos, SCALES.length)));
+        out.println(String.format(
+                "scaling exponent, OverlapGraphAssembler (k=%d): %.2f",
+                MIN_OVERLAP,
+                scalingExponent(sizes, indexNanos, SCALES.length)));
+        out.println(String.format(
+                "scaling exponent, BestOverlapGraphAssembler (k=%d): %.2f",
+                MIN_OVERLAP, scalingExponent(sizes, bestNanos, SCALES.length)));
+        if (graphPoints >= 2) {
+            out.println(String.format(
+                    "scaling exponent, OverlapGraphAssembler: %.2f",
+                    scalingExponent(sizes, graphNanos, graphPoints)));
+        }
+    }
+
+    /**
+     * Main method.
+     *
+     * @param args
+     *            the command line arguments; not used
+     * @throws IOException
+     *             if an operation fails
+     */
+    public static void main(String[] args) throws IOException {
+        SimpleWriter out = new SimpleWriter1L();
+        for (String fileName : DATA_FILES) {
+            benchmarkDataFile(out, fileName);
+            out.println();
+        }
+        benchmarkScaling(out);
+        /*
+         * Print the sink so that it, and the work behind it, is observable
+         */
+        out.println();
+        out.println("checksum: " + sink);
+        out.close();
+    }
+
+}
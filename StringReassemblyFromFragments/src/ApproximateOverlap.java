@@ -0,0 +1,345 @@
+/**
+ * Error-tolerant overlap detection: finds the longest prefix of one string
+ * that matches a suffix of another with at most a given number of edits
+ * (substituted, inserted, or deleted characters), so that fragments with a few
+ * corrupted characters can still be combined.
+ *
+ * <p>
+ * The edit distances are computed with Myers' bit-vector algorithm: the
+ * prefix of {@code str2} is the pattern, and one column of the dynamic
+ * programming table, encoded as two bit vectors of vertical differences, is
+ * updated for each character of the end of {@code str1} with a handful of
+ * word operations. Since the first row of the table is all zeros, the last
+ * column holds, for every prefix of {@code str2}, the fewest edits with which
+ * it matches some suffix of {@code str1}. Patterns are limited to the 64 bits
+ * of a {@code long}, so approximate overlaps are at most 64 characters long;
+ * exact overlaps of any length are still found.
+ *
+ * <p>
+ * An approximate overlap must end with the last character of {@code str1}
+ * matched to the last character of the prefix of {@code str2}, so that the
+ * rest of {@code str2} can be appended to {@code str1} without dropping or
+ * repeating characters; the column is therefore computed for {@code str1}
+ * without its last character, and read at the prefixes of {@code str2} one
+ * shorter than those ending with that character. On clean text, short
+ * approximate matches between unrelated fragments are common, so an
+ * approximate overlap must be at least {@value #MIN_LENGTH} characters long
+ * with fewer than one edit per {@value #CHARS_PER_EDIT} characters, and it
+ * is scored as its length less {@value #CHARS_PER_EDIT} for each edit: an
+ * exact overlap, scored as its length, wins over any approximate one no more
+ * than that much longer.
+ *
+ * @author Justin Imber
+ *
+ * @mathdefinitions <pre>
+ *
+ * EDIT_DISTANCE (
+ *   s1: string of character,
+ *   s2: string of character
+ *  ) : integer is
+ *  the fewest single-character insertions, deletions, and substitutions
+ *  that turn s1 into s2
+ *
+ * APPROXIMATELY_OVERLAPS (
+ *   s1: string of character,
+ *   s2: string of character,
+ *   k: integer,
+ *   e: integer
+ *  ) : boolean is
+ *  0 <= k  and  k <= |s2|  and
+ *  there exists j: integer
+ *      where (0 <= j  and  j <= |s1|)
+ *    (EDIT_DISTANCE(s1[j, |s1|), s2[0, k)) <= e  and
+ *     (EDIT_DISTANCE(s1[j, |s1|), s2[0, k)) = 0  or
+ *      (s1[|s1| - 1] = s2[k - 1]  and  MIN_LENGTH <= k  and
+ *       CHARS_PER_EDIT * EDIT_DISTANCE(s1[j, |s1|), s2[0, k)) < k)))
+ *
+ * SCORE (
+ *   s1: string of character,
+ *   s2: string of character,
+ *   k: integer
+ *  ) : integer is
+ *  k - CHARS_PER_EDIT * min({EDIT_DISTANCE(s1[j, |s1|), s2[0, k)) :
+ *                            0 <= j  and  j <= |s1|})
+ *
+ * </pre>
+ */
+public final class ApproximateOverlap {
+
+    /**
+     * Shortest approximate overlap; exact overlaps may be shorter.
+     */
+    public static final int MIN_LENGTH = 12;
+
+    /**
+     * Fewest characters per edit of an approximate overlap, and the number of
+     * characters of overlap each edit costs in its score.
+     */
+    public static final int CHARS_PER_EDIT = 10;
+
+    /**
+     * Longest pattern handled by the bit-vector algorithm.
+     */
+    static final int MAX_PATTERN = Long.SIZE;
+
+    /**
+     * Characters below this value have their match masks in a table; the
+     * others are matched against the pattern one by one.
+     */
+    private static final int TABLE_SIZE = 128;
+
+    /**
+     * Private no-argument constructor to prevent instantiation of this utility
+     * class.
+     */
+    private ApproximateOverlap() {
+    }
+
+    /**
+     * Returns the bit mask of the positions of {@code c} in {@code pattern}.
+     *
+     * @param pattern
+     *            the pattern
+     * @param m
+     *            length of the pattern
+     * @param c
+     *            the character
+     * @return mask with bit {@code i} set iff {@code pattern[i] = c}
+     */
+    private static long matchMask(CharSequence pattern, int m, char c) {
+        long mask = 0;
+        for (int i = 0; i < m; i++) {
+            if (pattern.charAt(i) == c) {
+                mask |= 1L << i;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Reports the length of the best-scoring prefix of {@code str2}, shorter
+     * than {@code str2}, that matches some suffix of {@code str1} with at most
+     * {@code maxErrors} edits, and the number of edits it takes: an exact
+     * overlap unless an approximate one, at least {@value #MIN_LENGTH}
+     * characters long with fewer than one edit per {@value #CHARS_PER_EDIT}
+     * characters, scores higher.
+     *
+     * @param str1
+     *            first string
+     * @param str2
+     *            second string
+     * @param maxErrors
+     *            largest number of edits allowed
+     * @param edits
+     *            an array containing (upon return) the number of edits of the
+     *            overlap in {@code edits[0]}
+     * @return length of the approximate overlap of {@code str2} with the right
+     *         end of {@code str1}
+     * @replaces edits[0]
+     * @requires maxErrors >= 0  and  edits.length >= 1
+     * @ensures <pre>
+     * APPROXIMATELY_OVERLAPS(str1, str2, overlap, maxErrors)  and
+     * overlap < |str2|  and
+     * CHARS_PER_EDIT * edits[0] = overlap - SCORE(str1, str2, overlap)  and
+     * for all k: integer
+     *     where (k < |str2|  and  (k <= MAX_PATTERN  or
+     *            OVERLAPS(str1, str2, k))  and
+     *            APPROXIMATELY_OVERLAPS(str1, str2, k, maxErrors))
+     *  (SCORE(str1, str2, k) < SCORE(str1, str2, overlap)  or
+     *   (SCORE(str1, str2, k) = SCORE(str1, str2, overlap)  and
+     *    k >= overlap))
+     * </pre>
+     */
+    public static int overlap(CharSequence str1, CharSequence str2,
+            int maxErrors, int[] edits) {
+        return overlapAbove(str1, str2, maxErrors, edits, 0);
+    }
+
+    /**
+     * Reports the length of the best-scoring approximate overlap of
+     * {@code str2} with the right end of {@code str1}, and its number of
+     * edits, exactly as {@link #overlap(CharSequence, CharSequence, int,
+     * int[])} does if that scores more than {@code floor}; otherwise reports
+     * the exact overlap, without looking for approximate ones that cannot
+     * score more than {@code floor}.
+     *
+     * @param str1
+     *            first string
+     * @param str2
+     *            second string
+     * @param maxErrors
+     *            largest number of edits allowed
+     * @param edits
+     *            an array containing (upon return) the number of edits of the
+     *            overlap in {@code edits[0]}
+     * @param floor
+     *            score below which approximate overlaps are of no interest
+     * @return length of the overlap
+     * @replaces edits[0]
+     * @requires maxErrors >= 0  and  edits.length >= 1  and  floor >= 0
+     */
+    static int overlapAbove(CharSequence str1, CharSequence str2,
+            int maxErrors, int[] edits, int floor) {
+        assert str1 != null : "Violation of: str1 is not null";
+        assert str2 != null : "Violation of: str2 is not null";
+        assert maxErrors >= 0 : "Violation of: maxErrors >= 0";
+        assert edits != null : "Violation of: edits is not null";
+        assert edits.length >= 1 : "Violation of: edits.length >= 1";
+        assert floor >= 0 : "Violation of: floor >= 0";
+        int exact = OverlapKernel.overlap(str1, str2);
+        edits[0] = 0;
+        int n = str1.length();
+        int m = Math.min(str2.length() - 1, MAX_PATTERN);
+        /*
+         * An approximate overlap of k characters scores at most
+         * k - CHARS_PER_EDIT, so only lengths from shortest on can beat the
+         * exact overlap and the floor, and only those whose last character is
+         * that of str1
+         */
+        int threshold = Math.max(exact, floor);
+        int shortest = Math.max(MIN_LENGTH, threshold + CHARS_PER_EDIT + 1);
+        if (maxErrors == 0 || n == 0 || m < shortest) {
+            return exact;
+        }
+        char last = str1.charAt(n - 1);
+        int candidate = m;
+        while (candidate >= shortest && str2.charAt(candidate - 1) != last) {
+            candidate--;
+        }
+        if (candidate < shortest) {
+            return exact;
+        }
+        m = candidate;
+        /*
+         * Match masks of the pattern str2[0, m)
+         */
+        long[] table = new long[TABLE_SIZE];
+        for (int i = 0; i < m; i++) {
+            char c = str2.charAt(i);
+            if (c < TABLE_SIZE) {
+                table[c] |= 1L << i;
+            }
+        }
+        /*
+         * A prefix of m characters matched with at most maxErrors edits spans
+         * at most m + maxErrors characters of str1, so only those are scanned,
+         * up to but not including the last one, which is matched separately;
+         * pv and mv hold the +1 and -1 vertical differences of the current
+         * column, which starts as 0, 1, ..., m
+         */
+        long mask = (m == MAX_PATTERN) ? -1L : (1L << m) - 1;
+        long pv = mask;
+        long mv = 0;
+        for (int j = Math.max(0, n - 1 - m - maxErrors); j < n - 1; j++) {
+            char c = str1.charAt(j);
+            long eq;
+            if (c < TABLE_SIZE) {
+                eq = table[c];
+            } else {
+                eq = matchMask(str2, m, c);
+            }
+            long xv = eq | mv;
+            long xh = (((eq & pv) + pv) ^ pv) | eq;
+            long ph = mv | ~(xh | pv);
+            long mh = pv & xh;
+            /*
+             * The top row stays 0, since a match may start anywhere in str1,
+             * so no carry is shifted in
+             */
+            ph <<= 1;
+            mh <<= 1;
+            pv = (mh | ~(xv | ph)) & mask;
+            mv = ph & xv;
+        }
+        /*
+         * Read the column from the top: distance is the fewest edits matching
+         * str2[0, k - 1) with a suffix of str1[0, n - 1), so it is also the
+         * fewest matching str2[0, k) with a suffix of str1 when str2[k - 1]
+         * is the last character of str1
+         */
+        int best = exact;
+        int bestScore = threshold;
+        int distance = 0;
+        for (int k = 1; k <= m; k++) {
+            if (k > 1) {
+                long bit = 1L << (k - 2);
+                if ((pv & bit) != 0) {
+                    distance++;
+                } else if ((mv & bit) != 0) {
+                    distance--;
+                }
+            }
+            int score = k - CHARS_PER_EDIT * distance;
+            if (k >= MIN_LENGTH && str2.charAt(k - 1) == last
+                    && distance <= maxErrors && score > 0
+                    && score > bestScore) {
+                best = k;
+                bestScore = score;
+                edits[0] = distance;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Reports the length of the best-scoring prefix of {@code str2}, shorter
+     * than {@code str2}, that matches some suffix of {@code str1} with at most
+     * {@code maxErrors} edits, as {@link #overlap(CharSequence, CharSequence,
+     * int, int[])} does.
+     *
+     * @param str1
+     *            first string
+     * @param str2
+     *            second string
+     * @param maxErrors
+     *            largest number of edits allowed
+     * @return length of the approximate overlap of {@code str2} with the right
+     *         end of {@code str1}
+     * @requires maxErrors >= 0
+     */
+    public static int overlap(CharSequence str1, CharSequence str2,
+            int maxErrors) {
+        return overlap(str1, str2, maxErrors, new int[1]);
+    }
+
+    /**
+     * Reports the score of an overlap of {@code overlap} characters with
+     * {@code edits} edits: its length less {@value #CHARS_PER_EDIT} for each
+     * edit.
+     *
+     * @param overlap
+     *            length of the overlap
+     * @param edits
+     *            number of edits
+     * @return the score of the overlap
+     */
+    public static int score(int overlap, int edits) {
+        return overlap - CHARS_PER_EDIT * edits;
+    }
+
+    /**
+     * Returns {@code str1} followed by what is left of {@code str2} after its
+     * first {@code overlap} characters, which approximately match the end of
+     * {@code str1}, the last of them matching the last character of
+     * {@code str1}; where the two copies of the overlap differ, the one from
+     * {@code str1} is kept.
+     *
+     * @param str1
+     *            first string
+     * @param str2
+     *            second string
+     * @param overlap
+     *            amount of overlap
+     * @return combination with the overlap taken from {@code str1}
+     * @requires 0 <= overlap <= |str2|
+     * @ensures combination = str1 * str2[overlap, |str2|)
+     */
+    public static String combination(String str1, String str2, int overlap) {
+        assert str1 != null : "Violation of: str1 is not null";
+        assert str2 != null : "Violation of: str2 is not null";
+        assert 0 <= overlap && overlap <= str2.length() : ""
+                + "Violation of: 0 <= overlap <= |str2|";
+        return str1 + str2.substring(overlap);
+    }
+
+}
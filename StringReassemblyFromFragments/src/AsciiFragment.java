@@ -0,0 +1,230 @@
+/**
+ * Fragment of pure 7-bit ASCII text stored as one byte per character, half
+ * the space of a {@code String}, with an overlap computation that works on
+ * the bytes directly.
+ *
+ * <p>
+ * The overlap of {@code str1} and {@code str2} is found by trying each
+ * candidate length from the longest down, skipping any whose first or last
+ * character does not match, and comparing the rest byte by byte. On fragments
+ * of natural-language text almost every candidate fails on the first check, so
+ * this does less work per character than the Knuth-Morris-Pratt kernel it
+ * replaces for ASCII input. On repetitive text, such as a long run of one
+ * character, many candidates pass the first check and fail late, which would
+ * take time quadratic in the length of the fragments; so after
+ * {@value #MAX_CANDIDATES} candidates have failed, the rest are left to
+ * {@link OverlapKernel}, in linear time.
+ *
+ * @author Justin Imber
+ *
+ */
+public final class AsciiFragment implements CharSequence {
+
+    /**
+     * Largest value of an ASCII character.
+     */
+    private static final char MAX_ASCII = 0x7F;
+
+    /**
+     * Number of candidate overlaps checked in full before falling back to
+     * {@link OverlapKernel}.
+     */
+    static final int MAX_CANDIDATES = 8;
+
+    /**
+     * The characters, one per byte.
+     */
+    private final byte[] bytes;
+
+    /**
+     * Constructor.
+     *
+     * @param bytes
+     *            the characters, one per byte
+     */
+    private AsciiFragment(byte[] bytes) {
+        this.bytes = bytes;
+    }
+
+    /**
+     * Reports whether every character of {@code str} is 7-bit ASCII.
+     *
+     * @param str
+     *            the string
+     * @return true iff {@code str} is pure ASCII
+     */
+    public static boolean isAscii(CharSequence str) {
+        assert str != null : "Violation of: str is not null";
+        boolean ascii = true;
+        int i = 0;
+        while (ascii && i < str.length()) {
+            ascii = str.charAt(i) <= MAX_ASCII;
+            i++;
+        }
+        return ascii;
+    }
+
+    /**
+     * Reports whether every string in {@code strs} is pure 7-bit ASCII.
+     *
+     * @param strs
+     *            the strings
+     * @return true iff every entry of {@code strs} is pure ASCII
+     */
+    public static boolean allAscii(CharSequence[] strs) {
+        assert strs != null : "Violation of: strs is not null";
+        boolean ascii = true;
+        int i = 0;
+        while (ascii && i < strs.length) {
+            ascii = isAscii(strs[i]);
+            i++;
+        }
+        return ascii;
+    }
+
+    /**
+     * Returns {@code str} as an {@code AsciiFragment}.
+     *
+     * @param str
+     *            the string
+     * @return {@code str}, one byte per character
+     * @requires isAscii(str)
+     */
+    public static AsciiFragment valueOf(CharSequence str) {
+        assert str != null : "Violation of: str is not null";
+        assert isAscii(str) : "Violation of: isAscii(str)";
+        byte[] bytes = new byte[str.length()];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) str.charAt(i);
+        }
+        return new AsciiFragment(bytes);
+    }
+
+    /**
+     * Returns the entries of {@code strs} as {@code AsciiFragment}s, clearing
+     * each entry of {@code strs} as it is converted so that the original
+     * strings can be reclaimed while the rest are converted.
+     *
+     * @param strs
+     *            the strings
+     * @return the entries of {@code #strs}, one byte per character
+     * @updates strs
+     * @requires allAscii(strs)
+     * @ensures <pre>
+     * |valueOfAll| = |#strs|  and
+     * for all i: valueOfAll[i] = #strs[i]  and  strs[i] = null
+     * </pre>
+     */
+    public static AsciiFragment[] valueOfAll(CharSequence[] strs) {
+        assert strs != null : "Violation of: strs is not null";
+        AsciiFragment[] fragments = new AsciiFragment[strs.length];
+        for (int i = 0; i < strs.length; i++) {
+            fragments[i] = valueOf(strs[i]);
+            strs[i] = null;
+        }
+        return fragments;
+    }
+
+    @Override
+    public int length() {
+        return this.bytes.length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        return (char) this.bytes[index];
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return this.toString().substring(start, end);
+    }
+
+    @Override
+    public String toString() {
+        char[] chars = new char[this.bytes.length];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = (char) this.bytes[i];
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Reports whether {@code a[aFrom, aFrom + length)} equals
+     * {@code b[bFrom, bFrom + length)}.
+     *
+     * @param a
+     *            first fragment
+     * @param aFrom
+     *            start of the region in {@code a}
+     * @param b
+     *            second fragment
+     * @param bFrom
+     *            start of the region in {@code b}
+     * @param length
+     *            length of the regions
+     * @return true iff the regions are equal
+     * @requires both regions are within their fragments
+     */
+    private static boolean regionMatches(AsciiFragment a, int aFrom,
+            AsciiFragment b, int bFrom, int length) {
+        byte[] aBytes = a.bytes;
+        byte[] bBytes = b.bytes;
+        int i = 0;
+        while (i < length && aBytes[aFrom + i] == bBytes[bFrom + i]) {
+            i++;
+        }
+        return i == length;
+    }
+
+    /**
+     * Reports the maximum length of a common suffix of {@code str1} and proper
+     * prefix of {@code str2}.
+     *
+     * @param str1
+     *            first fragment
+     * @param str2
+     *            second fragment
+     * @return maximum overlap between right end of {@code str1} and left end
+     *         of {@code str2}
+     * @ensures <pre>
+     * overlap = OverlapKernel.overlap(str1, str2)
+     * </pre>
+     */
+    public static int overlap(AsciiFragment str1, AsciiFragment str2) {
+        assert str1 != null : "Violation of: str1 is not null";
+        assert str2 != null : "Violation of: str2 is not null";
+        byte[] s1 = str1.bytes;
+        byte[] s2 = str2.bytes;
+        int n = s1.length;
+        int k = Math.min(n, s2.length - 1);
+        if (k > 0) {
+            /*
+             * Every candidate overlap ends with the last character of str1,
+             * so it must be at the end of str2's prefix of that length
+             */
+            byte last = s1[n - 1];
+            byte first = s2[0];
+            int candidates = 0;
+            boolean found = false;
+            while (!found && k > 0 && candidates < MAX_CANDIDATES) {
+                if (s2[k - 1] == last && s1[n - k] == first) {
+                    found = regionMatches(str1, n - k, str2, 0, k);
+                    candidates++;
+                }
+                if (!found) {
+                    k--;
+                }
+            }
+            if (!found && k > 0) {
+                /*
+                 * Too many near misses: every overlap longer than k has been
+                 * ruled out, so the longest overlap of all is the answer
+                 */
+                k = OverlapKernel.overlap(str1, str2);
+            }
+        }
+        return Math.max(k, 0);
+    }
+
+}
@@ -0,0 +1,243 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import components.set.Set;
+
+/**
+ * Checkpoint file of the assembly of one input file: saves the working set of
+ * strings of the assembly, and reads it back, so that a long run that is
+ * interrupted can resume from where it last saved instead of starting over.
+ *
+ * <p>
+ * The file is a compact binary format: a magic number, a format version, the
+ * path of the input file and a SHA-256 digest of its contents, the number of
+ * strings, and then each string as its length in bytes followed by its UTF-8
+ * encoding. Reading a checkpoint saved for an input file with other contents
+ * fails, so a run never resumes from another input's progress. A checkpoint is
+ * first written in full to a temporary file next to the target, forced to
+ * disk, and then moved over the target in one step, so a crash while saving
+ * leaves the previous checkpoint intact.
+ *
+ * @author Justin Imber
+ *
+ */
+public final class AssemblyCheckpoint {
+
+    /**
+     * First four bytes of every checkpoint file ("SRCP").
+     */
+    private static final int MAGIC = 0x53524350;
+
+    /**
+     * Version of the file format; version 1 did not record the input file.
+     */
+    private static final int VERSION = 2;
+
+    /**
+     * Size of the I/O buffers.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Algorithm of the digest of the input file.
+     */
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    /**
+     * The checkpoint file.
+     */
+    private final Path file;
+
+    /**
+     * Absolute path of the input file.
+     */
+    private final String input;
+
+    /**
+     * Digest of the contents of the input file, in hexadecimal.
+     */
+    private final String digest;
+
+    /**
+     * Constructor; reads the input file to compute its digest.
+     *
+     * @param fileName
+     *            name of the checkpoint file
+     * @param inputFileName
+     *            name of the input file being assembled
+     * @throws IOException
+     *             if the input file cannot be read
+     */
+    public AssemblyCheckpoint(String fileName, String inputFileName)
+            throws IOException {
+        assert fileName != null : "Violation of: fileName is not null";
+        assert inputFileName != null : ""
+                + "Violation of: inputFileName is not null";
+        this.file = Paths.get(fileName).toAbsolutePath();
+        this.input = Paths.get(inputFileName).toAbsolutePath().normalize()
+                .toString();
+        this.digest = digest(inputFileName);
+    }
+
+    /**
+     * Returns the SHA-256 digest of the contents of the file {@code fileName},
+     * in hexadecimal.
+     *
+     * @param fileName
+     *            name of the file
+     * @return the digest of the file
+     * @throws IOException
+     *             if the file cannot be read
+     */
+    static String digest(String fileName) throws IOException {
+        MessageDigest md;
+        try {
+            md = MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            /*
+             * Every Java platform is required to support SHA-256
+             */
+            throw new IllegalStateException(e);
+        }
+        try (DigestInputStream in = new DigestInputStream(
+                new FileInputStream(fileName), md)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (in.read(buffer) != -1) {
+                /*
+                 * The stream feeds what it reads into the digest
+                 */
+            }
+        }
+        StringBuilder hex = new StringBuilder();
+        for (byte b : md.digest()) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * Reports whether the checkpoint file exists.
+     *
+     * @return true iff the checkpoint file exists
+     */
+    public boolean exists() {
+        return Files.exists(this.file);
+    }
+
+    /**
+     * Deletes the checkpoint file, if it exists.
+     *
+     * @throws IOException
+     *             if the file cannot be deleted
+     */
+    public void delete() throws IOException {
+        Files.deleteIfExists(this.file);
+    }
+
+    /**
+     * Writes the strings of {@code strSet} to the checkpoint file, replacing
+     * it atomically.
+     *
+     * @param strSet
+     *            the strings to save
+     * @throws IOException
+     *             if the file cannot be written
+     * @ensures [the checkpoint file holds exactly the strings of strSet, saved
+     *          for the input file]
+     */
+    public void write(Set<String> strSet) throws IOException {
+        assert strSet != null : "Violation of: strSet is not null";
+        Path target = this.file;
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileOutputStream file = new FileOutputStream(temp.toFile());
+                DataOutputStream out = new DataOutputStream(
+                        new BufferedOutputStream(file, BUFFER_SIZE))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeUTF(this.input);
+            out.writeUTF(this.digest);
+            out.writeInt(strSet.size());
+            for (String str : strSet) {
+                byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+            out.flush();
+            file.getFD().sync();
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads the strings saved in the checkpoint file into {@code strSet}.
+     *
+     * @param strSet
+     *            the set receiving the strings
+     * @throws IOException
+     *             if the file cannot be read, is not a valid checkpoint, or
+     *             was saved for an input file with other contents
+     * @replaces strSet
+     * @ensures [strSet holds exactly the strings saved in the checkpoint file]
+     */
+    public void read(Set<String> strSet) throws IOException {
+        assert strSet != null : "Violation of: strSet is not null";
+        String fileName = this.file.toString();
+        strSet.clear();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new FileInputStream(fileName), BUFFER_SIZE))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException(fileName + " is not a checkpoint file");
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException(fileName
+                        + " has unsupported checkpoint version " + version);
+            }
+            String savedInput = in.readUTF();
+            String savedDigest = in.readUTF();
+            if (!savedDigest.equals(this.digest)) {
+                throw new IOException(fileName + " was saved for "
+                        + savedInput + ", not for the contents of "
+                        + this.input + "; delete it to start over");
+            }
+            int count = in.readInt();
+            if (count < 0) {
+                throw new IOException(fileName + " is corrupted");
+            }
+            for (int i = 0; i < count; i++) {
+                int length = in.readInt();
+                if (length < 0) {
+                    throw new IOException(fileName + " is corrupted");
+                }
+                byte[] bytes = new byte[length];
+                in.readFully(bytes);
+                String str = new String(bytes, StandardCharsets.UTF_8);
+                if (strSet.contains(str)) {
+                    throw new IOException(fileName + " is corrupted");
+                }
+                strSet.add(str);
+            }
+            if (in.read() != -1) {
+                throw new IOException(fileName + " is corrupted");
+            }
+        } catch (EOFException e) {
+            throw new IOException(fileName + " is truncated", e);
+        }
+    }
+
+}
@@ -0,0 +1,146 @@
+import components.set.Set;
+
+/**
+ * The assemblers {@link StringReassembly#main} can use, selected by name on
+ * the command line.
+ *
+ * @author Justin Imber
+ *
+ */
+public enum AssemblyEngine {
+
+    /**
+     * Greedy assembly, largest overlap first, as
+     * {@link StringReassembly#assemble(Set)} does it but computing the overlap
+     * graph only once.
+     */
+    GREEDY {
+        @Override
+        public void assemble(Set<String> strSet) {
+            OverlapGraphAssembler.assemble(strSet);
+        }
+    },
+
+    /**
+     * Rounds of merging only mutually best overlaps, which avoids some of the
+     * mistakes of greedy assembly; overlaps shorter than the minimum set by
+     * {@value BestOverlapGraphAssembler#MIN_OVERLAP_PROPERTY} are only used
+     * once the longer ones run out.
+     */
+    BEST_OVERLAP {
+        @Override
+        public void assemble(Set<String> strSet) {
+            BestOverlapGraphAssembler.assemble(strSet);
+        }
+    },
+
+    /**
+     * Beam search over greedy-like assemblies, keeping the best
+     * {@value BeamSearchAssembler#WIDTH_PROPERTY} of them at each step.
+     */
+    BEAM {
+        @Override
+        public void assemble(Set<String> strSet) {
+            BeamSearchAssembler.assemble(strSet);
+        }
+    },
+
+    /**
+     * Greedy assembly by {@link StringReassembly#assemble(Set)} itself, which
+     * computes the overlaps again in every round instead of keeping an overlap
+     * graph: far slower, but it needs little more memory than the strings.
+     */
+    IN_PLACE {
+        @Override
+        public void assemble(Set<String> strSet) {
+            StringReassembly.assemble(strSet);
+        }
+    },
+
+    /**
+     * Greedy assembly as {@link #IN_PLACE} does it, but with each round's
+     * search for the best pair split across all processors by
+     * {@link ParallelBestOverlap}.
+     */
+    PARALLEL {
+        @Override
+        public void assemble(Set<String> strSet) {
+            ParallelBestOverlap.assemble(strSet);
+        }
+    },
+
+    /**
+     * Greedy assembly as {@link #IN_PLACE} does it, but merging
+     * {@link Rope}s instead of copying strings, by {@link RopeAssembler}.
+     */
+    ROPE {
+        @Override
+        public void assemble(Set<String> strSet) {
+            RopeAssembler.assemble(strSet);
+        }
+    },
+
+    /**
+     * Greedy assembly as {@link #IN_PLACE} does it, but with the prefix and
+     * suffix hashes of every string kept by {@link RollingHashOverlap}, so
+     * that each round only tries overlaps longer than the best so far.
+     */
+    ROLLING_HASH {
+        @Override
+        public void assemble(Set<String> strSet) {
+            RollingHashOverlap.assemble(strSet);
+        }
+    },
+
+    /**
+     * Greedy assembly as {@link #GREEDY} does it, but building the overlap
+     * graph from a {@link PrefixKmerIndex} of the first
+     * {@value OverlapGraphAssembler#KMER_LENGTH_PROPERTY} characters of each
+     * string, with the shorter overlaps looked up by contents, so that pairs
+     * that do not overlap are seldom scored.
+     */
+    KMER {
+        @Override
+        public void assemble(Set<String> strSet) {
+            OverlapGraphAssembler.assemble(strSet,
+                    Integer.getInteger(
+                            OverlapGraphAssembler.KMER_LENGTH_PROPERTY,
+                            OverlapGraphAssembler.DEFAULT_KMER_LENGTH),
+                    1);
+        }
+    };
+
+    /**
+     * Combines strings in {@code strSet} as much as possible, leaving in it
+     * only strings that have no overlap between a suffix of one string and a
+     * prefix of another.
+     *
+     * @param strSet
+     *            set of strings
+     * @updates strSet
+     * @requires CONTAINS_NO_SUBSTRING_PAIRS(strSet)
+     * @ensures <pre>
+     * ALL_SUPERSTRINGS(strSet) is subset of ALL_SUPERSTRINGS(#strSet)  and
+     * |strSet| <= |#strSet|  and
+     * CONTAINS_NO_SUBSTRING_PAIRS(strSet)  and
+     * CONTAINS_NO_OVERLAPPING_PAIRS(strSet)
+     * </pre>
+     */
+    public abstract void assemble(Set<String> strSet);
+
+    /**
+     * Returns the engine named {@code name}, ignoring case and treating '-' as
+     * '_'.
+     *
+     * @param name
+     *            name of the engine
+     * @return the engine named {@code name}
+     * @throws IllegalArgumentException
+     *             if there is no engine named {@code name}
+     */
+    public static AssemblyEngine named(String name) {
+        assert name != null : "Violation of: name is not null";
+        return valueOf(name.trim().toUpperCase().replace('-', '_'));
+    }
+
+}
@@ -0,0 +1,711 @@
+import java.util.Locale;
+import java.util.Random;
+
+import components.simplereader.SimpleReader;
+import components.simplereader.SimpleReader1L;
+import components.simplewriter.SimpleWriter;
+import components.simplewriter.SimpleWriter1L;
+
+/**
+ * Pre-flight estimate of the heap an assembly job needs, made by streaming
+ * its fragment file once, before any of it is kept in memory: the number of
+ * fragments, the number of characters, and from those the size of the overlap
+ * graph and of the working set of each {@link AssemblyEngine}. A job whose
+ * estimate exceeds the heap budget can then be switched to an engine that
+ * needs less memory, or rejected, instead of running out of memory halfway.
+ *
+ * <p>
+ * The overlap graph has an edge for each ordered pair of fragments that overlap
+ * at all, which on natural-language text is about a tenth of the pairs, but on
+ * text over a small alphabet can be nearly all of them. So the scan keeps a
+ * random sample of {@value #SAMPLE_SIZE} fragments, chosen by reservoir
+ * sampling as the lines go by, and sizes the graph by the fraction of the
+ * sampled pairs that overlap. {@link AssemblyEngine#BEST_OVERLAP} only keeps
+ * the edges of overlaps of at least its minimum overlap, far fewer, so its
+ * graph is sized by the fraction of the sampled pairs that overlap by that
+ * much. The other estimates err on the high side: fragments are counted before
+ * those contained in others are dropped, and characters at two bytes each, as
+ * Java 8 stores them.
+ *
+ * <p>
+ * Memory is not the only limit: {@link AssemblyEngine#IN_PLACE} needs the
+ * least of it but takes time cubic in the number of fragments, so it is only
+ * fallen back on for files of at most
+ * {@value #MAX_IN_PLACE_FRAGMENTS_PROPERTY} fragments (default
+ * {@value #DEFAULT_MAX_IN_PLACE_FRAGMENTS}, a few minutes of work).
+ *
+ * @author Justin Imber
+ *
+ */
+public final class AssemblyFootprint {
+
+    /**
+     * System property giving the heap budget, in bytes, optionally followed
+     * by {@code k}, {@code m}, or {@code g} as in {@code -Xmx}.
+     */
+    public static final String HEAP_BUDGET_PROPERTY = ""
+            + "stringreassembly.heap.budget";
+
+    /**
+     * System property giving the largest number of fragments for which
+     * {@link AssemblyEngine#IN_PLACE} is fallen back on.
+     */
+    public static final String MAX_IN_PLACE_FRAGMENTS_PROPERTY = ""
+            + "stringreassembly.inplace.maxfragments";
+
+    /**
+     * Default largest number of fragments for which
+     * {@link AssemblyEngine#IN_PLACE} is fallen back on.
+     */
+    public static final int DEFAULT_MAX_IN_PLACE_FRAGMENTS = 2000;
+
+    /**
+     * Bytes of a {@code String} besides its characters: the object and the
+     * header of its {@code char[]}.
+     */
+    private static final long STRING_BYTES = 40;
+
+    /**
+     * Bytes of a character in a {@code String}.
+     */
+    private static final long CHAR_BYTES = 2;
+
+    /**
+     * Bytes of references to each line held by {@code linesFromInput} and
+     * the assemblers: the list of lines, its array copy, the slots of the
+     * {@link Set4}, and the assemblers' arrays.
+     */
+    private static final long LINE_BYTES = 64;
+
+    /**
+     * Bytes of the {@link ContainmentFilter} automaton per character: about
+     * 1.1 states of 12 bytes and 1.3 edges of 10 bytes per character, in
+     * arrays that may be up to twice as long as they need to be.
+     */
+    private static final long AUTOMATON_BYTES_PER_CHAR = 64;
+
+    /**
+     * Bytes of the per-fragment copy the overlap graph is built from, besides
+     * its characters: an {@link AsciiFragment} and its array, or the failure
+     * function {@link OverlapKernel} needs for a {@code String}.
+     */
+    private static final long FRAGMENT_BYTES = 48;
+
+    /**
+     * Bytes per character of that copy: one for an {@link AsciiFragment},
+     * four for the failure function of a {@code String}.
+     */
+    private static final long FRAGMENT_CHAR_BYTES = 4;
+
+    /**
+     * Bytes per edge of an {@link OverlapEdgeHeap} at its peak: a packed edge
+     * in an array up to twice as long as needed, plus the half-size array it
+     * is being copied from while it grows.
+     */
+    private static final long EDGE_BYTES = 3 * Long.BYTES;
+
+    /**
+     * Bytes per fragment of each state of a beam search: three {@code int}
+     * arrays, with a beam of candidates and a beam of survivors alive at
+     * once.
+     */
+    private static final long BEAM_STATE_BYTES = 2 * 3 * Integer.BYTES;
+
+    /**
+     * Bytes per fragment of the {@link PrefixKmerIndex} the best overlap
+     * graph is built with, at worst one hash map entry, boxed key, and array
+     * per fragment while the index is built and another once it is, plus the
+     * arrays the mutually best links are found with.
+     */
+    private static final long BEST_OVERLAP_FRAGMENT_BYTES = 192;
+
+    /**
+     * Room, in percent of the working set, the garbage collector needs beyond
+     * it; a heap much smaller than that fails to find space for the large
+     * arrays of the overlap graph even when the total would fit.
+     */
+    private static final long HEADROOM_PERCENT = 50;
+
+    /**
+     * Number of fragments sampled to estimate how many pairs overlap.
+     */
+    private static final int SAMPLE_SIZE = 256;
+
+    /**
+     * Seed of the sampling, fixed so that a file always gets the same
+     * estimate.
+     */
+    private static final long SAMPLE_SEED = 2221;
+
+    /**
+     * Engines to fall back on, in order, when the one selected does not fit.
+     */
+    private static final AssemblyEngine[] FALLBACKS = {
+            AssemblyEngine.BEST_OVERLAP, AssemblyEngine.GREEDY,
+            AssemblyEngine.IN_PLACE };
+
+    /**
+     * Number of fragments (lines) in the file.
+     */
+    private final long fragments;
+
+    /**
+     * Number of characters in the file, not counting line separators.
+     */
+    private final long characters;
+
+    /**
+     * Fraction of the ordered pairs of distinct sampled fragments that
+     * overlap.
+     */
+    private final double overlapDensity;
+
+    /**
+     * Fraction of the ordered pairs of distinct sampled fragments that
+     * overlap by at least {@code minOverlap}.
+     */
+    private final double longOverlapDensity;
+
+    /**
+     * Minimum overlap of {@link AssemblyEngine#BEST_OVERLAP}.
+     */
+    private final int minOverlap;
+
+    /**
+     * Whether every character in the file is 7-bit ASCII.
+     */
+    private final boolean ascii;
+
+    /**
+     * Private constructor; use {@link #scan(String)}.
+     *
+     * @param fragments
+     *            number of fragments
+     * @param characters
+     *            number of characters
+     * @param overlapDensity
+     *            fraction of the pairs of fragments that overlap
+     * @param longOverlapDensity
+     *            fraction of the pairs of fragments that overlap by at least
+     *            {@code minOverlap}
+     * @param minOverlap
+     *            minimum overlap of {@link AssemblyEngine#BEST_OVERLAP}
+     * @param ascii
+     *            whether every character is 7-bit ASCII
+     */
+    private AssemblyFootprint(long fragments, long characters,
+            double overlapDensity, double longOverlapDensity, int minOverlap,
+            boolean ascii) {
+        this.fragments = fragments;
+        this.characters = characters;
+        this.overlapDensity = overlapDensity;
+        this.longOverlapDensity = longOverlapDensity;
+        this.minOverlap = minOverlap;
+        this.ascii = ascii;
+    }
+
+    /**
+     * Returns the fraction of the ordered pairs of distinct entries of
+     * {@code sample} that overlap by at least {@code minOverlap}.
+     *
+     * @param sample
+     *            the sampled fragments
+     * @param minOverlap
+     *            smallest overlap counted
+     * @return the fraction of such pairs, or 0 if there are none
+     * @requires minOverlap > 0
+     */
+    private static double overlapDensity(String[] sample, int minOverlap) {
+        int[][] failure = new int[sample.length][];
+        for (int j = 0; j < sample.length; j++) {
+            failure[j] = OverlapKernel.failureFunction(sample[j]);
+        }
+        long overlapping = 0;
+        for (int i = 0; i < sample.length; i++) {
+            for (int j = 0; j < sample.length; j++) {
+                if (i != j && OverlapKernel.overlap(sample[i], sample[j],
+                        failure[j]) >= minOverlap) {
+                    overlapping++;
+                }
+            }
+        }
+        long pairs = (long) sample.length * (sample.length - 1);
+        double density = 0;
+        if (pairs > 0) {
+            density = (double) overlapping / pairs;
+        }
+        return density;
+    }
+
+    /**
+     * Counts the fragments and characters of the fragment file
+     * {@code fileName}, and samples how many pairs of them overlap, reading
+     * it one line at a time.
+     *
+     * @param fileName
+     *            name of the fragment file
+     * @return the footprint of assembling {@code fileName}
+     */
+    public static AssemblyFootprint scan(String fileName) {
+        assert fileName != null : "Violation of: fileName is not null";
+        SimpleReader in = new SimpleReader1L(fileName);
+        Random random = new Random(SAMPLE_SEED);
+        String[] reservoir = new String[SAMPLE_SIZE];
+        long fragments = 0;
+        long characters = 0;
+        boolean ascii = true;
+        while (!in.atEOS()) {
+            String line = in.nextLine();
+            characters += line.length();
+            ascii = ascii && AsciiFragment.isAscii(line);
+            /*
+             * Keep each of the lines seen so far in the sample with equal
+             * probability
+             */
+            if (fragments < SAMPLE_SIZE) {
+                reservoir[(int) fragments] = line;
+            } else {
+                long slot = (long) (random.nextDouble() * (fragments + 1));
+                if (slot < SAMPLE_SIZE) {
+                    reservoir[(int) slot] = line;
+                }
+            }
+            fragments++;
+        }
+        in.close();
+        String[] sample = new String[(int) Math.min(fragments, SAMPLE_SIZE)];
+        System.arraycopy(reservoir, 0, sample, 0, sample.length);
+        int minOverlap = Math.max(1,
+                Integer.getInteger(
+                        BestOverlapGraphAssembler.MIN_OVERLAP_PROPERTY,
+                        BestOverlapGraphAssembler.DEFAULT_MIN_OVERLAP));
+        return new AssemblyFootprint(fragments, characters,
+                overlapDensity(sample, 1), overlapDensity(sample, minOverlap),
+                minOverlap, ascii);
+    }
+
+    /**
+     * Returns {@code a * b}, or {@code Long.MAX_VALUE} if that does not fit in
+     * a {@code long}.
+     *
+     * @param a
+     *            a non-negative factor
+     * @param b
+     *            a non-negative factor
+     * @return the saturated product
+     */
+    private static long times(long a, long b) {
+        long product;
+        try {
+            product = Math.multiplyExact(a, b);
+        } catch (ArithmeticException e) {
+            product = Long.MAX_VALUE;
+        }
+        return product;
+    }
+
+    /**
+     * Returns {@code a + b}, or {@code Long.MAX_VALUE} if that does not fit in
+     * a {@code long}.
+     *
+     * @param a
+     *            a non-negative term
+     * @param b
+     *            a non-negative term
+     * @return the saturated sum
+     */
+    private static long plus(long a, long b) {
+        long sum;
+        try {
+            sum = Math.addExact(a, b);
+        } catch (ArithmeticException e) {
+            sum = Long.MAX_VALUE;
+        }
+        return sum;
+    }
+
+    /**
+     * Reports the number of fragments in the file.
+     *
+     * @return the number of fragments
+     */
+    public long fragments() {
+        return this.fragments;
+    }
+
+    /**
+     * Reports the number of characters in the file.
+     *
+     * @return the number of characters
+     */
+    public long characters() {
+        return this.characters;
+    }
+
+    /**
+     * Reports whether every character in the file is 7-bit ASCII, so that it
+     * can be read into a {@link FragmentArena}.
+     *
+     * @return whether the file is pure ASCII
+     */
+    public boolean isAscii() {
+        return this.ascii;
+    }
+
+    /**
+     * Reports the estimated size of the fragments held as {@code String}s.
+     *
+     * @return bytes of the fragments
+     */
+    private long stringBytes() {
+        return plus(times(this.fragments, STRING_BYTES + LINE_BYTES),
+                times(this.characters, CHAR_BYTES));
+    }
+
+    /**
+     * Reports the estimated number of edges of the overlap graph.
+     *
+     * @return estimated number of overlapping pairs of fragments
+     */
+    private long edges() {
+        return this.edges(this.overlapDensity);
+    }
+
+    /**
+     * Reports the estimated number of edges of an overlap graph that has an
+     * edge for the fraction {@code density} of the pairs of fragments.
+     *
+     * @param density
+     *            fraction of the pairs of fragments with an edge
+     * @return estimated number of edges
+     */
+    private long edges(double density) {
+        /*
+         * A double too large for a long converts to Long.MAX_VALUE
+         */
+        return (long) Math.ceil(density * this.fragments
+                * Math.max(this.fragments - 1, 0));
+    }
+
+    /**
+     * Reports the estimated size of the overlap graph: its edges, packed into
+     * a {@code long} each.
+     *
+     * @return bytes of the overlap matrix
+     */
+    public long overlapMatrixBytes() {
+        return times(this.edges(), Long.BYTES);
+    }
+
+    /**
+     * Reports the estimated peak heap needed to read the fragments with
+     * {@link StringReassembly#linesFromInput} and assemble them with
+     * {@code engine}. An engine that builds an overlap graph cannot handle
+     * more fragments than an {@link OverlapEdgeHeap} can number, so for those
+     * the estimate is {@code Long.MAX_VALUE}.
+     *
+     * @param engine
+     *            the engine
+     * @return estimated bytes of the working set
+     */
+    public long workingSetBytes(AssemblyEngine engine) {
+        assert engine != null : "Violation of: engine is not null";
+        long reading = plus(this.stringBytes(),
+                times(this.characters, AUTOMATON_BYTES_PER_CHAR));
+        long assembling;
+        if (engine == AssemblyEngine.IN_PLACE
+                || engine == AssemblyEngine.PARALLEL
+                || engine == AssemblyEngine.ROPE
+                || engine == AssemblyEngine.ROLLING_HASH) {
+            /*
+             * Only the strings, and a merged copy of the longest of them;
+             * the parallel scan also keeps a failure function per string,
+             * the rope assembler two ends and a failure function, and the
+             * rolling hash a prefix and a suffix hash per character
+             */
+            assembling = plus(this.stringBytes(),
+                    times(this.characters, CHAR_BYTES));
+            if (engine == AssemblyEngine.PARALLEL) {
+                assembling = plus(assembling,
+                        times(this.characters, FRAGMENT_CHAR_BYTES));
+            } else if (engine == AssemblyEngine.ROPE) {
+                assembling = plus(assembling, times(this.characters,
+                        2 * CHAR_BYTES + FRAGMENT_CHAR_BYTES));
+            } else if (engine == AssemblyEngine.ROLLING_HASH) {
+                assembling = plus(assembling,
+                        times(this.characters, 2 * Long.BYTES));
+            }
+        } else if (this.fragments > OverlapEdgeHeap.MAX_FIELD + 1) {
+            assembling = Long.MAX_VALUE;
+        } else if (engine == AssemblyEngine.BEST_OVERLAP) {
+            /*
+             * Only overlaps of at least the minimum are edges, found through
+             * an index of the prefixes of that length; the shorter overlaps
+             * are looked up afterwards by each of up to minOverlap - 1
+             * prefixes of every string left, counted here as if none had
+             * been merged
+             */
+            long shortLength = this.minOverlap - 1;
+            assembling = plus(
+                    plus(this.stringBytes(),
+                            times(this.edges(this.longOverlapDensity),
+                                    EDGE_BYTES)),
+                    times(this.fragments, BEST_OVERLAP_FRAGMENT_BYTES));
+            assembling = plus(assembling,
+                    times(times(this.fragments, shortLength), STRING_BYTES
+                            + LINE_BYTES + shortLength * CHAR_BYTES));
+        } else {
+            long edges = this.edges();
+            assembling = plus(
+                    plus(this.stringBytes(), times(edges, EDGE_BYTES)),
+                    plus(times(this.fragments, FRAGMENT_BYTES),
+                            times(this.characters, FRAGMENT_CHAR_BYTES)));
+            if (engine == AssemblyEngine.BEAM) {
+                int width = Integer.getInteger(
+                        BeamSearchAssembler.WIDTH_PROPERTY,
+                        BeamSearchAssembler.DEFAULT_WIDTH);
+                assembling = plus(assembling, times(edges, Long.BYTES));
+                assembling = plus(assembling,
+                        times(times(this.fragments, BEAM_STATE_BYTES), width));
+            } else if (engine == AssemblyEngine.KMER) {
+                /*
+                 * The index also keeps up to k - 1 short prefixes of every
+                 * string by their contents
+                 */
+                long shortLength = Math.max(0, Integer.getInteger(
+                        OverlapGraphAssembler.KMER_LENGTH_PROPERTY,
+                        OverlapGraphAssembler.DEFAULT_KMER_LENGTH) - 1);
+                assembling = plus(assembling, times(
+                        times(this.fragments, shortLength), STRING_BYTES
+                                + LINE_BYTES + shortLength * CHAR_BYTES));
+            }
+        }
+        return Math.max(reading, assembling);
+    }
+
+    /**
+     * Returns the heap needed to hold a working set of {@code bytes} bytes,
+     * with room for the garbage collector.
+     *
+     * @param bytes
+     *            bytes of the working set
+     * @return bytes of heap needed
+     */
+    static long heapNeeded(long bytes) {
+        final long percent = 100;
+        return plus(bytes, times(bytes / percent, HEADROOM_PERCENT));
+    }
+
+    /**
+     * Reports the largest number of fragments for which
+     * {@link AssemblyEngine#IN_PLACE} is fallen back on: the value of the
+     * system property {@value #MAX_IN_PLACE_FRAGMENTS_PROPERTY}, or
+     * {@value #DEFAULT_MAX_IN_PLACE_FRAGMENTS}.
+     *
+     * @return the largest number of fragments for the in-place fallback
+     */
+    public static int maxInPlaceFragments() {
+        return Integer.getInteger(MAX_IN_PLACE_FRAGMENTS_PROPERTY,
+                DEFAULT_MAX_IN_PLACE_FRAGMENTS);
+    }
+
+    /**
+     * Returns the engine to assemble the fragments with, given a heap budget
+     * of {@code budget} bytes, exactly as {@link #admit(AssemblyEngine, long)}
+     * does, but falling back on {@link AssemblyEngine#IN_PLACE} only for at
+     * most {@code maxInPlace} fragments.
+     *
+     * @param engine
+     *            the engine selected
+     * @param budget
+     *            bytes of heap available
+     * @param maxInPlace
+     *            largest number of fragments for the in-place fallback
+     * @return the engine to use, or {@code null} if none fits
+     */
+    AssemblyEngine admit(AssemblyEngine engine, long budget,
+            long maxInPlace) {
+        assert engine != null : "Violation of: engine is not null";
+        long needed = heapNeeded(this.workingSetBytes(engine));
+        AssemblyEngine admitted = null;
+        if (needed <= budget) {
+            admitted = engine;
+        }
+        int i = 0;
+        while (admitted == null && i < FALLBACKS.length) {
+            long fallbackNeeds = heapNeeded(
+                    this.workingSetBytes(FALLBACKS[i]));
+            if (fallbackNeeds < needed && fallbackNeeds <= budget
+                    && (FALLBACKS[i] != AssemblyEngine.IN_PLACE
+                            || this.fragments <= maxInPlace)) {
+                admitted = FALLBACKS[i];
+            }
+            i++;
+        }
+        return admitted;
+    }
+
+    /**
+     * Returns the engine to assemble the fragments with, given a heap budget
+     * of {@code budget} bytes: {@code engine} if its working set, with room
+     * for the garbage collector, fits, else the first of
+     * {@link AssemblyEngine#BEST_OVERLAP}, {@link AssemblyEngine#GREEDY}, and
+     * {@link AssemblyEngine#IN_PLACE} that needs less and fits, else
+     * {@code null}, meaning the job should be rejected.
+     * {@link AssemblyEngine#IN_PLACE} is only fallen back on for at most
+     * {@link #maxInPlaceFragments()} fragments, since its time grows with the
+     * cube of their number.
+     *
+     * @param engine
+     *            the engine selected
+     * @param budget
+     *            bytes of heap available
+     * @return the engine to use, or {@code null} if none fits
+     */
+    public AssemblyEngine admit(AssemblyEngine engine, long budget) {
+        return this.admit(engine, budget, maxInPlaceFragments());
+    }
+
+    /**
+     * Returns the heap budget: the value of the system property
+     * {@value #HEAP_BUDGET_PROPERTY} if it is set, else the part of the
+     * maximum heap not already in use.
+     *
+     * @return bytes of heap available for an assembly
+     * @throws NumberFormatException
+     *             if {@value #HEAP_BUDGET_PROPERTY} is not a valid size
+     */
+    public static long heapBudget() {
+        String property = System.getProperty(HEAP_BUDGET_PROPERTY);
+        long budget;
+        if (property == null) {
+            Runtime runtime = Runtime.getRuntime();
+            budget = runtime.maxMemory()
+                    - (runtime.totalMemory() - runtime.freeMemory());
+        } else {
+            budget = parseSize(property);
+        }
+        return budget;
+    }
+
+    /**
+     * Returns the number of bytes {@code size} denotes: a number, optionally
+     * followed by {@code k}, {@code m}, or {@code g} (in either case) for
+     * 2<sup>10</sup>, 2<sup>20</sup>, or 2<sup>30</sup> bytes.
+     *
+     * @param size
+     *            the size
+     * @return number of bytes
+     * @throws NumberFormatException
+     *             if {@code size} is not a valid size
+     */
+    static long parseSize(String size) {
+        assert size != null : "Violation of: size is not null";
+        final String units = "kmg";
+        final int bitsPerUnit = 10;
+        String digits = size.trim().toLowerCase(Locale.ROOT);
+        int shift = 0;
+        if (!digits.isEmpty()) {
+            int unit = units.indexOf(digits.charAt(digits.length() - 1));
+            if (unit >= 0) {
+                shift = (unit + 1) * bitsPerUnit;
+                digits = digits.substring(0, digits.length() - 1);
+            }
+        }
+        long bytes = Long.parseLong(digits);
+        if (bytes < 0 || bytes > Long.MAX_VALUE >>> shift) {
+            throw new NumberFormatException("Invalid size: " + size);
+        }
+        return bytes << shift;
+    }
+
+    /**
+     * Returns {@code bytes} as a number of megabytes, for reports.
+     *
+     * @param bytes
+     *            number of bytes
+     * @return {@code bytes} in megabytes, or "too many" if it saturated
+     */
+    private static String megabytes(long bytes) {
+        final double bytesPerMegabyte = 1 << 20;
+        String result = "too many";
+        if (bytes < Long.MAX_VALUE) {
+            result = String.format(Locale.ROOT, "%.1f MB",
+                    bytes / bytesPerMegabyte);
+        }
+        return result;
+    }
+
+    /**
+     * Prints the footprint of assembling the fragments with {@code engine}
+     * against a budget of {@code budget} bytes: the number of fragments and
+     * characters, the fraction of pairs that overlap, the size of the overlap
+     * matrix, the working set, the heap it needs, the budget, and the most
+     * fragments the in-place fallback takes.
+     *
+     * @param out
+     *            the output stream
+     * @param engine
+     *            the engine selected
+     * @param budget
+     *            bytes of heap available
+     * @updates out
+     */
+    public void report(SimpleWriter out, AssemblyEngine engine, long budget) {
+        assert out != null : "Violation of: out is not null";
+        assert engine != null : "Violation of: engine is not null";
+        final double percent = 100;
+        out.println("Fragments:            " + this.fragments);
+        out.println("Characters:           " + this.characters);
+        out.println(String.format(Locale.ROOT,
+                "Overlapping pairs:    %.1f%% (sampled)",
+                this.overlapDensity * percent));
+        out.println("Overlap matrix:       "
+                + megabytes(this.overlapMatrixBytes()));
+        out.println("Working set:          "
+                + megabytes(this.workingSetBytes(engine)) + " (" + engine
+                + ")");
+        out.println("Heap needed:          "
+                + megabytes(heapNeeded(this.workingSetBytes(engine))));
+        out.println("Heap budget:          " + megabytes(budget));
+        out.println("In-place fallback:    up to " + maxInPlaceFragments()
+                + " fragments");
+    }
+
+    /**
+     * Main method. Takes the name of a fragment file and, optionally, the
+     * name of the {@link AssemblyEngine} to use (default {@code greedy}), and
+     * reports the footprint of assembling it and whether the job fits the
+     * heap budget, set by {@value #HEAP_BUDGET_PROPERTY}.
+     *
+     * @param args
+     *            the command line arguments: fragment file, [engine]
+     */
+    public static void main(String[] args) {
+        SimpleWriter out = new SimpleWriter1L();
+        if (args.length < 1) {
+            out.println("Usage: java AssemblyFootprint <fragment file> "
+                    + "[engine]");
+            out.close();
+            return;
+        }
+        AssemblyEngine engine = AssemblyEngine.GREEDY;
+        if (args.length > 1) {
+            engine = AssemblyEngine.named(args[1]);
+        }
+        AssemblyFootprint footprint = scan(args[0]);
+        long budget = heapBudget();
+        footprint.report(out, engine, budget);
+        AssemblyEngine admitted = footprint.admit(engine, budget);
+        if (admitted == null) {
+            out.println("Rejected: no engine fits the heap budget and the "
+                    + "in-place fragment limit");
+        } else if (admitted != engine) {
+            out.println("Switched to " + admitted + " to fit the heap budget");
+        } else {
+            out.println("Admitted");
+        }
+        out.close();
+    }
+
+}
@@ -0,0 +1,284 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and timers describing the work done by {@link StringReassembly}:
+ * calls to {@code overlap} and the characters they scan, merges, assembly
+ * rounds, and the time spent in {@code bestOverlap} and
+ * {@code linesFromInput}. Dividing the counts by the number of fragments read
+ * shows where an assembly job spends its time, and a count that grows with
+ * the square or cube of the input is easy to spot.
+ *
+ * <p>
+ * The counters are {@link LongAdder}s, so recording is cheap even when
+ * several threads record at once. {@link StringReassembly} records into
+ * {@link #global()}; if the system property {@value #DUMP_PROPERTY} names a
+ * file (or is {@code "-"}, for standard output), {@link #dumpAtExit()} writes
+ * the metrics there as JSON when the JVM exits.
+ *
+ * @author Justin Imber
+ *
+ */
+public final class AssemblyMetrics {
+
+    /**
+     * System property naming the file the metrics are written to at exit.
+     */
+    public static final String DUMP_PROPERTY = "stringreassembly.metrics";
+
+    /**
+     * The metrics {@link StringReassembly} records into.
+     */
+    private static final AssemblyMetrics GLOBAL = new AssemblyMetrics();
+
+    /**
+     * Number of fragments read by {@code linesFromInput}.
+     */
+    private final LongAdder fragmentsRead = new LongAdder();
+
+    /**
+     * Number of overlap computations.
+     */
+    private final LongAdder overlapCalls = new LongAdder();
+
+    /**
+     * Number of characters the overlap computations scan: for each, the part
+     * of the string whose suffix overlaps that any overlap lies within. A
+     * linear scan such as {@link OverlapKernel}'s reads each of them once, but
+     * may compare some of them more than once, up to twice as many
+     * comparisons in all, so this measures work rather than comparisons.
+     */
+    private final LongAdder charactersScanned = new LongAdder();
+
+    /**
+     * Number of merges of two strings.
+     */
+    private final LongAdder merges = new LongAdder();
+
+    /**
+     * Number of assembly rounds (searches for the best overlaps).
+     */
+    private final LongAdder rounds = new LongAdder();
+
+    /**
+     * Nanoseconds spent in {@code bestOverlap}.
+     */
+    private final LongAdder bestOverlapNanos = new LongAdder();
+
+    /**
+     * Nanoseconds spent in {@code linesFromInput}.
+     */
+    private final LongAdder linesFromInputNanos = new LongAdder();
+
+    /**
+     * No-argument constructor.
+     */
+    public AssemblyMetrics() {
+    }
+
+    /**
+     * Returns the metrics {@link StringReassembly} records into.
+     *
+     * @return the global metrics
+     */
+    public static AssemblyMetrics global() {
+        return GLOBAL;
+    }
+
+    /**
+     * Records one overlap computation.
+     *
+     * @param characters
+     *            number of characters it scanned
+     */
+    public void recordOverlap(int characters) {
+        this.overlapCalls.increment();
+        this.charactersScanned.add(characters);
+    }
+
+    /**
+     * Records a batch of overlap computations, for callers that count them
+     * locally in a tight loop and record them once per round.
+     *
+     * @param calls
+     *            number of overlap computations
+     * @param characters
+     *            number of characters they scanned
+     */
+    public void recordOverlaps(long calls, long characters) {
+        this.overlapCalls.add(calls);
+        this.charactersScanned.add(characters);
+    }
+
+    /**
+     * Records one merge of two strings.
+     */
+    public void recordMerge() {
+        this.merges.increment();
+    }
+
+    /**
+     * Records several merges.
+     *
+     * @param count
+     *            number of merges
+     */
+    public void recordMerges(long count) {
+        this.merges.add(count);
+    }
+
+    /**
+     * Records one search for the best overlaps, and the time it took.
+     *
+     * @param nanos
+     *            nanoseconds spent in the search
+     */
+    public void recordRound(long nanos) {
+        this.rounds.increment();
+        this.bestOverlapNanos.add(nanos);
+    }
+
+    /**
+     * Records one call of {@code linesFromInput}.
+     *
+     * @param fragments
+     *            number of lines read
+     * @param nanos
+     *            nanoseconds spent reading and filtering them
+     */
+    public void recordLinesFromInput(int fragments, long nanos) {
+        this.fragmentsRead.add(fragments);
+        this.linesFromInputNanos.add(nanos);
+    }
+
+    /**
+     * Reports the number of fragments read.
+     *
+     * @return the number of fragments read
+     */
+    public long fragmentsRead() {
+        return this.fragmentsRead.sum();
+    }
+
+    /**
+     * Reports the number of overlap computations.
+     *
+     * @return the number of overlap computations
+     */
+    public long overlapCalls() {
+        return this.overlapCalls.sum();
+    }
+
+    /**
+     * Reports the number of characters scanned by overlap computations.
+     *
+     * @return the number of characters scanned
+     */
+    public long charactersScanned() {
+        return this.charactersScanned.sum();
+    }
+
+    /**
+     * Reports the number of merges.
+     *
+     * @return the number of merges
+     */
+    public long merges() {
+        return this.merges.sum();
+    }
+
+    /**
+     * Reports the number of assembly rounds.
+     *
+     * @return the number of rounds
+     */
+    public long rounds() {
+        return this.rounds.sum();
+    }
+
+    /**
+     * Reports the time spent searching for the best overlaps.
+     *
+     * @return nanoseconds spent in {@code bestOverlap}
+     */
+    public long bestOverlapNanos() {
+        return this.bestOverlapNanos.sum();
+    }
+
+    /**
+     * Reports the time spent reading fragments.
+     *
+     * @return nanoseconds spent in {@code linesFromInput}
+     */
+    public long linesFromInputNanos() {
+        return this.linesFromInputNanos.sum();
+    }
+
+    /**
+     * Sets every counter back to zero.
+     */
+    public void reset() {
+        this.fragmentsRead.reset();
+        this.overlapCalls.reset();
+        this.charactersScanned.reset();
+        this.merges.reset();
+        this.rounds.reset();
+        this.bestOverlapNanos.reset();
+        this.linesFromInputNanos.reset();
+    }
+
+    /**
+     * Returns the metrics as a JSON object.
+     *
+     * @return JSON representation of {@code this}
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder("{");
+        json.append("\"fragmentsRead\": ").append(this.fragmentsRead())
+                .append(", \"overlapCalls\": ").append(this.overlapCalls())
+                .append(", \"charactersScanned\": ")
+                .append(this.charactersScanned())
+                .append(", \"merges\": ").append(this.merges())
+                .append(", \"rounds\": ").append(this.rounds())
+                .append(", \"bestOverlapNanos\": ")
+                .append(this.bestOverlapNanos())
+                .append(", \"linesFromInputNanos\": ")
+                .append(this.linesFromInputNanos()).append('}');
+        return json.toString();
+    }
+
+    @Override
+    public String toString() {
+        return this.toJson();
+    }
+
+    /**
+     * If the system property {@value #DUMP_PROPERTY} is set, arranges for the
+     * global metrics to be written as JSON to the file it names (or to
+     * standard output, if it is {@code "-"}) when the JVM exits.
+     */
+    public static void dumpAtExit() {
+        final String target = System.getProperty(DUMP_PROPERTY);
+        if (target != null) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                String json = GLOBAL.toJson();
+                if (target.equals("-")) {
+                    System.out.println(json);
+                } else {
+                    try {
+                        Files.write(Paths.get(target),
+                                (json + System.lineSeparator())
+                                        .getBytes(StandardCharsets.UTF_8));
+                    } catch (IOException e) {
+                        System.err.println("Could not write metrics to "
+                                + target + ": " + e.getMessage());
+                    }
+                }
+            }));
+        }
+    }
+
+}
@@ -0,0 +1,368 @@
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import components.set.Set;
+import components.simplereader.SimpleReader;
+import components.simplereader.SimpleReader1L;
+import components.simplewriter.SimpleWriter;
+import components.simplewriter.SimpleWriter1L;
+
+/**
+ * Headless batch mode for {@link StringReassembly}: reassembles every fragment
+ * file in a directory (or matching a glob pattern) on a fixed-size pool of
+ * worker threads, writes one output file per input file, in the same format
+ * {@link StringReassembly#main} prints, and ends with a summary of the time
+ * taken and the number of fragments left for each file.
+ *
+ * @author Justin Imber
+ *
+ */
+public final class BatchReassembly {
+
+    /**
+     * Suffix added to the name of each input file to name its output file.
+     */
+    private static final String OUTPUT_SUFFIX = ".assembled";
+
+    /**
+     * Outcome of reassembling one file.
+     */
+    private static final class Result {
+
+        /**
+         * The input file.
+         */
+        private final Path input;
+
+        /**
+         * Number of fragments left after assembly, or -1 if it failed.
+         */
+        private final int fragments;
+
+        /**
+         * Time taken, in nanoseconds.
+         */
+        private final long nanos;
+
+        /**
+         * Reason for the failure, or {@code null} if it succeeded.
+         */
+        private final String error;
+
+        /**
+         * Constructor.
+         *
+         * @param input
+         *            the input file
+         * @param fragments
+         *            number of fragments left, or -1
+         * @param nanos
+         *            time taken
+         * @param error
+         *            reason for the failure, or {@code null}
+         */
+        Result(Path input, int fragments, long nanos, String error) {
+            this.input = input;
+            this.fragments = fragments;
+            this.nanos = nanos;
+            this.error = error;
+        }
+
+    }
+
+    /**
+     * Private no-argument constructor to prevent instantiation of this utility
+     * class.
+     */
+    private BatchReassembly() {
+    }
+
+    /**
+     * Returns the files named by {@code pattern}: every regular file in it, if
+     * it is a directory, or else every file matching it as a glob pattern
+     * (such as {@code data/*.txt}), in sorted order.
+     *
+     * @param pattern
+     *            a directory or glob pattern
+     * @return the matching files
+     * @throws IOException
+     *             if the directory cannot be listed
+     */
+    static List<Path> inputFiles(String pattern) throws IOException {
+        assert pattern != null : "Violation of: pattern is not null";
+        Path path = Paths.get(pattern);
+        Path directory;
+        String glob;
+        if (Files.isDirectory(path)) {
+            directory = path;
+            glob = "*";
+        } else {
+            directory = path.getParent();
+            if (directory == null) {
+                directory = Paths.get(".");
+            }
+            glob = path.getFileName().toString();
+        }
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory,
+                glob)) {
+            for (Path file : stream) {
+                if (Files.isRegularFile(file)) {
+                    files.add(file);
+                }
+            }
+        }
+        Collections.sort(files);
+        return files;
+    }
+
+    /**
+     * Writes the result of an assembly to {@code out}: the text, if only one
+     * string is left, or else each string, labelled, as
+     * {@link StringReassembly#main} prints them.
+     *
+     * @param fragments
+     *            the strings left after assembly
+     * @param out
+     *            output stream
+     * @throws IOException
+     *             if {@code out} cannot be written
+     * @updates out
+     */
+    private static void writeAssembly(Set<String> fragments, Writer out)
+            throws IOException {
+        String separator = System.lineSeparator();
+        if (fragments.size() == 1) {
+            out.write(separator);
+            for (String text : fragments) {
+                StringReassembly.printWithLineSeparators(text, out);
+            }
+        } else {
+            int fragmentNumber = 0;
+            for (String str : fragments) {
+                fragmentNumber++;
+                out.write(separator);
+                out.write("--------------------" + separator);
+                out.write("  -- Fragment #" + fragmentNumber + ": --"
+                        + separator);
+                out.write("--------------------" + separator);
+                StringReassembly.printWithLineSeparators(str, out);
+            }
+        }
+    }
+
+    /**
+     * Reassembles the fragments in {@code input} with {@code engine}, or with
+     * an engine that needs less memory if its {@link AssemblyFootprint} does
+     * not fit in {@code budget} bytes, and writes the result to
+     * {@code output}. A pure-ASCII file assembled with
+     * {@link AssemblyEngine#GREEDY} is read into a {@link FragmentArena}
+     * and assembled from the mapped file, without a {@code String} per line.
+     *
+     * @param input
+     *            the fragment file
+     * @param output
+     *            the output file
+     * @param engine
+     *            the assembler to use
+     * @param budget
+     *            bytes of heap available to this job
+     * @return number of strings left after assembly
+     * @throws IOException
+     *             if the input file cannot be mapped or the output file cannot
+     *             be written
+     * @throws IllegalStateException
+     *             if no engine can assemble {@code input} within
+     *             {@code budget}
+     */
+    static int reassemble(Path input, Path output, AssemblyEngine engine,
+            long budget) throws IOException {
+        assert input != null : "Violation of: input is not null";
+        assert output != null : "Violation of: output is not null";
+        assert engine != null : "Violation of: engine is not null";
+        AssemblyFootprint footprint = AssemblyFootprint
+                .scan(input.toString());
+        AssemblyEngine admitted = footprint.admit(engine, budget);
+        if (admitted == null) {
+            throw new IllegalStateException(
+                    "No engine fits the heap budget for " + input);
+        }
+        Set<String> fragments;
+        /*
+         * The arena numbers fragments in 21 bits, like every overlap graph;
+         * admit never picks GREEDY for a file of more lines than that, so
+         * the arena only ever sees files it can number
+         */
+        if (admitted == AssemblyEngine.GREEDY && footprint.isAscii()) {
+            fragments = new Set4<>();
+            for (String contig : OverlapGraphAssembler
+                    .assemble(FragmentArena.load(input.toString()))) {
+                fragments.add(contig);
+            }
+        } else {
+            SimpleReader inFile = new SimpleReader1L(input.toString());
+            fragments = StringReassembly.linesFromInput(inFile);
+            inFile.close();
+            admitted.assemble(fragments);
+        }
+        int count = fragments.size();
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(output.toFile()),
+                StandardCharsets.UTF_8))) {
+            writeAssembly(fragments, out);
+        }
+        return count;
+    }
+
+    /**
+     * Reassembles the fragments in {@code input} with {@code engine}, within
+     * the whole heap budget, and writes the result to {@code output}.
+     *
+     * @param input
+     *            the fragment file
+     * @param output
+     *            the output file
+     * @param engine
+     *            the assembler to use
+     * @return number of strings left after assembly
+     * @throws IOException
+     *             if the output file cannot be written
+     */
+    static int reassemble(Path input, Path output, AssemblyEngine engine)
+            throws IOException {
+        return reassemble(input, output, engine,
+                AssemblyFootprint.heapBudget());
+    }
+
+    /**
+     * Main method. Takes a directory or glob pattern naming the fragment
+     * files, the directory to write the output files to, and, optionally, the
+     * number of worker threads (at least 1; default: the number of
+     * processors) and the name of the {@link AssemblyEngine} to use (default
+     * {@code greedy}).
+     * Each worker gets an equal share of the heap budget (see
+     * {@link AssemblyFootprint#heapBudget()}); a file that does not fit in its
+     * share is assembled with an engine that needs less memory, or fails. A
+     * file that runs out of memory all the same is reported as failed too,
+     * and the other jobs go on.
+     *
+     * @param args
+     *            the command line arguments: input directory or glob, output
+     *            directory, [threads], [engine]
+     * @throws IOException
+     *             if the input files cannot be listed or the output directory
+     *             cannot be created
+     * @throws InterruptedException
+     *             if interrupted while waiting for the workers
+     */
+    public static void main(String[] args)
+            throws IOException, InterruptedException {
+        SimpleWriter out = new SimpleWriter1L();
+        final int minArgs = 2;
+        if (args.length < minArgs) {
+            out.println("Usage: java BatchReassembly <directory or glob> "
+                    + "<output directory> [threads] [engine]");
+            out.close();
+            return;
+        }
+        List<Path> inputs = inputFiles(args[0]);
+        final Path outputDirectory = Paths.get(args[1]);
+        Files.createDirectories(outputDirectory);
+        int threads = Runtime.getRuntime().availableProcessors();
+        if (args.length > 2) {
+            threads = Integer.parseInt(args[2]);
+            if (threads < 1) {
+                out.println("Error: the number of threads must be at least "
+                        + "1, not " + threads);
+                out.close();
+                return;
+            }
+        }
+        final AssemblyEngine engine;
+        if (args.length > 3) {
+            engine = AssemblyEngine.named(args[3]);
+        } else {
+            engine = AssemblyEngine.GREEDY;
+        }
+        final long budget = AssemblyFootprint.heapBudget() / threads;
+        /*
+         * Queue one job per file; the pool runs at most threads of them at a
+         * time
+         */
+        long start = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<Result>> jobs = new ArrayList<>();
+        for (final Path input : inputs) {
+            jobs.add(pool.submit(new Callable<Result>() {
+                @Override
+                public Result call() {
+                    long jobStart = System.nanoTime();
+                    Path output = outputDirectory
+                            .resolve(input.getFileName() + OUTPUT_SUFFIX);
+                    int fragments = -1;
+                    String error = null;
+                    try {
+                        fragments = reassemble(input, output, engine,
+                                budget);
+                    } catch (IOException | RuntimeException e) {
+                        error = e.toString();
+                    } catch (OutOfMemoryError e) {
+                        /*
+                         * The footprint underestimated this file; what the
+                         * job allocated is garbage now, so the other jobs
+                         * can go on
+                         */
+                        error = e.toString();
+                    }
+                    return new Result(input, fragments,
+                            System.nanoTime() - jobStart, error);
+                }
+            }));
+        }
+        pool.shutdown();
+        /*
+         * Report on each file, in input order, then on the whole batch
+         */
+        final double nanosPerMilli = 1e6;
+        int failures = 0;
+        for (Future<Result> job : jobs) {
+            Result result;
+            try {
+                result = job.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e.getCause());
+            }
+            if (result.error == null) {
+                out.println(String.format("%-40s %10.1f ms  %6d fragments",
+                        result.input, result.nanos / nanosPerMilli,
+                        result.fragments));
+            } else {
+                failures++;
+                out.println(String.format("%-40s %10.1f ms  FAILED: %s",
+                        result.input, result.nanos / nanosPerMilli,
+                        result.error));
+            }
+        }
+        out.println(String.format("%d files (%d failed) in %.1f ms on %d "
+                + "threads", inputs.size(), failures,
+                (System.nanoTime() - start) / nanosPerMilli, threads));
+        out.close();
+    }
+
+}
@@ -0,0 +1,575 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import components.set.Set;
+
+/**
+ * Assembler that searches several greedy-like assemblies at once instead of
+ * committing to the single best merge each time. It works on the overlap
+ * graph of the fragments, computed once as in {@link OverlapGraphAssembler},
+ * with the edges sorted best first: a partial assembly is a set of edges
+ * already linked, together with a position in the sorted edges, and it is
+ * extended by linking one of the next few edges that are still usable and
+ * passing over the ones before it for good. The greedy assembler is the
+ * partial assembly that always links the first usable edge.
+ *
+ * <p>
+ * After each merge only the {@code width} partial assemblies with the largest
+ * total overlap are kept (the beam), each set of linked edges at most once. A
+ * partial assembly that cannot be extended is finished by linking any edges
+ * it passed over that are still usable, and of the finished ones, the one
+ * with the largest total overlap, that is, the shortest total length, is the
+ * result. A wider beam explores more alternatives to the merges greedy
+ * assembly makes, at a cost roughly proportional to the width; with a width
+ * of 1 this is exactly the greedy assembler. Whatever the width, the result
+ * is never worse than greedy assembly, whose result is kept as the one to
+ * beat.
+ *
+ * <p>
+ * The partial assemblies of the beam are extended in parallel, on the
+ * work-stealing {@link ForkJoinPool#commonPool()}, and the beam is chosen
+ * with ties broken by the order of the edges, so the result does not depend
+ * on the number of threads.
+ *
+ * @author Justin Imber
+ *
+ */
+public final class BeamSearchAssembler {
+
+    /**
+     * System property giving the beam width the {@link AssemblyEngine#BEAM}
+     * engine uses.
+     */
+    public static final String WIDTH_PROPERTY = "stringreassembly.beam.width";
+
+    /**
+     * Beam width used when {@value #WIDTH_PROPERTY} is not set.
+     */
+    public static final int DEFAULT_WIDTH = 8;
+
+    /**
+     * Marker for "no fragment" and "no edge".
+     */
+    private static final int NONE = -1;
+
+    /**
+     * Odd multiplier spreading edge indices over the bits of an {@code int},
+     * for hashing sets of edges.
+     */
+    private static final int EDGE_HASH_MULTIPLIER = 0x9E3779B9;
+
+    /**
+     * Private no-argument constructor to prevent instantiation of this utility
+     * class.
+     */
+    private BeamSearchAssembler() {
+    }
+
+    /**
+     * A partial assembly: the edges linked so far, as chains of fragments.
+     */
+    private static final class Partial {
+
+        /**
+         * Fragment linked after each fragment, or {@code NONE}.
+         */
+        private final int[] successor;
+
+        /**
+         * Index (in the sorted edges) of the edge linking each fragment to its
+         * predecessor, or {@code NONE}.
+         */
+        private final int[] inEdge;
+
+        /**
+         * For the first and last fragment of each chain, the fragment at its
+         * other end.
+         */
+        private final int[] otherEnd;
+
+        /**
+         * Index of the first edge not yet linked or passed over.
+         */
+        private int cursor;
+
+        /**
+         * Total overlap of the edges linked.
+         */
+        private long score;
+
+        /**
+         * Hash of the set of edges linked, the same whatever the order they
+         * were linked in.
+         */
+        private int edgeHash;
+
+        /**
+         * Constructor for the empty partial assembly of {@code n} fragments.
+         *
+         * @param n
+         *            number of fragments
+         */
+        Partial(int n) {
+            this.successor = new int[n];
+            this.inEdge = new int[n];
+            this.otherEnd = new int[n];
+            for (int i = 0; i < n; i++) {
+                this.successor[i] = NONE;
+                this.inEdge[i] = NONE;
+                this.otherEnd[i] = i;
+            }
+            this.cursor = 0;
+            this.score = 0;
+            this.edgeHash = 0;
+        }
+
+        /**
+         * Constructor for {@code parent} extended by the edge at
+         * {@code edges[e]}.
+         *
+         * @param parent
+         *            the partial assembly extended
+         * @param edges
+         *            the sorted edges
+         * @param e
+         *            index of the edge linked
+         * @requires parent.usable(edges[e])
+         */
+        Partial(Partial parent, long[] edges, int e) {
+            this.successor = parent.successor.clone();
+            this.inEdge = parent.inEdge.clone();
+            this.otherEnd = parent.otherEnd.clone();
+            this.cursor = e + 1;
+            this.score = parent.score;
+            this.edgeHash = parent.edgeHash;
+            this.link(edges, e);
+        }
+
+        /**
+         * Reports whether {@code edge} can still be linked: its source ends a
+         * chain, its target starts another, and linking them would not close
+         * a cycle.
+         *
+         * @param edge
+         *            packed edge
+         * @return true iff {@code edge} can be linked
+         */
+        boolean usable(long edge) {
+            int from = OverlapEdgeHeap.from(edge);
+            int to = OverlapEdgeHeap.to(edge);
+            return this.successor[from] == NONE && this.inEdge[to] == NONE
+                    && this.otherEnd[from] != to;
+        }
+
+        /**
+         * Links the edge at {@code edges[e]}.
+         *
+         * @param edges
+         *            the sorted edges
+         * @param e
+         *            index of the edge
+         * @requires this.usable(edges[e])
+         */
+        void link(long[] edges, int e) {
+            int from = OverlapEdgeHeap.from(edges[e]);
+            int to = OverlapEdgeHeap.to(edges[e]);
+            this.successor[from] = to;
+            this.inEdge[to] = e;
+            int head = this.otherEnd[from];
+            int tail = this.otherEnd[to];
+            this.otherEnd[head] = tail;
+            this.otherEnd[tail] = head;
+            this.score += OverlapEdgeHeap.overlap(edges[e]);
+            this.edgeHash += edgeHash(e);
+        }
+
+        /**
+         * Links, best first, every edge that is still usable, including those
+         * passed over earlier, so that no two of the strings spelled overlap.
+         *
+         * @param edges
+         *            the sorted edges
+         */
+        void finish(long[] edges) {
+            for (int e = 0; e < edges.length; e++) {
+                if (this.usable(edges[e])) {
+                    this.link(edges, e);
+                }
+            }
+            this.cursor = edges.length;
+        }
+
+        /**
+         * Returns the indices of the first {@code width} usable edges at or
+         * after the cursor, moving the cursor past any unusable edges in front
+         * of the first of them, since they can never become usable again.
+         *
+         * @param edges
+         *            the sorted edges
+         * @param width
+         *            largest number of edges returned
+         * @return indices of the next usable edges, in order
+         */
+        int[] nextUsable(long[] edges, int width) {
+            while (this.cursor < edges.length
+                    && !this.usable(edges[this.cursor])) {
+                this.cursor++;
+            }
+            int[] next = new int[width];
+            int count = 0;
+            int e = this.cursor;
+            while (count < width && e < edges.length) {
+                if (this.usable(edges[e])) {
+                    next[count] = e;
+                    count++;
+                }
+                e++;
+            }
+            return Arrays.copyOf(next, count);
+        }
+
+        /**
+         * Reports the total overlap of the edges linked; the larger it is, the
+         * shorter the strings this partial assembly spells.
+         *
+         * @return the total overlap of the edges linked
+         */
+        long score() {
+            return this.score;
+        }
+
+    }
+
+    /**
+     * Possible extension of a partial assembly of the beam.
+     */
+    private static final class Candidate implements Comparable<Candidate> {
+
+        /**
+         * Total overlap after the extension.
+         */
+        private final long score;
+
+        /**
+         * Position in the beam of the partial assembly extended.
+         */
+        private final int parent;
+
+        /**
+         * Index of the edge linked.
+         */
+        private final int edge;
+
+        /**
+         * Constructor.
+         *
+         * @param score
+         *            total overlap after the extension
+         * @param parent
+         *            position in the beam of the partial assembly extended
+         * @param edge
+         *            index of the edge linked
+         */
+        Candidate(long score, int parent, int edge) {
+            this.score = score;
+            this.parent = parent;
+            this.edge = edge;
+        }
+
+        /*
+         * Larger total overlap first; ties go to the better parent, then to
+         * the better edge
+         */
+        @Override
+        public int compareTo(Candidate other) {
+            int result = Long.compare(other.score, this.score);
+            if (result == 0) {
+                result = Integer.compare(this.parent, other.parent);
+            }
+            if (result == 0) {
+                result = Integer.compare(this.edge, other.edge);
+            }
+            return result;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Candidate
+                    && this.compareTo((Candidate) obj) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(this.score) ^ this.parent ^ this.edge;
+        }
+
+    }
+
+    /**
+     * Returns the hash of the edge at index {@code e}; the hash of a set of
+     * edges is the sum of the hashes of its edges.
+     *
+     * @param e
+     *            index of the edge
+     * @return the hash of the edge
+     */
+    private static int edgeHash(int e) {
+        return (e + 1) * EDGE_HASH_MULTIPLIER;
+    }
+
+    /**
+     * Returns the {@code inEdge} array of the extension of {@code partial} by
+     * the edge at {@code edges[e]}, which determines its set of linked edges,
+     * without building the extension.
+     *
+     * @param partial
+     *            the partial assembly extended
+     * @param edges
+     *            the sorted edges
+     * @param e
+     *            index of the edge linked
+     * @return the edge linking each fragment to its predecessor after the
+     *         extension, or {@code NONE}
+     */
+    private static int[] extendedInEdges(Partial partial, long[] edges,
+            int e) {
+        int[] inEdge = partial.inEdge.clone();
+        inEdge[OverlapEdgeHeap.to(edges[e])] = e;
+        return inEdge;
+    }
+
+    /**
+     * Returns the first {@code width} of {@code candidates} that link
+     * different sets of edges, so that a partial assembly reached by linking
+     * the same edges in a different order takes a single place in the beam.
+     *
+     * @param candidates
+     *            the extensions, best first
+     * @param current
+     *            the beam extended
+     * @param edges
+     *            the sorted edges
+     * @param width
+     *            the beam width
+     * @return the extensions kept, best first
+     */
+    private static List<Candidate> choose(List<Candidate> candidates,
+            List<Partial> current, long[] edges, int width) {
+        List<Candidate> chosen = new ArrayList<>();
+        Map<Integer, List<int[]>> seen = new HashMap<>();
+        for (int i = 0; i < candidates.size() && chosen.size() < width; i++) {
+            Candidate candidate = candidates.get(i);
+            Partial parent = current.get(candidate.parent);
+            int hash = parent.edgeHash + edgeHash(candidate.edge);
+            List<int[]> sameHash = seen.get(hash);
+            if (sameHash == null) {
+                sameHash = new ArrayList<>();
+                seen.put(hash, sameHash);
+            }
+            /*
+             * Sets of edges with the same hash are told apart by comparing
+             * the edge into each fragment
+             */
+            int[] inEdge = extendedInEdges(parent, edges, candidate.edge);
+            int j = 0;
+            while (j < sameHash.size()
+                    && !Arrays.equals(inEdge, sameHash.get(j))) {
+                j++;
+            }
+            if (j == sameHash.size()) {
+                sameHash.add(inEdge);
+                chosen.add(candidate);
+            }
+        }
+        return chosen;
+    }
+
+    /**
+     * Returns the edges of {@code graph}, best first.
+     *
+     * @param graph
+     *            the overlap graph
+     * @return the packed edges of {@code graph}, in the order the heap
+     *         removes them
+     * @clears graph
+     */
+    private static long[] sortedEdges(OverlapEdgeHeap graph) {
+        long[] edges = new long[graph.size()];
+        for (int e = 0; e < edges.length; e++) {
+            edges[e] = graph.removeMax();
+        }
+        return edges;
+    }
+
+    /**
+     * Runs the beam search over {@code edges} and returns the best complete
+     * assembly found.
+     *
+     * @param n
+     *            number of fragments
+     * @param edges
+     *            the sorted edges
+     * @param width
+     *            the beam width
+     * @return the complete assembly with the largest total overlap
+     */
+    private static Partial search(int n, final long[] edges,
+            final int width) {
+        Partial best = new Partial(n);
+        best.finish(edges);
+        List<Partial> beam = new ArrayList<>();
+        beam.add(new Partial(n));
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        while (!beam.isEmpty()) {
+            /*
+             * Find the next usable edges of every partial assembly, in
+             * parallel
+             */
+            final List<Partial> current = beam;
+            final int[][] next = new int[current.size()][];
+            pool.invoke(new RangeTask(
+                    i -> next[i] = current.get(i).nextUsable(edges, width), 0,
+                    current.size()));
+            /*
+             * Partial assemblies that cannot be extended are finished off
+             * with any edges they passed over that are still usable; the
+             * extensions of the others compete for the next beam
+             */
+            List<Candidate> candidates = new ArrayList<>();
+            for (int i = 0; i < current.size(); i++) {
+                Partial partial = current.get(i);
+                if (next[i].length == 0) {
+                    partial.finish(edges);
+                    if (partial.score() > best.score()) {
+                        best = partial;
+                    }
+                } else {
+                    for (int e : next[i]) {
+                        candidates.add(new Candidate(
+                                partial.score()
+                                        + OverlapEdgeHeap.overlap(edges[e]),
+                                i, e));
+                    }
+                }
+            }
+            Collections.sort(candidates);
+            final List<Candidate> chosen = choose(candidates, current, edges,
+                    width);
+            final Partial[] children = new Partial[chosen.size()];
+            pool.invoke(new RangeTask(i -> {
+                Candidate candidate = chosen.get(i);
+                children[i] = new Partial(current.get(candidate.parent), edges,
+                        candidate.edge);
+            }, 0, children.length));
+            beam = Arrays.asList(children);
+        }
+        return best;
+    }
+
+    /**
+     * Returns the strings spelled out by the chains of {@code partial}.
+     *
+     * @param fragments
+     *            the fragments
+     * @param edges
+     *            the sorted edges
+     * @param partial
+     *            a complete assembly
+     * @return the assembled strings
+     */
+    private static String[] spell(CharSequence[] fragments, long[] edges,
+            Partial partial) {
+        List<String> contigs = new ArrayList<>();
+        for (int i = 0; i < fragments.length; i++) {
+            if (partial.inEdge[i] == NONE) {
+                StringBuilder contig = new StringBuilder(fragments[i]);
+                int j = partial.successor[i];
+                while (j != NONE) {
+                    int overlap = OverlapEdgeHeap
+                            .overlap(edges[partial.inEdge[j]]);
+                    contig.append(fragments[j], overlap,
+                            fragments[j].length());
+                    j = partial.successor[j];
+                }
+                contigs.add(contig.toString());
+            }
+        }
+        AssemblyMetrics.global()
+                .recordMerges(fragments.length - contigs.size());
+        return contigs.toArray(new String[contigs.size()]);
+    }
+
+    /**
+     * Combines strings in {@code strSet} as much as possible, leaving in it
+     * only strings that have no overlap between a suffix of one string and a
+     * prefix of another, keeping the {@code width} best partial assemblies at
+     * each step.
+     *
+     * @param strSet
+     *            set of strings
+     * @param width
+     *            the beam width
+     * @updates strSet
+     * @requires <pre>
+     * CONTAINS_NO_SUBSTRING_PAIRS(strSet)  and  width > 0
+     * </pre>
+     * @ensures <pre>
+     * ALL_SUPERSTRINGS(strSet) is subset of ALL_SUPERSTRINGS(#strSet)  and
+     * |strSet| <= |#strSet|  and
+     * CONTAINS_NO_SUBSTRING_PAIRS(strSet)  and
+     * CONTAINS_NO_OVERLAPPING_PAIRS(strSet)
+     * </pre>
+     */
+    public static void assemble(Set<String> strSet, int width) {
+        assert strSet != null : "Violation of: strSet is not null";
+        assert width > 0 : "Violation of: width > 0";
+        /*
+         * Note: Rest of precondition not checked!
+         */
+        String[] strings = OverlapGraphAssembler.snapshot(strSet);
+        long start = System.nanoTime();
+        CharSequence[] fragments;
+        OverlapEdgeHeap graph;
+        if (AsciiFragment.allAscii(strings)) {
+            AsciiFragment[] ascii = AsciiFragment.valueOfAll(strings);
+            fragments = ascii;
+            graph = OverlapGraphAssembler.overlapGraph(ascii);
+        } else {
+            fragments = strings;
+            graph = OverlapGraphAssembler.overlapGraph(fragments);
+        }
+        AssemblyMetrics.global().recordRound(System.nanoTime() - start);
+        long[] edges = sortedEdges(graph);
+        Partial best = search(fragments.length, edges, width);
+        for (String contig : spell(fragments, edges, best)) {
+            strSet.add(contig);
+        }
+    }
+
+    /**
+     * Combines strings in {@code strSet} as much as possible, leaving in it
+     * only strings that have no overlap between a suffix of one string and a
+     * prefix of another, with the beam width given by the system property
+     * {@value #WIDTH_PROPERTY} (default {@value #DEFAULT_WIDTH}).
+     *
+     * @param strSet
+     *            set of strings
+     * @updates strSet
+     * @requires CONTAINS_NO_SUBSTRING_PAIRS(strSet)
+     * @ensures <pre>
+     * ALL_SUPERSTRINGS(strSet) is subset of ALL_SUPERSTRINGS(#strSet)  and
+     * |strSet| <= |#strSet|  and
+     * CONTAINS_NO_SUBSTRING_PAIRS(strSet)  and
+     * CONTAINS_NO_OVERLAPPING_PAIRS(strSet)
+     * </pre>
+     */
+    public static void assemble(Set<String> strSet) {
+        assemble(strSet, Integer.getInteger(WIDTH_PROPERTY, DEFAULT_WIDTH));
+    }
+
+}
@@ -0,0 +1,348 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import components.set.Set;
+
+/**
+ * Non-greedy assembler based on the best overlap graph of the fragments: each
+ * fragment keeps only its best outgoing edge (the fragment its suffix overlaps
+ * most) and its best incoming edge, and two fragments are linked only when
+ * each is the other's best choice. Since every fragment then has at most one
+ * link in and one link out, the links form simple paths, which a single
+ * linear traversal spells out.
+ *
+ * <p>
+ * Where the greedy assemblers take the largest overlap left even when it only
+ * suits one side of the pair (typically because of a phrase repeated in the
+ * text), this one leaves both fragments alone until a later round, when the
+ * contigs around them have grown and their best choices can be compared
+ * again. Each round costs time close to linear in the number of edges, and
+ * the number of rounds grows roughly with the logarithm of the number of
+ * fragments rather than with the number of fragments. The largest edge of the
+ * graph is always mutually best, so every round makes progress and the final
+ * set has no overlapping pairs left, as with the greedy assemblers.
+ *
+ * <p>
+ * The number of edges is what keeps this near linear: with overlaps of a
+ * single character allowed, almost every pair of fragments is an edge. So
+ * {@link #assemble(Set)} first assembles with a minimum overlap of
+ * {@value #DEFAULT_MIN_OVERLAP}, or the value of the system property
+ * {@value #MIN_OVERLAP_PROPERTY}, and only then, once few contigs are left,
+ * allows shorter overlaps.
+ *
+ * @author Justin Imber
+ *
+ */
+public final class BestOverlapGraphAssembler {
+
+    /**
+     * System property giving the minimum overlap the
+     * {@link AssemblyEngine#BEST_OVERLAP} engine uses before it allows shorter
+     * ones.
+     */
+    public static final String MIN_OVERLAP_PROPERTY = ""
+            + "stringreassembly.best.minoverlap";
+
+    /**
+     * Minimum overlap used when {@value #MIN_OVERLAP_PROPERTY} is not set.
+     */
+    public static final int DEFAULT_MIN_OVERLAP = 6;
+
+    /**
+     * Marker for "no fragment".
+     */
+    private static final int NONE = -1;
+
+    /**
+     * Private no-argument constructor to prevent instantiation of this utility
+     * class.
+     */
+    private BestOverlapGraphAssembler() {
+    }
+
+    /**
+     * Links each fragment to its best successor whenever it is also that
+     * successor's best predecessor, and returns the strings spelled out by
+     * the resulting chains.
+     *
+     * @param fragments
+     *            the fragments
+     * @param edges
+     *            the overlap graph of {@code fragments}
+     * @return the assembled strings
+     * @clears edges
+     * @requires <pre>
+     * CONTAINS_NO_SUBSTRING_PAIRS(entries(fragments))  and
+     * edges is an overlap graph of fragments
+     * </pre>
+     * @ensures <pre>
+     * mergeMutualBest is the result of combining every pair of fragments that
+     * are each other's best overlap in edges
+     * </pre>
+     */
+    static String[] mergeMutualBest(CharSequence[] fragments,
+            OverlapEdgeHeap edges) {
+        assert fragments != null : "Violation of: fragments is not null";
+        assert edges != null : "Violation of: edges is not null";
+        int n = fragments.length;
+        /*
+         * Edges leave the heap best first, so the first edge seen out of (into)
+         * a fragment is its best outgoing (incoming) edge
+         */
+        int[] bestOut = new int[n];
+        int[] bestIn = new int[n];
+        int[] overlapOut = new int[n];
+        for (int i = 0; i < n; i++) {
+            bestOut[i] = NONE;
+            bestIn[i] = NONE;
+        }
+        while (edges.size() > 0) {
+            long edge = edges.removeMax();
+            int from = OverlapEdgeHeap.from(edge);
+            int to = OverlapEdgeHeap.to(edge);
+            if (bestOut[from] == NONE) {
+                bestOut[from] = to;
+                overlapOut[from] = OverlapEdgeHeap.overlap(edge);
+            }
+            if (bestIn[to] == NONE) {
+                bestIn[to] = from;
+            }
+        }
+        /*
+         * Keep only the mutual links; successor[i] is the fragment linked
+         * after fragment i, if any
+         */
+        int[] successor = new int[n];
+        boolean[] hasPredecessor = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            successor[i] = NONE;
+        }
+        for (int i = 0; i < n; i++) {
+            int j = bestOut[i];
+            if (j != NONE && bestIn[j] == i) {
+                successor[i] = j;
+                hasPredecessor[j] = true;
+            }
+        }
+        /*
+         * A chain whose fragments all have predecessors is a cycle; cut its
+         * link with the smallest overlap, which turns it into a path
+         */
+        boolean[] visited = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            if (!hasPredecessor[i]) {
+                int j = i;
+                while (j != NONE) {
+                    visited[j] = true;
+                    j = successor[j];
+                }
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            if (!visited[i]) {
+                int weakest = i;
+                int j = i;
+                do {
+                    visited[j] = true;
+                    if (overlapOut[j] < overlapOut[weakest]) {
+                        weakest = j;
+                    }
+                    j = successor[j];
+                } while (j != i);
+                hasPredecessor[successor[weakest]] = false;
+                successor[weakest] = NONE;
+            }
+        }
+        /*
+         * Spell out each chain, starting from its first fragment
+         */
+        int chains = 0;
+        for (int i = 0; i < n; i++) {
+            if (!hasPredecessor[i]) {
+                chains++;
+            }
+        }
+        String[] contigs = new String[chains];
+        int c = 0;
+        for (int i = 0; i < n; i++) {
+            if (!hasPredecessor[i]) {
+                StringBuilder contig = new StringBuilder(fragments[i]);
+                int j = i;
+                while (successor[j] != NONE) {
+                    int next = successor[j];
+                    contig.append(fragments[next], overlapOut[j],
+                            fragments[next].length());
+                    j = next;
+                }
+                contigs[c] = contig.toString();
+                c++;
+            }
+        }
+        AssemblyMetrics.global().recordMerges(n - chains);
+        return contigs;
+    }
+
+    /**
+     * Returns the overlap graph of {@code fragments}, restricted to overlaps
+     * of at least {@code minOverlap}, recording the time taken as one round.
+     *
+     * @param fragments
+     *            the fragments
+     * @param minOverlap
+     *            smallest overlap kept
+     * @return the overlap graph
+     * @requires <pre>
+     * CONTAINS_NO_SUBSTRING_PAIRS(entries(fragments))  and  minOverlap > 0
+     * </pre>
+     */
+    private static OverlapEdgeHeap timedOverlapGraph(String[] fragments,
+            int minOverlap) {
+        long start = System.nanoTime();
+        OverlapEdgeHeap edges = OverlapGraphAssembler.overlapGraph(fragments,
+                minOverlap, minOverlap);
+        AssemblyMetrics.global().recordRound(System.nanoTime() - start);
+        return edges;
+    }
+
+    /**
+     * Returns the overlap graph of {@code fragments}, given that no two of
+     * them overlap by more than {@code maxOverlap}: the suffixes of each
+     * fragment up to that length are looked up among the prefixes of the
+     * others, so only pairs that do overlap are ever compared.
+     *
+     * @param fragments
+     *            the fragments
+     * @param maxOverlap
+     *            longest overlap between two fragments
+     * @return the overlap graph
+     * @requires <pre>
+     * CONTAINS_NO_SUBSTRING_PAIRS(entries(fragments))  and
+     * no two entries of fragments overlap by more than maxOverlap
+     * </pre>
+     */
+    private static OverlapEdgeHeap shortOverlapGraph(String[] fragments,
+            int maxOverlap) {
+        long start = System.nanoTime();
+        Map<String, List<Integer>> byPrefix = new HashMap<>();
+        for (int j = 0; j < fragments.length; j++) {
+            int longest = Math.min(maxOverlap, fragments[j].length() - 1);
+            for (int k = 1; k <= longest; k++) {
+                byPrefix.computeIfAbsent(fragments[j].substring(0, k),
+                        key -> new ArrayList<>()).add(j);
+            }
+        }
+        OverlapEdgeHeap edges = new OverlapEdgeHeap();
+        /*
+         * seen[j] == i + 1 once the edge from fragment i to fragment j has
+         * been added; overlaps are tried longest first, so that is the best
+         */
+        int[] seen = new int[fragments.length];
+        for (int i = 0; i < fragments.length; i++) {
+            String str = fragments[i];
+            int longest = Math.min(maxOverlap, str.length());
+            for (int k = longest; k > 0; k--) {
+                List<Integer> matches = byPrefix
+                        .get(str.substring(str.length() - k));
+                if (matches != null) {
+                    for (int j : matches) {
+                        if (j != i && seen[j] != i + 1) {
+                            seen[j] = i + 1;
+                            edges.add(i, j, k);
+                        }
+                    }
+                }
+            }
+        }
+        AssemblyMetrics.global().recordRound(System.nanoTime() - start);
+        return edges;
+    }
+
+    /**
+     * Combines strings in {@code strSet} as much as possible without using
+     * any overlap shorter than {@code minOverlap}, in rounds that each combine
+     * only pairs of strings that are each other's best overlap, until no two
+     * strings overlap by {@code minOverlap} or more.
+     *
+     * @param strSet
+     *            set of strings
+     * @param minOverlap
+     *            smallest overlap used to combine two strings
+     * @updates strSet
+     * @requires <pre>
+     * CONTAINS_NO_SUBSTRING_PAIRS(strSet)  and  minOverlap > 0
+     * </pre>
+     * @ensures <pre>
+     * ALL_SUPERSTRINGS(strSet) is subset of ALL_SUPERSTRINGS(#strSet)  and
+     * |strSet| <= |#strSet|  and
+     * CONTAINS_NO_SUBSTRING_PAIRS(strSet)  and
+     * for all t1, t2: string of character, k: integer
+     *     where (t1 /= t2  and  t1 is in strSet  and  t2 is in strSet  and
+     *            minOverlap <= k)
+     *   (not OVERLAPS(t1, t2, k))
+     * </pre>
+     */
+    public static void assemble(Set<String> strSet, int minOverlap) {
+        assert strSet != null : "Violation of: strSet is not null";
+        assert minOverlap > 0 : "Violation of: minOverlap > 0";
+        /*
+         * Note: Rest of precondition not checked!
+         */
+        String[] fragments = OverlapGraphAssembler.snapshot(strSet);
+        String[] merged = mergeMutualBest(fragments,
+                timedOverlapGraph(fragments, minOverlap));
+        while (merged.length < fragments.length) {
+            fragments = merged;
+            merged = mergeMutualBest(fragments,
+                    timedOverlapGraph(fragments, minOverlap));
+        }
+        for (String contig : merged) {
+            strSet.add(contig);
+        }
+    }
+
+    /**
+     * Combines strings in {@code strSet} as much as possible, leaving in it
+     * only strings that have no overlap between a suffix of one string and a
+     * prefix of another, in rounds that each combine only pairs of strings
+     * that are each other's best overlap: first with the minimum overlap
+     * given by the system property {@value #MIN_OVERLAP_PROPERTY} (default
+     * {@value #DEFAULT_MIN_OVERLAP}), and then with any overlap.
+     *
+     * @param strSet
+     *            set of strings
+     * @updates strSet
+     * @requires CONTAINS_NO_SUBSTRING_PAIRS(strSet)
+     * @ensures <pre>
+     * ALL_SUPERSTRINGS(strSet) is subset of ALL_SUPERSTRINGS(#strSet)  and
+     * |strSet| <= |#strSet|  and
+     * CONTAINS_NO_SUBSTRING_PAIRS(strSet)  and
+     * CONTAINS_NO_OVERLAPPING_PAIRS(strSet)
+     * </pre>
+     */
+    public static void assemble(Set<String> strSet) {
+        int minOverlap = Integer.getInteger(MIN_OVERLAP_PROPERTY,
+                DEFAULT_MIN_OVERLAP);
+        assemble(strSet, minOverlap);
+        if (minOverlap > 1) {
+            /*
+             * No two strings overlap by minOverlap or more now, and merging
+             * two of them makes no new suffix or prefix, so the overlaps left
+             * are all short enough to look up by their ends
+             */
+            String[] fragments = OverlapGraphAssembler.snapshot(strSet);
+            String[] merged = mergeMutualBest(fragments,
+                    shortOverlapGraph(fragments, minOverlap - 1));
+            while (merged.length < fragments.length) {
+                fragments = merged;
+                merged = mergeMutualBest(fragments,
+                        shortOverlapGraph(fragments, minOverlap - 1));
+            }
+            for (String contig : merged) {
+                strSet.add(contig);
+            }
+        }
+    }
+
+}
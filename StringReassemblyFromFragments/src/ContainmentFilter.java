@@ -0,0 +1,482 @@
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Bulk version of {@link StringReassembly#addToSetAvoidingSubstrings}: given
+ * all the fragments at once, selects the maximal ones (those that are not a
+ * substring of another fragment) in time close to linear in their total
+ * length.
+ *
+ * <p>
+ * Fragments are considered longest first, so a fragment can only be contained
+ * in one that has already been kept. The kept fragments are indexed by a
+ * generalized suffix automaton, which recognizes exactly the substrings of the
+ * strings inserted into it and answers each query in time linear in the length
+ * of the query.
+ *
+ * <p>
+ * {@link #maximalIndicesInParallel(CharSequence[])} splits the same work
+ * between threads. A fragment is contained in a longer one exactly when it is
+ * contained in one of the fragments ahead of it in the longest-first order,
+ * kept or not, so the order is cut into blocks; each block is filtered on its
+ * own, and then each of its fragments is checked against the automaton of
+ * each earlier block, one task per pair of blocks. Each check only involves
+ * fragments at least as long as the one checked, and the fragments kept are
+ * exactly those {@link #maximalIndices(CharSequence[])} keeps.
+ *
+ * @author Justin Imber
+ *
+ */
+public final class ContainmentFilter {
+
+    /**
+     * Marker for "no state" / "no edge".
+     */
+    private static final int NONE = -1;
+
+    /**
+     * Initial capacity of the state and edge arrays.
+     */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * Length of the longest string reaching each state.
+     */
+    private int[] len;
+
+    /**
+     * Suffix link of each state.
+     */
+    private int[] link;
+
+    /**
+     * First outgoing edge of each state.
+     */
+    private int[] firstEdge;
+
+    /**
+     * Number of states.
+     */
+    private int states;
+
+    /**
+     * Label of each edge.
+     */
+    private char[] edgeLabel;
+
+    /**
+     * Target state of each edge.
+     */
+    private int[] edgeTarget;
+
+    /**
+     * Next edge leaving the same state.
+     */
+    private int[] edgeNext;
+
+    /**
+     * Number of edges.
+     */
+    private int edges;
+
+    /**
+     * Constructor; creates an automaton recognizing only the empty string,
+     * for callers such as {@link IncrementalAssembler} that add strings one at
+     * a time.
+     */
+    ContainmentFilter() {
+        this.len = new int[INITIAL_CAPACITY];
+        this.link = new int[INITIAL_CAPACITY];
+        this.firstEdge = new int[INITIAL_CAPACITY];
+        this.states = 0;
+        this.edgeLabel = new char[INITIAL_CAPACITY];
+        this.edgeTarget = new int[INITIAL_CAPACITY];
+        this.edgeNext = new int[INITIAL_CAPACITY];
+        this.edges = 0;
+        this.newState(0, NONE);
+    }
+
+    /**
+     * Adds a state with no outgoing edges.
+     *
+     * @param length
+     *            length of the longest string reaching the new state
+     * @param suffixLink
+     *            suffix link of the new state
+     * @return the new state
+     */
+    private int newState(int length, int suffixLink) {
+        if (this.states == this.len.length) {
+            int capacity = 2 * this.states;
+            this.len = Arrays.copyOf(this.len, capacity);
+            this.link = Arrays.copyOf(this.link, capacity);
+            this.firstEdge = Arrays.copyOf(this.firstEdge, capacity);
+        }
+        this.len[this.states] = length;
+        this.link[this.states] = suffixLink;
+        this.firstEdge[this.states] = NONE;
+        this.states++;
+        return this.states - 1;
+    }
+
+    /**
+     * Reports the target of the edge labeled {@code c} leaving {@code state}.
+     *
+     * @param state
+     *            source state
+     * @param c
+     *            edge label
+     * @return target state, or {@code NONE} if there is no such edge
+     */
+    private int next(int state, char c) {
+        int e = this.firstEdge[state];
+        while (e != NONE && this.edgeLabel[e] != c) {
+            e = this.edgeNext[e];
+        }
+        int target = NONE;
+        if (e != NONE) {
+            target = this.edgeTarget[e];
+        }
+        return target;
+    }
+
+    /**
+     * Sets the target of the edge labeled {@code c} leaving {@code state},
+     * adding the edge if it does not exist yet.
+     *
+     * @param state
+     *            source state
+     * @param c
+     *            edge label
+     * @param target
+     *            target state
+     */
+    private void setNext(int state, char c, int target) {
+        int e = this.firstEdge[state];
+        while (e != NONE && this.edgeLabel[e] != c) {
+            e = this.edgeNext[e];
+        }
+        if (e != NONE) {
+            this.edgeTarget[e] = target;
+        } else {
+            if (this.edges == this.edgeLabel.length) {
+                int capacity = 2 * this.edges;
+                this.edgeLabel = Arrays.copyOf(this.edgeLabel, capacity);
+                this.edgeTarget = Arrays.copyOf(this.edgeTarget, capacity);
+                this.edgeNext = Arrays.copyOf(this.edgeNext, capacity);
+            }
+            this.edgeLabel[this.edges] = c;
+            this.edgeTarget[this.edges] = target;
+            this.edgeNext[this.edges] = this.firstEdge[state];
+            this.firstEdge[state] = this.edges;
+            this.edges++;
+        }
+    }
+
+    /**
+     * Splits {@code q} so that the strings of length at most
+     * {@code len[p] + 1} reaching it get a state of their own, and redirects
+     * the {@code c} edges of {@code p} and its suffix-link ancestors that led
+     * to {@code q}.
+     *
+     * @param p
+     *            state with an edge labeled {@code c} to {@code q}
+     * @param q
+     *            state to split
+     * @param c
+     *            edge label
+     * @return the new clone of {@code q}
+     */
+    private int split(int p, int q, char c) {
+        int clone = this.newState(this.len[p] + 1, this.link[q]);
+        for (int e = this.firstEdge[q]; e != NONE; e = this.edgeNext[e]) {
+            this.setNext(clone, this.edgeLabel[e], this.edgeTarget[e]);
+        }
+        int r = p;
+        while (r != NONE && this.next(r, c) == q) {
+            this.setNext(r, c, clone);
+            r = this.link[r];
+        }
+        this.link[q] = clone;
+        return clone;
+    }
+
+    /**
+     * Extends the automaton with character {@code c} after state
+     * {@code last}.
+     *
+     * @param last
+     *            state reached by the part of the string inserted so far
+     * @param c
+     *            next character of the string
+     * @return state reached by the extended string
+     */
+    private int extend(int last, char c) {
+        int result;
+        int q = this.next(last, c);
+        if (q != NONE) {
+            /*
+             * The extended string is already recognized (it occurs in an
+             * earlier string); just make sure it has a state of its own
+             */
+            if (this.len[q] == this.len[last] + 1) {
+                result = q;
+            } else {
+                result = this.split(last, q, c);
+            }
+        } else {
+            int cur = this.newState(this.len[last] + 1, 0);
+            int p = last;
+            while (p != NONE && this.next(p, c) == NONE) {
+                this.setNext(p, c, cur);
+                p = this.link[p];
+            }
+            if (p != NONE) {
+                q = this.next(p, c);
+                if (this.len[q] == this.len[p] + 1) {
+                    this.link[cur] = q;
+                } else {
+                    /*
+                     * split may grow the arrays, so call it before indexing
+                     * into link
+                     */
+                    int clone = this.split(p, q, c);
+                    this.link[cur] = clone;
+                }
+            }
+            result = cur;
+        }
+        return result;
+    }
+
+    /**
+     * Adds {@code str} to the strings recognized by this automaton.
+     *
+     * @param str
+     *            string to add
+     */
+    void insert(CharSequence str) {
+        int last = 0;
+        for (int i = 0; i < str.length(); i++) {
+            last = this.extend(last, str.charAt(i));
+        }
+    }
+
+    /**
+     * Reports whether {@code str} is a substring of a string added to this
+     * automaton.
+     *
+     * @param str
+     *            string to look up
+     * @return whether {@code str} is a substring of an added string
+     */
+    boolean recognizes(CharSequence str) {
+        int state = 0;
+        int i = 0;
+        while (state != NONE && i < str.length()) {
+            state = this.next(state, str.charAt(i));
+            i++;
+        }
+        return state != NONE;
+    }
+
+    /**
+     * Returns the indices of {@code fragments}, longest first, with equal
+     * lengths in increasing order of index.
+     *
+     * @param fragments
+     *            the fragments
+     * @return the indices of {@code fragments} in longest-first order
+     */
+    private static int[] longestFirst(final CharSequence[] fragments) {
+        Integer[] order = new Integer[fragments.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer i, Integer j) {
+                int result = Integer.compare(fragments[j].length(),
+                        fragments[i].length());
+                if (result == 0) {
+                    result = Integer.compare(i, j);
+                }
+                return result;
+            }
+        });
+        int[] result = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            result[i] = order[i];
+        }
+        return result;
+    }
+
+    /**
+     * Returns the indices {@code i} for which {@code isKept[i]} holds, in
+     * increasing order.
+     *
+     * @param isKept
+     *            which fragments are kept
+     * @return indices of the kept fragments
+     */
+    private static int[] keptIndices(boolean[] isKept) {
+        int count = 0;
+        for (boolean kept : isKept) {
+            if (kept) {
+                count++;
+            }
+        }
+        int[] result = new int[count];
+        int k = 0;
+        for (int i = 0; i < isKept.length; i++) {
+            if (isKept[i]) {
+                result[k] = i;
+                k++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the indices of the maximal fragments of {@code fragments}: one
+     * index for each distinct fragment that is not a substring of another
+     * fragment, in increasing order. Of several equal fragments, the one with
+     * the smallest index is chosen.
+     *
+     * @param fragments
+     *            the fragments
+     * @return indices of the maximal fragments
+     * @ensures <pre>
+     * CONTAINS_NO_SUBSTRING_PAIRS(entries of fragments at maximalIndices)  and
+     * {fragments[i]: i in maximalIndices} =
+     *   [maximal subset of entries(fragments) such that
+     *    CONTAINS_NO_SUBSTRING_PAIRS(that subset)]
+     * </pre>
+     */
+    public static int[] maximalIndices(final CharSequence[] fragments) {
+        assert fragments != null : "Violation of: fragments is not null";
+        /*
+         * Consider fragments longest first, keeping earlier copies of equal
+         * fragments ahead of later ones
+         */
+        int[] order = longestFirst(fragments);
+        boolean[] isKept = new boolean[fragments.length];
+        filter(fragments, order, 0, order.length, isKept);
+        return keptIndices(isKept);
+    }
+
+    /**
+     * Keeps each fragment of {@code order[lo, hi)} that does not occur in one
+     * kept before it, and returns an automaton of the fragments kept.
+     *
+     * @param fragments
+     *            the fragments
+     * @param order
+     *            indices of the fragments, longest first
+     * @param lo
+     *            first position in {@code order}
+     * @param hi
+     *            one past the last position in {@code order}
+     * @param isKept
+     *            which fragments are kept
+     * @return automaton recognizing the substrings of the fragments of
+     *         {@code order[lo, hi)}
+     * @updates isKept
+     */
+    private static ContainmentFilter filter(CharSequence[] fragments,
+            int[] order, int lo, int hi, boolean[] isKept) {
+        ContainmentFilter kept = new ContainmentFilter();
+        for (int k = lo; k < hi; k++) {
+            int i = order[k];
+            if (k == lo || !kept.recognizes(fragments[i])) {
+                kept.insert(fragments[i]);
+                isKept[i] = true;
+            }
+        }
+        return kept;
+    }
+
+    /**
+     * Returns the indices of the maximal fragments of {@code fragments},
+     * exactly as {@link #maximalIndices(CharSequence[])} does, splitting the
+     * fragments, longest first, into {@code blocks} blocks that are filtered
+     * and checked against each other on the common {@link ForkJoinPool}.
+     *
+     * @param fragments
+     *            the fragments
+     * @param blocks
+     *            number of blocks
+     * @return indices of the maximal fragments
+     * @requires blocks > 0
+     * @ensures maximalIndicesInParallel = maximalIndices(fragments)
+     */
+    static int[] maximalIndicesInParallel(final CharSequence[] fragments,
+            int blocks) {
+        assert fragments != null : "Violation of: fragments is not null";
+        assert blocks > 0 : "Violation of: blocks > 0";
+        final int[] order = longestFirst(fragments);
+        /*
+         * Block b holds order[start[b], start[b + 1])
+         */
+        final int count = Math.max(1, Math.min(blocks, order.length));
+        final int[] start = new int[count + 1];
+        for (int b = 0; b <= count; b++) {
+            start[b] = (int) ((long) order.length * b / count);
+        }
+        /*
+         * Filter each block on its own...
+         */
+        final boolean[] isKept = new boolean[fragments.length];
+        final ContainmentFilter[] automata = new ContainmentFilter[count];
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        pool.invoke(new RangeTask(b -> automata[b] = filter(fragments, order,
+                start[b], start[b + 1], isKept), 0, count));
+        /*
+         * ... then check what each block kept against every earlier block;
+         * pair p is block b against block c, for c < b. Several tasks may
+         * find the same fragment contained, but they all store the same value
+         * in contained, and invoke returns only once they have all finished
+         */
+        final boolean[] contained = new boolean[fragments.length];
+        final int[] later = new int[count * (count - 1) / 2];
+        final int[] earlier = new int[later.length];
+        int p = 0;
+        for (int b = 1; b < count; b++) {
+            for (int c = 0; c < b; c++) {
+                later[p] = b;
+                earlier[p] = c;
+                p++;
+            }
+        }
+        pool.invoke(new RangeTask(q -> {
+            ContainmentFilter automaton = automata[earlier[q]];
+            for (int k = start[later[q]]; k < start[later[q] + 1]; k++) {
+                int i = order[k];
+                if (isKept[i] && automaton.recognizes(fragments[i])) {
+                    contained[i] = true;
+                }
+            }
+        }, 0, later.length));
+        for (int i = 0; i < fragments.length; i++) {
+            isKept[i] = isKept[i] && !contained[i];
+        }
+        return keptIndices(isKept);
+    }
+
+    /**
+     * Returns the indices of the maximal fragments of {@code fragments},
+     * exactly as {@link #maximalIndices(CharSequence[])} does, with the work
+     * split between the threads of the common {@link ForkJoinPool}.
+     *
+     * @param fragments
+     *            the fragments
+     * @return indices of the maximal fragments
+     * @ensures maximalIndicesInParallel = maximalIndices(fragments)
+     */
+    public static int[] maximalIndicesInParallel(CharSequence[] fragments) {
+        return maximalIndicesInParallel(fragments,
+                ForkJoinPool.commonPool().getParallelism());
+    }
+
+}
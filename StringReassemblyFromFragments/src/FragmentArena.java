@@ -0,0 +1,322 @@
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The lines of a fragment file, read without copying: the file is
+ * memory-mapped, and each line is recorded only as a segment number, an
+ * offset, and a length into the mapped bytes. Each byte is one character,
+ * so the file must be pure 7-bit ASCII; {@link #load(String)} rejects any
+ * other byte rather than misreading UTF-8 one byte at a time. Lines end at
+ * {@code "\n"}, {@code "\r"}, or {@code "\r\n"}, as they do for
+ * {@code SimpleReader} and {@code BufferedReader}.
+ *
+ * <p>
+ * A single mapping is limited to {@code Integer.MAX_VALUE} bytes, so a larger
+ * file is mapped as several segments, each ending at a line boundary; no line
+ * ever spans two segments, and offsets within a segment fit in an
+ * {@code int}.
+ *
+ * <p>
+ * The arena holds up to {@code Integer.MAX_VALUE} lines of a file of any
+ * size, but {@link OverlapGraphAssembler#assemble(FragmentArena)} builds the
+ * all-pairs overlap graph, which numbers fragments in 21 bits: it rejects
+ * more than 2<sup>21</sup> fragments (after dropping those contained in
+ * others), and its time grows with the square of their number.
+ *
+ * @author Justin Imber
+ *
+ */
+public final class FragmentArena {
+
+    /**
+     * Mask of the bits of a byte, for reading it as an unsigned value.
+     */
+    private static final int BYTE_MASK = 0xFF;
+
+    /**
+     * Initial capacity of the per-line arrays.
+     */
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /**
+     * Mapped segments of the file.
+     */
+    private final MappedByteBuffer[] segments;
+
+    /**
+     * Segment holding each line.
+     */
+    private int[] segment;
+
+    /**
+     * Offset of each line within its segment.
+     */
+    private int[] offset;
+
+    /**
+     * Length of each line, not counting its line terminator.
+     */
+    private int[] length;
+
+    /**
+     * Number of lines.
+     */
+    private int size;
+
+    /**
+     * Private constructor; use {@link #load(String)}.
+     *
+     * @param segments
+     *            mapped segments of the file
+     */
+    private FragmentArena(MappedByteBuffer[] segments) {
+        this.segments = segments;
+        this.segment = new int[INITIAL_CAPACITY];
+        this.offset = new int[INITIAL_CAPACITY];
+        this.length = new int[INITIAL_CAPACITY];
+        this.size = 0;
+    }
+
+    /**
+     * Records the line {@code segments[seg][start, end)}.
+     *
+     * @param seg
+     *            segment holding the line
+     * @param start
+     *            offset of the line
+     * @param end
+     *            offset just past the line
+     */
+    private void addLine(int seg, int start, int end) {
+        if (this.size == this.segment.length) {
+            int capacity = 2 * this.size;
+            this.segment = Arrays.copyOf(this.segment, capacity);
+            this.offset = Arrays.copyOf(this.offset, capacity);
+            this.length = Arrays.copyOf(this.length, capacity);
+        }
+        this.segment[this.size] = seg;
+        this.offset[this.size] = start;
+        this.length[this.size] = end - start;
+        this.size++;
+    }
+
+    /**
+     * Memory-maps the file {@code fileName} and records its lines.
+     *
+     * @param fileName
+     *            name of the fragment file
+     * @return the lines of the file
+     * @throws IOException
+     *             if the file cannot be read, or is not pure ASCII
+     * @ensures <pre>
+     * load = [lines of the file, without their line terminators, as
+     *         SimpleReader.nextLine would return them]
+     * </pre>
+     */
+    public static FragmentArena load(String fileName) throws IOException {
+        return load(fileName, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Memory-maps the file {@code fileName}, in segments of at most
+     * {@code maxSegment} bytes, and records its lines.
+     *
+     * @param fileName
+     *            name of the fragment file
+     * @param maxSegment
+     *            largest number of bytes mapped as one segment
+     * @return the lines of the file
+     * @throws IOException
+     *             if the file cannot be read, or is not pure ASCII
+     * @requires <pre>
+     * maxSegment > 0  and
+     * [every line, with its terminator, fits in maxSegment bytes]
+     * </pre>
+     * @ensures <pre>
+     * load = [lines of the file, without their line terminators, as
+     *         SimpleReader.nextLine would return them]
+     * </pre>
+     */
+    static FragmentArena load(String fileName, int maxSegment)
+            throws IOException {
+        assert fileName != null : "Violation of: fileName is not null";
+        assert maxSegment > 0 : "Violation of: maxSegment > 0";
+        try (RandomAccessFile file = new RandomAccessFile(fileName, "r");
+                FileChannel channel = file.getChannel()) {
+            /*
+             * Map the file in pieces of at most maxSegment bytes, each cut
+             * just after the last line terminator it contains; a carriage
+             * return in the last byte mapped may be the first half of a
+             * "\r\n", so the cut is never made just after it
+             */
+            long fileSize = channel.size();
+            List<MappedByteBuffer> pieces = new ArrayList<>();
+            List<Integer> pieceLengths = new ArrayList<>();
+            long position = 0;
+            while (position < fileSize) {
+                long remaining = fileSize - position;
+                int mapped = (int) Math.min(remaining, maxSegment);
+                MappedByteBuffer piece = channel
+                        .map(FileChannel.MapMode.READ_ONLY, position, mapped);
+                int used = mapped;
+                if (mapped < remaining) {
+                    used = mapped - 1;
+                    if (piece.get(used) == '\r') {
+                        used--;
+                    }
+                    while (used >= 0 && piece.get(used) != '\n'
+                            && piece.get(used) != '\r') {
+                        used--;
+                    }
+                    assert used >= 0 : "Violation of: every line fits in "
+                            + "maxSegment bytes";
+                    used++;
+                }
+                pieces.add(piece);
+                pieceLengths.add(used);
+                position += used;
+            }
+            FragmentArena arena = new FragmentArena(
+                    pieces.toArray(new MappedByteBuffer[pieces.size()]));
+            /*
+             * Split each segment into lines, checking that every byte is
+             * ASCII; only the last segment can end without a line terminator
+             */
+            for (int seg = 0; seg < pieces.size(); seg++) {
+                MappedByteBuffer piece = pieces.get(seg);
+                int used = pieceLengths.get(seg);
+                int start = 0;
+                for (int i = 0; i < used; i++) {
+                    byte b = piece.get(i);
+                    if (b < 0) {
+                        throw new IOException(fileName + " is not pure ASCII: "
+                                + "line " + (arena.size + 1) + " has byte 0x"
+                                + Integer.toHexString(b & BYTE_MASK));
+                    }
+                    if (b == '\n' || b == '\r') {
+                        arena.addLine(seg, start, i);
+                        if (b == '\r' && i + 1 < used
+                                && piece.get(i + 1) == '\n') {
+                            i++;
+                        }
+                        start = i + 1;
+                    }
+                }
+                if (start < used) {
+                    arena.addLine(seg, start, used);
+                }
+            }
+            return arena;
+        }
+    }
+
+    /**
+     * Reports the number of lines.
+     *
+     * @return the number of lines
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns line {@code i} as a {@code CharSequence} that reads directly
+     * from the mapped file.
+     *
+     * @param i
+     *            line number, counting from 0
+     * @return view of line {@code i}
+     * @requires 0 <= i < size()
+     */
+    public CharSequence fragment(int i) {
+        assert 0 <= i && i < this.size : "Violation of: 0 <= i < size()";
+        return new Fragment(this.segments[this.segment[i]], this.offset[i],
+                this.length[i]);
+    }
+
+    /**
+     * Returns views of all the lines, in order.
+     *
+     * @return views of all the lines
+     * @ensures |fragments| = size()
+     */
+    public CharSequence[] fragments() {
+        CharSequence[] views = new CharSequence[this.size];
+        for (int i = 0; i < this.size; i++) {
+            views[i] = this.fragment(i);
+        }
+        return views;
+    }
+
+    /**
+     * View of some of the bytes of a mapped segment as characters.
+     */
+    private static final class Fragment implements CharSequence {
+
+        /**
+         * The mapped segment.
+         */
+        private final MappedByteBuffer bytes;
+
+        /**
+         * Offset of the first character in {@code bytes}.
+         */
+        private final int start;
+
+        /**
+         * Number of characters.
+         */
+        private final int length;
+
+        /**
+         * Constructor.
+         *
+         * @param bytes
+         *            the mapped segment
+         * @param start
+         *            offset of the first character
+         * @param length
+         *            number of characters
+         */
+        Fragment(MappedByteBuffer bytes, int start, int length) {
+            this.bytes = bytes;
+            this.start = start;
+            this.length = length;
+        }
+
+        @Override
+        public int length() {
+            return this.length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            assert 0 <= index && index < this.length : ""
+                    + "Violation of: 0 <= index < |this|";
+            return (char) (this.bytes.get(this.start + index) & BYTE_MASK);
+        }
+
+        @Override
+        public CharSequence subSequence(int from, int to) {
+            assert 0 <= from && from <= to && to <= this.length : ""
+                    + "Violation of: 0 <= from <= to <= |this|";
+            return new Fragment(this.bytes, this.start + from, to - from);
+        }
+
+        @Override
+        public String toString() {
+            char[] chars = new char[this.length];
+            for (int i = 0; i < this.length; i++) {
+                chars[i] = this.charAt(i);
+            }
+            return new String(chars);
+        }
+
+    }
+
+}
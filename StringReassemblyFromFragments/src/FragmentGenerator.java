@@ -0,0 +1,288 @@
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import components.simplereader.SimpleReader;
+import components.simplereader.SimpleReader1L;
+import components.simplewriter.SimpleWriter;
+import components.simplewriter.SimpleWriter1L;
+
+/**
+ * Generates fragment files in the same format as the ones in {@code data}
+ * (one fragment per line, with '~' standing for a line separator of the
+ * original text) from any source text, for testing how the assemblers scale
+ * beyond the bundled samples.
+ *
+ * <p>
+ * The fragments always include a "backbone" that tiles the whole text, each
+ * fragment overlapping the next by at least the minimum overlap, so that the
+ * text can be reassembled; further fragments are cut at random positions until
+ * the fragments together hold about {@code coverage} times as many characters
+ * as the text. The fragments are written in random order.
+ *
+ * @author Justin Imber
+ *
+ */
+public final class FragmentGenerator {
+
+    /**
+     * Largest number of fragments generated.
+     */
+    public static final int MAX_FRAGMENTS = 1000000;
+
+    /**
+     * Private no-argument constructor to prevent instantiation of this utility
+     * class.
+     */
+    private FragmentGenerator() {
+    }
+
+    /**
+     * Returns fragments of {@code text} of length {@code length} that together
+     * cover {@code text} about {@code coverage} times, in random order.
+     *
+     * @param text
+     *            the source text
+     * @param length
+     *            length of each fragment
+     * @param minOverlap
+     *            minimum overlap between consecutive backbone fragments
+     * @param coverage
+     *            total length of the fragments, as a multiple of |text|
+     * @param seed
+     *            seed of the random choices
+     * @return the fragments
+     * @requires <pre>
+     * 0 <= minOverlap < length <= |text|  and
+     * fits(|text|, length, minOverlap, MAX_FRAGMENTS)
+     * </pre>
+     * @ensures <pre>
+     * every entry of fragments is a substring of text  and
+     * the entries of fragments can be combined, overlapping by at least
+     * minOverlap characters each time, into text  and
+     * |fragments| <= MAX_FRAGMENTS
+     * </pre>
+     */
+    public static List<String> fragments(String text, int length,
+            int minOverlap, double coverage, long seed) {
+        return fragments(text, length, minOverlap, coverage, seed,
+                MAX_FRAGMENTS);
+    }
+
+    /**
+     * Reports whether a backbone of at most {@code maxFragments} fragments of
+     * length {@code length}, each overlapping the next by at least
+     * {@code minOverlap}, can tile a text of length {@code textLength}.
+     *
+     * @param textLength
+     *            length of the text
+     * @param length
+     *            length of each fragment
+     * @param minOverlap
+     *            minimum overlap between consecutive backbone fragments
+     * @param maxFragments
+     *            largest number of fragments
+     * @return true iff the backbone fits
+     * @requires 0 <= minOverlap < length <= textLength  and  maxFragments > 0
+     * @ensures <pre>
+     * fits = (textLength - length <=
+     *         (maxFragments - 1) * (length - minOverlap))
+     * </pre>
+     */
+    public static boolean fits(int textLength, int length, int minOverlap,
+            int maxFragments) {
+        assert 0 <= minOverlap && minOverlap < length
+                && length <= textLength : "Violation of: "
+                        + "0 <= minOverlap < length <= textLength";
+        assert maxFragments > 0 : "Violation of: maxFragments > 0";
+        return textLength - length <= (long) (maxFragments - 1)
+                * (length - minOverlap);
+    }
+
+    /**
+     * Returns fragments of {@code text} as
+     * {@link #fragments(String, int, int, double, long)} does, but with at
+     * most {@code maxFragments} of them.
+     *
+     * @param text
+     *            the source text
+     * @param length
+     *            length of each fragment
+     * @param minOverlap
+     *            minimum overlap between consecutive backbone fragments
+     * @param coverage
+     *            total length of the fragments, as a multiple of |text|
+     * @param seed
+     *            seed of the random choices
+     * @param maxFragments
+     *            largest number of fragments
+     * @return the fragments
+     * @requires <pre>
+     * 0 <= minOverlap < length <= |text|  and  maxFragments > 0  and
+     * fits(|text|, length, minOverlap, maxFragments)
+     * </pre>
+     * @ensures <pre>
+     * every entry of fragments is a substring of text  and
+     * the entries of fragments can be combined, overlapping by at least
+     * minOverlap characters each time, into text  and
+     * |fragments| <= maxFragments
+     * </pre>
+     */
+    static List<String> fragments(String text, int length, int minOverlap,
+            double coverage, long seed, int maxFragments) {
+        assert text != null : "Violation of: text is not null";
+        assert fits(text.length(), length, minOverlap, maxFragments) : ""
+                + "Violation of: "
+                + "fits(|text|, length, minOverlap, maxFragments)";
+        Random random = new Random(seed);
+        List<String> fragments = new ArrayList<>();
+        /*
+         * Backbone: fragments starting at 0 and ending at |text|, each
+         * starting at most length - minOverlap characters after the last.
+         * Steps are random, but never so short that the fragments left could
+         * no longer reach the last one: with r fragments left before the
+         * last, the next start must be within r * maxStep of it
+         */
+        int maxStep = length - minOverlap;
+        int last = text.length() - length;
+        int start = 0;
+        while (start < last) {
+            fragments.add(text.substring(start, start + length));
+            long left = (long) (maxFragments - 1 - fragments.size()) * maxStep;
+            int step = 1 + random.nextInt(maxStep);
+            start += (int) Math.max(step, last - start - left);
+        }
+        fragments.add(text.substring(last));
+        /*
+         * Extra fragments at random positions, up to the requested coverage
+         */
+        long wanted = Math.min(maxFragments,
+                Math.round(coverage * text.length() / length));
+        while (fragments.size() < wanted) {
+            int extraStart = random.nextInt(text.length() - length + 1);
+            fragments.add(text.substring(extraStart, extraStart + length));
+        }
+        /*
+         * Shuffle, so the file gives away nothing about the order of the
+         * fragments in the text
+         */
+        for (int i = fragments.size() - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            String temp = fragments.get(i);
+            fragments.set(i, fragments.get(j));
+            fragments.set(j, temp);
+        }
+        return fragments;
+    }
+
+    /**
+     * Returns the contents of {@code input}, with a '~' at the end of each
+     * line.
+     *
+     * @param input
+     *            the source of the text
+     * @return the text, '~'-encoded
+     * @updates input
+     * @requires input.is_open
+     * @ensures <pre>
+     * input.is_open  and  input.content = <>  and
+     * readText = [#input.content with each line separator replaced by '~']
+     * </pre>
+     */
+    public static String readText(SimpleReader input) {
+        assert input != null : "Violation of: input is not null";
+        assert input.isOpen() : "Violation of: input.is_open";
+        StringBuilder text = new StringBuilder();
+        while (!input.atEOS()) {
+            text.append(input.nextLine()).append('~');
+        }
+        return text.toString();
+    }
+
+    /**
+     * Writes {@code fragments} to the file {@code fileName}, one per line.
+     *
+     * @param fragments
+     *            the fragments
+     * @param fileName
+     *            name of the output file
+     * @throws IOException
+     *             if the file cannot be written
+     */
+    public static void write(List<String> fragments, String fileName)
+            throws IOException {
+        assert fragments != null : "Violation of: fragments is not null";
+        assert fileName != null : "Violation of: fileName is not null";
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(fileName), StandardCharsets.UTF_8))) {
+            for (String fragment : fragments) {
+                out.write(fragment);
+                out.write(System.lineSeparator());
+            }
+        }
+    }
+
+    /**
+     * Main method. Takes the source file name, fragment length, minimum
+     * overlap, coverage, seed, and output file name either as the six
+     * command-line arguments or, if there are none, from the user.
+     *
+     * @param args
+     *            the command line arguments: source file, fragment length,
+     *            minimum overlap, coverage, seed, output file
+     * @throws IOException
+     *             if the output file cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        SimpleReader in = new SimpleReader1L();
+        SimpleWriter out = new SimpleWriter1L();
+        final int argCount = 6;
+        String[] params = args;
+        if (params.length != argCount) {
+            String[] prompts = { "Source text file: ", "Fragment length: ",
+                    "Minimum overlap: ", "Coverage: ", "Seed: ",
+                    "Output file: " };
+            params = new String[argCount];
+            for (int i = 0; i < argCount; i++) {
+                out.print(prompts[i]);
+                params[i] = in.nextLine();
+            }
+        }
+        int p = 0;
+        String sourceFileName = params[p++];
+        int length = Integer.parseInt(params[p++]);
+        int minOverlap = Integer.parseInt(params[p++]);
+        double coverage = Double.parseDouble(params[p++]);
+        long seed = Long.parseLong(params[p++]);
+        String outputFileName = params[p];
+        /*
+         * Read the source text, cut it into fragments, and write them out
+         */
+        SimpleReader source = new SimpleReader1L(sourceFileName);
+        String text = readText(source);
+        source.close();
+        if (length > text.length() || minOverlap < 0 || minOverlap >= length
+                || !fits(text.length(), length, minOverlap, MAX_FRAGMENTS)) {
+            out.println("Cannot cut " + text.length() + " characters of text "
+                    + "into at most " + MAX_FRAGMENTS + " fragments of length "
+                    + length + " overlapping by at least " + minOverlap);
+            in.close();
+            out.close();
+            return;
+        }
+        List<String> fragments = fragments(text, length, minOverlap, coverage,
+                seed);
+        write(fragments, outputFileName);
+        out.println("Wrote " + fragments.size() + " fragments of "
+                + text.length() + " characters of text to " + outputFileName);
+        in.close();
+        out.close();
+    }
+
+}
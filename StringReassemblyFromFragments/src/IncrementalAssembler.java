@@ -0,0 +1,401 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Assembler that accepts fragments one at a time, as they arrive, and can
+ * report the assembly of the fragments received so far at any moment.
+ *
+ * <p>
+ * The fragments kept are linked into chains as they arrive, each fragment
+ * overlapping the next one in its chain. The overlaps of a new fragment with
+ * the fragments kept are computed right away, and the fragment is linked
+ * after the one whose suffix overlaps it most and in front of the one it
+ * overlaps most, taking the place of an existing link only if it overlaps by
+ * more. The overlaps found are kept, so that the fragments left without a
+ * successor or a predecessor, whether displaced this way or next to a dropped
+ * fragment, are then linked again, longest overlap first, to fragments free
+ * at the other end; thus no two contigs are left that could be joined by an
+ * overlap of their end fragments.
+ * Producing the contigs then only spells out the chains. Since links are made
+ * in order of arrival rather than of overlap, the contigs can differ from
+ * those {@link OverlapGraphAssembler} would make of the same fragments.
+ *
+ * <p>
+ * A new fragment that is a substring of one received before is dropped; this
+ * is looked up in a {@link ContainmentFilter} automaton of the fragments
+ * received so far. A fragment already kept that is a substring of the new one
+ * is looked up by its contents, for each length of the fragments kept, and is
+ * dropped from its chain.
+ *
+ * @author Justin Imber
+ *
+ */
+public final class IncrementalAssembler {
+
+    /**
+     * Marker for "no fragment".
+     */
+    private static final int NONE = -1;
+
+    /**
+     * Initial capacity of the link arrays.
+     */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * Every fragment kept at some point, in order of arrival.
+     */
+    private final List<String> fragments;
+
+    /**
+     * Failure functions of the fragments still kept; null for the others.
+     */
+    private final List<int[]> failures;
+
+    /**
+     * Overlap of each fragment still kept with every fragment whose prefix its
+     * suffix overlaps, by the index of that fragment; null for the others.
+     */
+    private final List<Map<Integer, Integer>> overlapsOut;
+
+    /**
+     * Index of each fragment still kept, by its contents.
+     */
+    private final Map<String, Integer> keptIndex;
+
+    /**
+     * Number of fragments still kept, by length.
+     */
+    private final TreeMap<Integer, Integer> keptLengths;
+
+    /**
+     * Automaton recognizing the substrings of every fragment received so far.
+     */
+    private final ContainmentFilter received;
+
+    /**
+     * Fragment linked after each fragment, or {@code NONE}.
+     */
+    private int[] successor;
+
+    /**
+     * Fragment linked before each fragment, or {@code NONE}.
+     */
+    private int[] predecessor;
+
+    /**
+     * Overlap of each fragment with its predecessor.
+     */
+    private int[] overlapIn;
+
+    /**
+     * No-argument constructor.
+     */
+    public IncrementalAssembler() {
+        this.fragments = new ArrayList<>();
+        this.failures = new ArrayList<>();
+        this.overlapsOut = new ArrayList<>();
+        this.keptIndex = new HashMap<>();
+        this.keptLengths = new TreeMap<>();
+        this.received = new ContainmentFilter();
+        this.successor = new int[INITIAL_CAPACITY];
+        this.predecessor = new int[INITIAL_CAPACITY];
+        this.overlapIn = new int[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Makes room in the link arrays for fragment {@code index}.
+     *
+     * @param index
+     *            index of the next fragment
+     */
+    private void ensureCapacity(int index) {
+        if (index == this.successor.length) {
+            int capacity = 2 * index;
+            this.successor = Arrays.copyOf(this.successor, capacity);
+            this.predecessor = Arrays.copyOf(this.predecessor, capacity);
+            this.overlapIn = Arrays.copyOf(this.overlapIn, capacity);
+        }
+    }
+
+    /**
+     * Reports whether fragment {@code i} is still kept.
+     *
+     * @param i
+     *            index of a fragment
+     * @return true iff fragment {@code i} is kept
+     */
+    private boolean isKept(int i) {
+        return this.failures.get(i) != null;
+    }
+
+    /**
+     * Reports the overlap of fragment {@code i} with the fragment linked after
+     * it, or 0 if there is none.
+     *
+     * @param i
+     *            index of a fragment
+     * @return overlap with the successor of fragment {@code i}
+     */
+    private int overlapOut(int i) {
+        int overlap = 0;
+        if (this.successor[i] != NONE) {
+            overlap = this.overlapIn[this.successor[i]];
+        }
+        return overlap;
+    }
+
+    /**
+     * Links fragment {@code to} after fragment {@code from}, first unlinking
+     * the successor of {@code from} and the predecessor of {@code to}.
+     *
+     * @param from
+     *            index of the fragment whose suffix overlaps
+     * @param to
+     *            index of the fragment whose prefix overlaps
+     * @param overlap
+     *            amount of overlap
+     * @requires <pre>
+     * to is not linked, directly or not, before from  and
+     * OVERLAPS(fragments[from], fragments[to], overlap)
+     * </pre>
+     */
+    private void link(int from, int to, int overlap) {
+        if (this.successor[from] != NONE) {
+            this.predecessor[this.successor[from]] = NONE;
+        }
+        if (this.predecessor[to] != NONE) {
+            this.successor[this.predecessor[to]] = NONE;
+        }
+        this.successor[from] = to;
+        this.predecessor[to] = from;
+        this.overlapIn[to] = overlap;
+    }
+
+    /**
+     * Links every kept fragment without a successor to a kept fragment without
+     * a predecessor that it overlaps, if any, taking the longest overlaps
+     * first and never closing a cycle.
+     */
+    private void relink() {
+        int count = this.fragments.size();
+        /*
+         * Map the first fragment of each chain to the last one and back, and
+         * queue the overlaps from the end of a chain to the start of one
+         */
+        int[] otherEnd = new int[count];
+        OverlapEdgeHeap free = new OverlapEdgeHeap();
+        for (int i = 0; i < count; i++) {
+            if (this.isKept(i) && this.predecessor[i] == NONE) {
+                int last = i;
+                while (this.successor[last] != NONE) {
+                    last = this.successor[last];
+                }
+                otherEnd[i] = last;
+                otherEnd[last] = i;
+                for (Map.Entry<Integer, Integer> edge : this.overlapsOut
+                        .get(last).entrySet()) {
+                    int to = edge.getKey();
+                    if (this.isKept(to) && this.predecessor[to] == NONE) {
+                        free.add(last, to, edge.getValue());
+                    }
+                }
+            }
+        }
+        while (free.size() > 0) {
+            long edge = free.removeMax();
+            int from = OverlapEdgeHeap.from(edge);
+            int to = OverlapEdgeHeap.to(edge);
+            if (this.successor[from] == NONE && this.predecessor[to] == NONE
+                    && otherEnd[to] != from) {
+                this.link(from, to, OverlapEdgeHeap.overlap(edge));
+                int first = otherEnd[from];
+                int last = otherEnd[to];
+                otherEnd[first] = last;
+                otherEnd[last] = first;
+            }
+        }
+    }
+
+    /**
+     * Drops fragment {@code d}, which is a substring of a new fragment, from
+     * its chain.
+     *
+     * @param d
+     *            index of a kept fragment
+     */
+    private void drop(int d) {
+        String str = this.fragments.get(d);
+        this.keptIndex.remove(str);
+        int count = this.keptLengths.get(str.length());
+        if (count == 1) {
+            this.keptLengths.remove(str.length());
+        } else {
+            this.keptLengths.put(str.length(), count - 1);
+        }
+        this.failures.set(d, null);
+        this.overlapsOut.set(d, null);
+        int p = this.predecessor[d];
+        int s = this.successor[d];
+        if (p != NONE) {
+            this.successor[p] = NONE;
+            this.predecessor[d] = NONE;
+        }
+        if (s != NONE) {
+            this.predecessor[s] = NONE;
+            this.successor[d] = NONE;
+        }
+    }
+
+    /**
+     * Adds {@code str} to the fragments received, unless it is a substring of
+     * a fragment received before; if it is added, also drops every kept
+     * fragment that is a substring of {@code str}, computes the overlaps of
+     * {@code str} with the kept fragments, and links {@code str} after the
+     * fragment whose suffix overlaps it most and in front of the fragment it
+     * overlaps most, where that beats the link already there; finally links
+     * the fragments left without a successor or predecessor to each other,
+     * where they overlap.
+     *
+     * @param str
+     *            the new fragment
+     * @updates this
+     */
+    public void add(String str) {
+        assert str != null : "Violation of: str is not null";
+        if (!this.received.recognizes(str)) {
+            this.received.insert(str);
+            /*
+             * Drop the kept fragments found in str, looking up each of its
+             * substrings of the length of some kept fragment
+             */
+            List<Integer> contained = new ArrayList<>();
+            for (int length : this.keptLengths.headMap(str.length())
+                    .keySet()) {
+                for (int at = 0; at + length <= str.length(); at++) {
+                    Integer d = this.keptIndex
+                            .get(str.substring(at, at + length));
+                    if (d != null && !contained.contains(d)) {
+                        contained.add(d);
+                    }
+                }
+            }
+            for (int d : contained) {
+                this.drop(d);
+            }
+            int index = this.fragments.size();
+            this.ensureCapacity(index);
+            int[] failure = OverlapKernel.failureFunction(str);
+            this.fragments.add(str);
+            this.failures.add(failure);
+            Map<Integer, Integer> out = new HashMap<>();
+            this.overlapsOut.add(out);
+            this.keptIndex.put(str, index);
+            this.keptLengths.merge(str.length(), 1, Integer::sum);
+            this.successor[index] = NONE;
+            this.predecessor[index] = NONE;
+            /*
+             * Link str after the fragment it overlaps most, if that beats the
+             * fragment's current successor
+             */
+            int[] overlapsOut = new int[index];
+            int bestFrom = NONE;
+            int bestOverlap = 0;
+            for (int j = 0; j < index; j++) {
+                if (this.isKept(j)) {
+                    String other = this.fragments.get(j);
+                    overlapsOut[j] = OverlapKernel.overlap(str, other,
+                            this.failures.get(j));
+                    if (overlapsOut[j] > 0) {
+                        out.put(j, overlapsOut[j]);
+                    }
+                    int overlapIn = OverlapKernel.overlap(other, str, failure);
+                    if (overlapIn > 0) {
+                        this.overlapsOut.get(j).put(index, overlapIn);
+                    }
+                    if (overlapIn > bestOverlap
+                            && overlapIn > this.overlapOut(j)) {
+                        bestOverlap = overlapIn;
+                        bestFrom = j;
+                    }
+                }
+            }
+            if (bestFrom != NONE) {
+                this.link(bestFrom, index, bestOverlap);
+            }
+            /*
+             * Then link it in front of the fragment that overlaps it most, if
+             * that beats the fragment's current predecessor, and the fragment
+             * is not linked before str already (which would close a cycle)
+             */
+            boolean[] before = new boolean[index];
+            int j = this.predecessor[index];
+            while (j != NONE) {
+                before[j] = true;
+                j = this.predecessor[j];
+            }
+            int bestTo = NONE;
+            bestOverlap = 0;
+            for (j = 0; j < index; j++) {
+                int overlapIn = 0;
+                if (this.predecessor[j] != NONE) {
+                    overlapIn = this.overlapIn[j];
+                }
+                if (overlapsOut[j] > bestOverlap && overlapsOut[j] > overlapIn
+                        && !before[j]) {
+                    bestOverlap = overlapsOut[j];
+                    bestTo = j;
+                }
+            }
+            if (bestTo != NONE) {
+                this.link(index, bestTo, bestOverlap);
+            }
+            this.relink();
+        }
+    }
+
+    /**
+     * Reports the number of fragments currently kept.
+     *
+     * @return the number of kept fragments
+     */
+    public int size() {
+        return this.keptIndex.size();
+    }
+
+    /**
+     * Returns the strings spelled out by the chains of the fragments received
+     * so far.
+     *
+     * @return the current contigs
+     * @ensures <pre>
+     * every fragment received so far is a substring of an entry of contigs  and
+     * each entry of contigs is the combination of a chain of kept fragments,
+     * each overlapping the next  and
+     * no kept fragment is a substring of another  and
+     * no kept fragment ending a chain overlaps one starting another chain
+     * </pre>
+     */
+    public String[] contigs() {
+        List<String> contigs = new ArrayList<>();
+        for (int i = 0; i < this.fragments.size(); i++) {
+            if (this.isKept(i) && this.predecessor[i] == NONE) {
+                StringBuilder contig = new StringBuilder(this.fragments.get(i));
+                int j = this.successor[i];
+                while (j != NONE) {
+                    String fragment = this.fragments.get(j);
+                    contig.append(fragment, this.overlapIn[j],
+                            fragment.length());
+                    j = this.successor[j];
+                }
+                contigs.add(contig.toString());
+            }
+        }
+        return contigs.toArray(new String[contigs.size()]);
+    }
+
+}
@@ -0,0 +1,521 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Persistent cache of overlap values, kept in a memory-mapped file so that a
+ * rerun on largely the same fragments finds most of its overlaps already
+ * computed. Each entry maps an ordered pair of fragments, identified by
+ * their {@link Key}s, to the overlap of the first with the second. A key
+ * holds two independent 64-bit hashes of the contents of a fragment and its
+ * length; the first hashes pick the entry, and a lookup whose second hashes
+ * or lengths differ from those stored is a miss, so a wrong value needs two
+ * fragments of the same length whose two hashes both collide.
+ *
+ * <p>
+ * The file holds a fixed number of entries, chosen when it is created, so it
+ * never grows. Entries are grouped into buckets of {@value #WAYS}; a pair can
+ * only live in the bucket its hashes select, and when that bucket is full the
+ * entry in it used least recently is evicted. This is least-recently-used
+ * eviction within each bucket, which keeps every lookup to one small,
+ * contiguous scan of the file. A bucket stores the first hashes of its
+ * entries together, then their second hashes, and so on, so a lookup usually
+ * reads only a cache line or two.
+ *
+ * <p>
+ * The time of use that orders the entries is a counter that advances with
+ * each new entry, not with each lookup, so a run that finds everything it
+ * needs in the cache stamps each entry once rather than rewriting it on every
+ * hit.
+ *
+ * <p>
+ * An entry is written with its first hash last, and cleared first when it is
+ * replaced, so a run killed in the middle of an update leaves at worst an
+ * empty entry, never one with a mismatched value. The cache is not safe for
+ * use by several threads, or several processes, at once.
+ *
+ * @author Justin Imber
+ *
+ */
+public final class OverlapCache implements Closeable {
+
+    /**
+     * Value returned by {@link #get(Key, Key)} for a pair not in the cache.
+     */
+    public static final int MISSING = -1;
+
+    /**
+     * First four bytes of every cache file ("SROC").
+     */
+    private static final int MAGIC = 0x53524F43;
+
+    /**
+     * Version of the file format.
+     */
+    private static final int VERSION = 3;
+
+    /**
+     * Number of entries in each bucket.
+     */
+    static final int WAYS = 8;
+
+    /**
+     * Size of the header: magic, version, number of buckets, use counter,
+     * padded to a cache line.
+     */
+    private static final int HEADER_SIZE = 64;
+
+    /**
+     * Position of the number of buckets in the header.
+     */
+    private static final int BUCKETS_AT = 8;
+
+    /**
+     * Position of the use counter in the header.
+     */
+    private static final int CLOCK_AT = 16;
+
+    /**
+     * Size of a bucket: the content hashes of the first fragments of its
+     * entries, those of the second fragments, the check hashes of each pair,
+     * the lengths of each pair, the overlaps, and the times of last use.
+     */
+    private static final int BUCKET_SIZE = 6 * WAYS * Long.BYTES;
+
+    /**
+     * Position of the content hashes of the second fragments within a bucket.
+     */
+    private static final int HASH2_AT = WAYS * Long.BYTES;
+
+    /**
+     * Position of the check hashes within a bucket.
+     */
+    private static final int CHECK_AT = 2 * WAYS * Long.BYTES;
+
+    /**
+     * Position of the lengths within a bucket.
+     */
+    private static final int LENGTHS_AT = 3 * WAYS * Long.BYTES;
+
+    /**
+     * Position of the overlaps within a bucket.
+     */
+    private static final int VALUE_AT = 4 * WAYS * Long.BYTES;
+
+    /**
+     * Position of the times of last use within a bucket; a time is a whole
+     * {@code long}, so the use counter cannot wrap around in the life of a
+     * cache file.
+     */
+    private static final int USED_AT = 5 * WAYS * Long.BYTES;
+
+    /**
+     * Hash that marks an empty entry; content hashes are never zero.
+     */
+    private static final long EMPTY = 0;
+
+    /**
+     * Offset basis of the 64-bit FNV-1a hash.
+     */
+    private static final long FNV_OFFSET = 0xCBF29CE484222325L;
+
+    /**
+     * Prime of the 64-bit FNV-1a hash.
+     */
+    private static final long FNV_PRIME = 0x100000001B3L;
+
+    /**
+     * Odd multiplier of the check hash (the 64-bit golden ratio).
+     */
+    private static final long CHECK_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    /**
+     * Identity of a fragment in the cache: two independent hashes of its
+     * contents and its length.
+     */
+    public static final class Key {
+
+        /**
+         * Content hash, which selects the entry.
+         */
+        private final long hash;
+
+        /**
+         * Check hash, compared with the one stored in the entry.
+         */
+        private final long check;
+
+        /**
+         * Length of the fragment.
+         */
+        private final int length;
+
+        /**
+         * Constructor.
+         *
+         * @param hash
+         *            content hash
+         * @param check
+         *            check hash
+         * @param length
+         *            length of the fragment
+         * @requires hash /= 0  and  length >= 0
+         */
+        Key(long hash, long check, int length) {
+            assert hash != EMPTY : "Violation of: hash /= 0";
+            assert length >= 0 : "Violation of: length >= 0";
+            this.hash = hash;
+            this.check = check;
+            this.length = length;
+        }
+
+        /**
+         * Returns the key of {@code str}.
+         *
+         * @param str
+         *            the fragment
+         * @return the key of {@code str}
+         */
+        public static Key of(CharSequence str) {
+            assert str != null : "Violation of: str is not null";
+            return new Key(contentHash(str), checkHash(str), str.length());
+        }
+
+    }
+
+    /**
+     * The open cache file.
+     */
+    private final RandomAccessFile file;
+
+    /**
+     * The mapped contents of the file.
+     */
+    private final MappedByteBuffer map;
+
+    /**
+     * Number of buckets.
+     */
+    private final int buckets;
+
+    /**
+     * Number of lookups that found their pair.
+     */
+    private long hits;
+
+    /**
+     * Number of lookups that did not find their pair.
+     */
+    private long misses;
+
+    /**
+     * Private constructor; use {@link #open(String, int)}.
+     *
+     * @param file
+     *            the open cache file
+     * @param map
+     *            the mapped contents of the file
+     * @param buckets
+     *            number of buckets
+     */
+    private OverlapCache(RandomAccessFile file, MappedByteBuffer map,
+            int buckets) {
+        this.file = file;
+        this.map = map;
+        this.buckets = buckets;
+        this.hits = 0;
+        this.misses = 0;
+    }
+
+    /**
+     * Opens the cache file {@code fileName}, creating it, empty, with room
+     * for {@code capacity} entries (rounded up to a whole number of buckets)
+     * if it does not exist. An existing file of a different capacity, or one
+     * that is not a cache file, is emptied and resized.
+     *
+     * @param fileName
+     *            name of the cache file
+     * @param capacity
+     *            largest number of entries the file may hold
+     * @return the open cache
+     * @throws IOException
+     *             if the file cannot be opened or mapped
+     * @requires 0 < capacity  and  [the file fits in one mapping]
+     */
+    public static OverlapCache open(String fileName, int capacity)
+            throws IOException {
+        assert fileName != null : "Violation of: fileName is not null";
+        assert capacity > 0 : "Violation of: 0 < capacity";
+        int buckets = (capacity + WAYS - 1) / WAYS;
+        long size = HEADER_SIZE + (long) buckets * BUCKET_SIZE;
+        assert size <= Integer.MAX_VALUE : ""
+                + "Violation of: the file fits in one mapping";
+        RandomAccessFile file = new RandomAccessFile(fileName, "rw");
+        try {
+            boolean valid = file.length() == size;
+            if (valid) {
+                file.seek(0);
+                valid = file.readInt() == MAGIC && file.readInt() == VERSION
+                        && file.readInt() == buckets;
+            }
+            if (!valid) {
+                /*
+                 * Start over with an empty table; the new length reads as
+                 * zeros, which are empty entries
+                 */
+                file.setLength(0);
+                file.setLength(size);
+            }
+            MappedByteBuffer map = file.getChannel()
+                    .map(FileChannel.MapMode.READ_WRITE, 0, size);
+            if (!valid) {
+                map.putInt(0, MAGIC);
+                map.putInt(Integer.BYTES, VERSION);
+                map.putInt(BUCKETS_AT, buckets);
+                map.putLong(CLOCK_AT, 0);
+            }
+            return new OverlapCache(file, map, buckets);
+        } catch (IOException | RuntimeException e) {
+            file.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the 64-bit FNV-1a hash of the characters of {@code str}, with
+     * zero (which marks an empty entry) replaced by one.
+     *
+     * @param str
+     *            the fragment
+     * @return a hash of the contents of {@code str}
+     * @ensures contentHash /= 0
+     */
+    public static long contentHash(CharSequence str) {
+        assert str != null : "Violation of: str is not null";
+        final int byteBits = 8;
+        final int byteMask = 0xFF;
+        long hash = FNV_OFFSET;
+        for (int i = 0; i < str.length(); i++) {
+            char c = str.charAt(i);
+            hash = (hash ^ (c & byteMask)) * FNV_PRIME;
+            hash = (hash ^ (c >>> byteBits)) * FNV_PRIME;
+        }
+        if (hash == EMPTY) {
+            hash = 1;
+        }
+        return hash;
+    }
+
+    /**
+     * Returns a 64-bit hash of the characters of {@code str} independent of
+     * {@link #contentHash(CharSequence)}: each character is added to the
+     * rotated hash, which is then multiplied by an odd constant.
+     *
+     * @param str
+     *            the fragment
+     * @return a second hash of the contents of {@code str}
+     */
+    static long checkHash(CharSequence str) {
+        final int rotation = 23;
+        long hash = str.length();
+        for (int i = 0; i < str.length(); i++) {
+            hash = (Long.rotateLeft(hash, rotation) + str.charAt(i))
+                    * CHECK_MULTIPLIER;
+        }
+        return hash;
+    }
+
+    /**
+     * Returns the check hash stored for the pair {@code (key1, key2)}.
+     *
+     * @param key1
+     *            key of the first fragment
+     * @param key2
+     *            key of the second fragment
+     * @return the check hash of the pair
+     */
+    private static long check(Key key1, Key key2) {
+        return key1.check * CHECK_MULTIPLIER + key2.check;
+    }
+
+    /**
+     * Returns the lengths of the pair {@code (key1, key2)}, packed into one
+     * {@code long}.
+     *
+     * @param key1
+     *            key of the first fragment
+     * @param key2
+     *            key of the second fragment
+     * @return the lengths of the pair
+     */
+    private static long lengths(Key key1, Key key2) {
+        return ((long) key1.length << Integer.SIZE) | key2.length;
+    }
+
+    /**
+     * Returns the position in the file of the first entry of the bucket of
+     * the pair {@code (hash1, hash2)}.
+     *
+     * @param hash1
+     *            hash of the first fragment
+     * @param hash2
+     *            hash of the second fragment
+     * @return position of the bucket
+     */
+    private int bucketAt(long hash1, long hash2) {
+        final int shift = 29;
+        long mixed = hash1 * FNV_PRIME + hash2;
+        mixed ^= mixed >>> shift;
+        int bucket = (int) Long.remainderUnsigned(mixed, this.buckets);
+        return HEADER_SIZE + bucket * BUCKET_SIZE;
+    }
+
+    /**
+     * Returns the overlap cached for the pair {@code (key1, key2)}, or
+     * {@link #MISSING} if there is none, and marks the entry as just used. An
+     * entry whose content hashes match but whose check hash or lengths do
+     * not is a different pair, and counts as a miss.
+     *
+     * @param key1
+     *            key of the first fragment
+     * @param key2
+     *            key of the second fragment
+     * @return the cached overlap of the first fragment with the second, or
+     *         {@link #MISSING}
+     */
+    public int get(Key key1, Key key2) {
+        assert key1 != null : "Violation of: key1 is not null";
+        assert key2 != null : "Violation of: key2 is not null";
+        int bucket = this.bucketAt(key1.hash, key2.hash);
+        long check = check(key1, key2);
+        long lengths = lengths(key1, key2);
+        int overlap = MISSING;
+        int i = 0;
+        while (overlap == MISSING && i < WAYS) {
+            int at = bucket + i * Long.BYTES;
+            if (this.map.getLong(at) == key1.hash
+                    && this.map.getLong(at + HASH2_AT) == key2.hash
+                    && this.map.getLong(at + CHECK_AT) == check
+                    && this.map.getLong(at + LENGTHS_AT) == lengths) {
+                overlap = (int) this.map.getLong(at + VALUE_AT);
+                long now = this.map.getLong(CLOCK_AT);
+                if (this.map.getLong(at + USED_AT) != now) {
+                    this.map.putLong(at + USED_AT, now);
+                }
+            }
+            i++;
+        }
+        if (overlap == MISSING) {
+            this.misses++;
+        } else {
+            this.hits++;
+        }
+        return overlap;
+    }
+
+    /**
+     * Caches {@code overlap} for the pair {@code (key1, key2)}, evicting the
+     * least recently used entry of its bucket if the bucket is full.
+     *
+     * @param key1
+     *            key of the first fragment
+     * @param key2
+     *            key of the second fragment
+     * @param overlap
+     *            overlap of the first fragment with the second
+     * @requires overlap >= 0
+     */
+    public void put(Key key1, Key key2, int overlap) {
+        assert key1 != null : "Violation of: key1 is not null";
+        assert key2 != null : "Violation of: key2 is not null";
+        assert overlap >= 0 : "Violation of: overlap >= 0";
+        long hash1 = key1.hash;
+        long hash2 = key2.hash;
+        int bucket = this.bucketAt(hash1, hash2);
+        /*
+         * Use the entry with the pair's content hashes if there is one (it
+         * holds either this pair or one it collides with), else an empty
+         * entry, else the one used least recently
+         */
+        int target = -1;
+        int oldest = -1;
+        long oldestUse = Long.MAX_VALUE;
+        int i = 0;
+        while (target < 0 && i < WAYS) {
+            int at = bucket + i * Long.BYTES;
+            long entryHash1 = this.map.getLong(at);
+            if (entryHash1 == EMPTY || (entryHash1 == hash1
+                    && this.map.getLong(at + HASH2_AT) == hash2)) {
+                target = at;
+            } else {
+                long used = this.map.getLong(at + USED_AT);
+                if (used < oldestUse) {
+                    oldestUse = used;
+                    oldest = at;
+                }
+            }
+            i++;
+        }
+        if (target < 0) {
+            target = oldest;
+        }
+        /*
+         * Clear the entry first and fill in its first hash last, so it is
+         * never valid with half of its new contents
+         */
+        long now = this.map.getLong(CLOCK_AT) + 1;
+        this.map.putLong(CLOCK_AT, now);
+        this.map.putLong(target, EMPTY);
+        this.map.putLong(target + HASH2_AT, hash2);
+        this.map.putLong(target + CHECK_AT, check(key1, key2));
+        this.map.putLong(target + LENGTHS_AT, lengths(key1, key2));
+        this.map.putLong(target + VALUE_AT, overlap);
+        this.map.putLong(target + USED_AT, now);
+        this.map.putLong(target, hash1);
+    }
+
+    /**
+     * Reports the number of entries the cache can hold.
+     *
+     * @return the capacity of the cache
+     */
+    public int capacity() {
+        return this.buckets * WAYS;
+    }
+
+    /**
+     * Reports the number of lookups, since the cache was opened, that found
+     * their pair.
+     *
+     * @return the number of hits
+     */
+    public long hits() {
+        return this.hits;
+    }
+
+    /**
+     * Reports the number of lookups, since the cache was opened, that did not
+     * find their pair.
+     *
+     * @return the number of misses
+     */
+    public long misses() {
+        return this.misses;
+    }
+
+    /**
+     * Writes any changes to the cache out to the file.
+     */
+    public void flush() {
+        this.map.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.flush();
+        this.file.close();
+    }
+
+}
@@ -0,0 +1,187 @@
+/**
+ * Max-heap of directed overlap edges between fragments, each edge packed into
+ * a single {@code long} so that the heap needs no per-edge objects.
+ *
+ * <p>
+ * Edges are ordered by overlap amount first; ties are broken in favor of the
+ * smaller source index, and then the smaller target index, so the order in
+ * which edges are removed is fully deterministic.
+ *
+ * @author Justin Imber
+ *
+ */
+final class OverlapEdgeHeap {
+
+    /**
+     * Number of bits used for each of the three packed fields.
+     */
+    private static final int FIELD_BITS = 21;
+
+    /**
+     * Largest value that fits in one packed field.
+     */
+    static final int MAX_FIELD = (1 << FIELD_BITS) - 1;
+
+    /**
+     * Initial capacity of the heap array.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Largest capacity of the heap array, a little under
+     * {@code Integer.MAX_VALUE} since some JVMs cannot allocate arrays quite
+     * that long.
+     */
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    /**
+     * Packed edges; entries [0, size) form a binary max-heap.
+     */
+    private long[] edges;
+
+    /**
+     * Number of edges in the heap.
+     */
+    private int size;
+
+    /**
+     * No-argument constructor.
+     */
+    OverlapEdgeHeap() {
+        this.edges = new long[INITIAL_CAPACITY];
+        this.size = 0;
+    }
+
+    /**
+     * Adds the edge {@code from} -> {@code to} with the given overlap.
+     *
+     * @param from
+     *            index of the fragment whose suffix overlaps
+     * @param to
+     *            index of the fragment whose prefix overlaps
+     * @param overlap
+     *            amount of overlap
+     * @throws IllegalArgumentException
+     *             if {@code from}, {@code to}, or {@code overlap} does not fit
+     *             in a packed field, that is, unless
+     *             {@code 0 <= from <= MAX_FIELD},
+     *             {@code 0 <= to <= MAX_FIELD}, and
+     *             {@code 0 < overlap <= MAX_FIELD}
+     * @throws IllegalStateException
+     *             if the heap already holds as many edges as an array can
+     */
+    void add(int from, int to, int overlap) {
+        /*
+         * Checked even without assertions, since a field out of range would
+         * silently corrupt its neighbors and the order of the heap
+         */
+        if (from < 0 || from > MAX_FIELD || to < 0 || to > MAX_FIELD
+                || overlap <= 0 || overlap > MAX_FIELD) {
+            throw new IllegalArgumentException("Edge " + from + " -> " + to
+                    + " with overlap " + overlap + " does not fit in "
+                    + FIELD_BITS + "-bit fields");
+        }
+        if (this.size == this.edges.length) {
+            if (this.size == MAX_CAPACITY) {
+                throw new IllegalStateException(
+                        "Overlap edge heap is full at " + this.size + " edges");
+            }
+            int capacity = MAX_CAPACITY;
+            if (this.edges.length <= MAX_CAPACITY / 2) {
+                capacity = 2 * this.edges.length;
+            }
+            long[] bigger = new long[capacity];
+            System.arraycopy(this.edges, 0, bigger, 0, this.size);
+            this.edges = bigger;
+        }
+        long key = ((long) overlap << (2 * FIELD_BITS))
+                | ((long) (MAX_FIELD - from) << FIELD_BITS) | (MAX_FIELD - to);
+        /*
+         * Sift the new edge up from the bottom of the heap
+         */
+        int i = this.size;
+        this.size++;
+        while (i > 0 && this.edges[(i - 1) / 2] < key) {
+            this.edges[i] = this.edges[(i - 1) / 2];
+            i = (i - 1) / 2;
+        }
+        this.edges[i] = key;
+    }
+
+    /**
+     * Removes and returns the largest edge in the heap, in packed form; use
+     * {@link #from(long)}, {@link #to(long)}, and {@link #overlap(long)} to
+     * unpack it.
+     *
+     * @return the packed edge removed
+     * @requires size() > 0
+     */
+    long removeMax() {
+        assert this.size > 0 : "Violation of: size() > 0";
+        long max = this.edges[0];
+        this.size--;
+        long last = this.edges[this.size];
+        /*
+         * Sift the last edge down from the root of the heap
+         */
+        int i = 0;
+        int child = 1;
+        while (child < this.size) {
+            if (child + 1 < this.size
+                    && this.edges[child + 1] > this.edges[child]) {
+                child++;
+            }
+            if (this.edges[child] <= last) {
+                break;
+            }
+            this.edges[i] = this.edges[child];
+            i = child;
+            child = 2 * i + 1;
+        }
+        this.edges[i] = last;
+        return max;
+    }
+
+    /**
+     * Reports the number of edges in the heap.
+     *
+     * @return the number of edges
+     */
+    int size() {
+        return this.size;
+    }
+
+    /**
+     * Reports the source fragment index of a packed edge.
+     *
+     * @param edge
+     *            packed edge
+     * @return index of the fragment whose suffix overlaps
+     */
+    static int from(long edge) {
+        return MAX_FIELD - (int) ((edge >>> FIELD_BITS) & MAX_FIELD);
+    }
+
+    /**
+     * Reports the target fragment index of a packed edge.
+     *
+     * @param edge
+     *            packed edge
+     * @return index of the fragment whose prefix overlaps
+     */
+    static int to(long edge) {
+        return MAX_FIELD - (int) (edge & MAX_FIELD);
+    }
+
+    /**
+     * Reports the overlap amount of a packed edge.
+     *
+     * @param edge
+     *            packed edge
+     * @return amount of overlap
+     */
+    static int overlap(long edge) {
+        return (int) (edge >>> (2 * FIELD_BITS));
+    }
+
+}
@@ -0,0 +1,496 @@
+import java.util.Arrays;
+
+import components.set.Set;
+
+/**
+ * Greedy assembler that computes the pairwise overlap graph of a set of
+ * fragments only once, instead of once per merge as
+ * {@link StringReassembly#assemble(Set)} does.
+ *
+ * <p>
+ * The key observation is that, as long as the set contains no substring pairs,
+ * merging {@code str1} and {@code str2} into {@code s} does not create any new
+ * overlap values: for every other fragment {@code t},
+ * {@code overlap(t, s) = overlap(t, str1)} and
+ * {@code overlap(s, t) = overlap(str2, t)}. So the edges touching the merged
+ * string are exactly the incoming edges of {@code str1} and the outgoing edges
+ * of {@code str2}, and every other edge of {@code str1} or {@code str2} simply
+ * becomes invalid. The assembler therefore keeps all edges in a max-heap and
+ * discards stale ones as they reach the top, which reproduces the merge
+ * sequence of the greedy assembler while calling {@code overlap} only once per
+ * ordered pair.
+ *
+ * @author Justin Imber
+ *
+ */
+public final class OverlapGraphAssembler {
+
+    /**
+     * System property giving the length of the prefixes the
+     * {@link AssemblyEngine#KMER} engine indexes its strings by.
+     */
+    public static final String KMER_LENGTH_PROPERTY = ""
+            + "stringreassembly.kmer.length";
+
+    /**
+     * Length of the indexed prefixes when {@value #KMER_LENGTH_PROPERTY} is
+     * not set.
+     */
+    public static final int DEFAULT_KMER_LENGTH = 8;
+
+    /**
+     * Marker for "no fragment".
+     */
+    private static final int NONE = -1;
+
+    /**
+     * Private no-argument constructor to prevent instantiation of this utility
+     * class.
+     */
+    private OverlapGraphAssembler() {
+    }
+
+    /**
+     * Removes all strings from {@code strSet} and returns them in an array,
+     * sorted so that fragment indices (and hence tie-breaking among equal
+     * overlaps) do not depend on the iteration order of {@code strSet}.
+     *
+     * @param strSet
+     *            set of strings
+     * @return array of the strings in {@code #strSet}
+     * @clears strSet
+     * @ensures <pre>
+     * entries(snapshot) = #strSet  and  |snapshot| = |#strSet|  and
+     * snapshot is sorted
+     * </pre>
+     */
+    static String[] snapshot(Set<String> strSet) {
+        assert strSet != null : "Violation of: strSet is not null";
+        String[] fragments = new String[strSet.size()];
+        int i = 0;
+        while (strSet.size() > 0) {
+            fragments[i] = strSet.removeAny();
+            i++;
+        }
+        Arrays.sort(fragments);
+        return fragments;
+    }
+
+    /**
+     * Returns a heap containing one edge for each ordered pair of distinct
+     * fragments with positive overlap.
+     *
+     * @param fragments
+     *            the fragments
+     * @return the overlap graph of {@code fragments}
+     * @requires <pre>
+     * CONTAINS_NO_SUBSTRING_PAIRS(entries(fragments))  and
+     * |fragments| <= OverlapEdgeHeap.MAX_FIELD + 1
+     * </pre>
+     * @ensures <pre>
+     * overlapGraph = {(i, j, k): integer
+     *   where (i /= j  and  0 < k  and
+     *          k = overlap(fragments[i], fragments[j]))}
+     * </pre>
+     */
+    static OverlapEdgeHeap overlapGraph(CharSequence[] fragments) {
+        assert fragments != null : "Violation of: fragments is not null";
+        assert fragments.length <= OverlapEdgeHeap.MAX_FIELD + 1 : ""
+                + "Violation of: |fragments| <= MAX_FIELD + 1";
+        /*
+         * Each fragment is the second argument of n - 1 overlap computations,
+         * so compute its failure function just once
+         */
+        int[][] failure = new int[fragments.length][];
+        for (int j = 0; j < fragments.length; j++) {
+            failure[j] = OverlapKernel.failureFunction(fragments[j]);
+        }
+        OverlapEdgeHeap edges = new OverlapEdgeHeap();
+        long characters = 0;
+        for (int i = 0; i < fragments.length; i++) {
+            for (int j = 0; j < fragments.length; j++) {
+                if (i != j) {
+                    int overlap = OverlapKernel.overlap(fragments[i],
+                            fragments[j], failure[j]);
+                    if (overlap > 0) {
+                        edges.add(i, j, overlap);
+                    }
+                    characters += Math.min(fragments[i].length(),
+                            fragments[j].length() - 1);
+                }
+            }
+        }
+        long n = fragments.length;
+        AssemblyMetrics.global().recordOverlaps(n * (n - 1), characters);
+        return edges;
+    }
+
+    /**
+     * Returns a heap containing one edge for each ordered pair of distinct
+     * ASCII fragments that overlap, scored with the byte-oriented
+     * {@link AsciiFragment#overlap}.
+     *
+     * @param fragments
+     *            the fragments
+     * @return the overlap graph of {@code fragments}
+     * @requires <pre>
+     * CONTAINS_NO_SUBSTRING_PAIRS(entries(fragments))  and
+     * |fragments| <= OverlapEdgeHeap.MAX_FIELD + 1
+     * </pre>
+     * @ensures <pre>
+     * overlapGraph = {(i, j, k): integer
+     *   where (i /= j  and  0 < k  and
+     *          k = overlap(fragments[i], fragments[j]))}
+     * </pre>
+     */
+    static OverlapEdgeHeap overlapGraph(AsciiFragment[] fragments) {
+        assert fragments != null : "Violation of: fragments is not null";
+        assert fragments.length <= OverlapEdgeHeap.MAX_FIELD + 1 : ""
+                + "Violation of: |fragments| <= MAX_FIELD + 1";
+        OverlapEdgeHeap edges = new OverlapEdgeHeap();
+        long characters = 0;
+        for (int i = 0; i < fragments.length; i++) {
+            for (int j = 0; j < fragments.length; j++) {
+                if (i != j) {
+                    int overlap = AsciiFragment.overlap(fragments[i],
+                            fragments[j]);
+                    if (overlap > 0) {
+                        edges.add(i, j, overlap);
+                    }
+                    characters += Math.min(fragments[i].length(),
+                            fragments[j].length() - 1);
+                }
+            }
+        }
+        long n = fragments.length;
+        AssemblyMetrics.global().recordOverlaps(n * (n - 1), characters);
+        return edges;
+    }
+
+    /**
+     * Returns a heap containing one edge for each ordered pair of distinct
+     * fragments that overlap by at least {@code minOverlap} characters,
+     * scoring only the candidate pairs found through a {@link PrefixKmerIndex}
+     * of the first {@code k} characters of each fragment instead of all
+     * pairs; overlaps shorter than {@code k} are looked up by contents.
+     *
+     * @param fragments
+     *            the fragments
+     * @param k
+     *            length of the indexed prefixes
+     * @param minOverlap
+     *            smallest overlap that produces an edge
+     * @return the overlap graph of {@code fragments}, restricted to overlaps of
+     *         at least {@code minOverlap}
+     * @requires <pre>
+     * CONTAINS_NO_SUBSTRING_PAIRS(entries(fragments))  and
+     * |fragments| <= OverlapEdgeHeap.MAX_FIELD + 1  and
+     * k > 0  and  minOverlap > 0
+     * </pre>
+     * @ensures <pre>
+     * overlapGraph = {(i, j, k): integer
+     *   where (i /= j  and  minOverlap <= k  and
+     *          k = overlap(fragments[i], fragments[j]))}
+     * </pre>
+     */
+    static OverlapEdgeHeap overlapGraph(String[] fragments, int k,
+            int minOverlap) {
+        assert fragments != null : "Violation of: fragments is not null";
+        assert fragments.length <= OverlapEdgeHeap.MAX_FIELD + 1 : ""
+                + "Violation of: |fragments| <= MAX_FIELD + 1";
+        assert k > 0 : "Violation of: k > 0";
+        assert minOverlap > 0 : "Violation of: minOverlap > 0";
+        PrefixKmerIndex index = new PrefixKmerIndex(fragments, k, minOverlap);
+        OverlapEdgeHeap edges = new OverlapEdgeHeap();
+        int[] seen = new int[fragments.length];
+        for (int i = 0; i < fragments.length; i++) {
+            index.addEdgesFrom(i, edges, seen);
+        }
+        return edges;
+    }
+
+    /**
+     * Greedily links fragments along the edges of {@code edges}, best edge
+     * first, and returns the strings spelled out by the resulting chains.
+     *
+     * @param fragments
+     *            the fragments
+     * @param edges
+     *            the overlap graph of {@code fragments}
+     * @return the assembled strings
+     * @clears edges
+     * @requires <pre>
+     * CONTAINS_NO_SUBSTRING_PAIRS(entries(fragments))  and
+     * edges is an overlap graph of fragments
+     * </pre>
+     * @ensures <pre>
+     * mergeChains is the result of repeatedly combining the two strings with
+     * the largest overlap listed in edges, as StringReassembly.assemble does
+     * </pre>
+     */
+    static String[] mergeChains(CharSequence[] fragments,
+            OverlapEdgeHeap edges) {
+        assert fragments != null : "Violation of: fragments is not null";
+        assert edges != null : "Violation of: edges is not null";
+        int n = fragments.length;
+        /*
+         * successor[i] is the fragment linked after fragment i (if any), and
+         * predecessor[i] the one linked before it; overlapIn[i] is the overlap
+         * with predecessor[i]; for the first and last fragment of each chain,
+         * otherEnd holds the index of the fragment at the opposite end
+         */
+        int[] successor = new int[n];
+        int[] predecessor = new int[n];
+        int[] overlapIn = new int[n];
+        int[] otherEnd = new int[n];
+        for (int i = 0; i < n; i++) {
+            successor[i] = NONE;
+            predecessor[i] = NONE;
+            otherEnd[i] = i;
+        }
+        int chains = n;
+        while (chains > 1 && edges.size() > 0) {
+            long edge = edges.removeMax();
+            int from = OverlapEdgeHeap.from(edge);
+            int to = OverlapEdgeHeap.to(edge);
+            /*
+             * The edge is still current only if from ends one chain, to starts
+             * another, and linking them would not close a cycle
+             */
+            if (successor[from] == NONE && predecessor[to] == NONE
+                    && otherEnd[from] != to) {
+                successor[from] = to;
+                predecessor[to] = from;
+                overlapIn[to] = OverlapEdgeHeap.overlap(edge);
+                int head = otherEnd[from];
+                int tail = otherEnd[to];
+                otherEnd[head] = tail;
+                otherEnd[tail] = head;
+                chains--;
+            }
+        }
+        /*
+         * Spell out each chain, starting from its first fragment
+         */
+        String[] contigs = new String[chains];
+        int c = 0;
+        for (int i = 0; i < n; i++) {
+            if (predecessor[i] == NONE) {
+                StringBuilder contig = new StringBuilder(fragments[i]);
+                int j = successor[i];
+                while (j != NONE) {
+                    contig.append(fragments[j], overlapIn[j],
+                            fragments[j].length());
+                    j = successor[j];
+                }
+                contigs[c] = contig.toString();
+                c++;
+            }
+        }
+        AssemblyMetrics.global().recordMerges(n - chains);
+        return contigs;
+    }
+
+    /**
+     * Combines strings in {@code strSet} as much as possible, leaving in it
+     * only strings that have no overlap between a suffix of one string and a
+     * prefix of another. Merges are made in the same order as
+     * {@link StringReassembly#assemble(Set)} makes them, with ties between
+     * equal overlaps broken by the sorted order of the strings. If every
+     * string is pure ASCII, the strings are held as {@link AsciiFragment}s
+     * while they are assembled.
+     *
+     * @param strSet
+     *            set of strings
+     * @updates strSet
+     * @requires CONTAINS_NO_SUBSTRING_PAIRS(strSet)
+     * @ensures <pre>
+     * ALL_SUPERSTRINGS(strSet) is subset of ALL_SUPERSTRINGS(#strSet)  and
+     * |strSet| <= |#strSet|  and
+     * CONTAINS_NO_SUBSTRING_PAIRS(strSet)  and
+     * CONTAINS_NO_OVERLAPPING_PAIRS(strSet)
+     * </pre>
+     */
+    public static void assemble(Set<String> strSet) {
+        assert strSet != null : "Violation of: strSet is not null";
+        /*
+         * Note: Precondition not checked!
+         */
+        String[] strings = snapshot(strSet);
+        long start = System.nanoTime();
+        CharSequence[] fragments;
+        OverlapEdgeHeap edges;
+        if (AsciiFragment.allAscii(strings)) {
+            /*
+             * Pure ASCII input: hold the fragments as bytes for the rest of
+             * the assembly, letting go of the Strings, and compare their
+             * bytes directly
+             */
+            AsciiFragment[] ascii = AsciiFragment.valueOfAll(strings);
+            fragments = ascii;
+            edges = overlapGraph(ascii);
+        } else {
+            fragments = strings;
+            edges = overlapGraph(fragments);
+        }
+        AssemblyMetrics.global().recordRound(System.nanoTime() - start);
+        String[] contigs = mergeChains(fragments, edges);
+        for (String contig : contigs) {
+            strSet.add(contig);
+        }
+    }
+
+    /**
+     * Combines strings in {@code strSet} as much as possible without using
+     * any overlap shorter than {@code minOverlap}, leaving in it only strings
+     * that have no such overlap between a suffix of one string and a prefix of
+     * another. Candidate pairs are found through an index of the first
+     * {@code minOverlap} characters of each string, so pairs that share no
+     * such prefix are never scored; see {@link #assemble(Set, int, int)} to
+     * index fewer characters than that. Because only short overlaps are left
+     * out, the merges made are exactly the merges {@link #assemble(Set)}
+     * makes before its best overlap drops below {@code minOverlap}.
+     *
+     * @param strSet
+     *            set of strings
+     * @param minOverlap
+     *            smallest overlap used to combine two strings
+     * @updates strSet
+     * @requires <pre>
+     * CONTAINS_NO_SUBSTRING_PAIRS(strSet)  and  minOverlap > 0
+     * </pre>
+     * @ensures <pre>
+     * ALL_SUPERSTRINGS(strSet) is subset of ALL_SUPERSTRINGS(#strSet)  and
+     * |strSet| <= |#strSet|  and
+     * CONTAINS_NO_SUBSTRING_PAIRS(strSet)  and
+     * for all t1, t2: string of character, k: integer
+     *     where (t1 /= t2  and  t1 is in strSet  and  t2 is in strSet  and
+     *            minOverlap <= k)
+     *   (not OVERLAPS(t1, t2, k))
+     * </pre>
+     */
+    public static void assemble(Set<String> strSet, int minOverlap) {
+        assert strSet != null : "Violation of: strSet is not null";
+        assert minOverlap > 0 : "Violation of: minOverlap > 0";
+        /*
+         * Note: Rest of precondition not checked!
+         */
+        assemble(strSet, minOverlap, minOverlap);
+    }
+
+    /**
+     * Combines strings in {@code strSet} as much as possible without using
+     * any overlap shorter than {@code minOverlap}, as
+     * {@link #assemble(Set, int)} does, but finding the candidate pairs that
+     * overlap by {@code k} characters or more through an index of the first
+     * {@code k} characters of each string, and the pairs that overlap by less
+     * by looking up the short suffixes of each string among the short
+     * prefixes of the others. With {@code minOverlap = 1} the merges made are
+     * those of {@link #assemble(Set)}.
+     *
+     * @param strSet
+     *            set of strings
+     * @param k
+     *            length of the indexed prefixes
+     * @param minOverlap
+     *            smallest overlap used to combine two strings
+     * @updates strSet
+     * @requires <pre>
+     * CONTAINS_NO_SUBSTRING_PAIRS(strSet)  and  k > 0  and  minOverlap > 0
+     * </pre>
+     * @ensures <pre>
+     * ALL_SUPERSTRINGS(strSet) is subset of ALL_SUPERSTRINGS(#strSet)  and
+     * |strSet| <= |#strSet|  and
+     * CONTAINS_NO_SUBSTRING_PAIRS(strSet)  and
+     * for all t1, t2: string of character, o: integer
+     *     where (t1 /= t2  and  t1 is in strSet  and  t2 is in strSet  and
+     *            minOverlap <= o)
+     *   (not OVERLAPS(t1, t2, o))
+     * </pre>
+     */
+    public static void assemble(Set<String> strSet, int k, int minOverlap) {
+        assert strSet != null : "Violation of: strSet is not null";
+        assert k > 0 : "Violation of: k > 0";
+        assert minOverlap > 0 : "Violation of: minOverlap > 0";
+        /*
+         * Note: Rest of precondition not checked!
+         */
+        String[] fragments = snapshot(strSet);
+        long start = System.nanoTime();
+        OverlapEdgeHeap edges = overlapGraph(fragments, k, minOverlap);
+        AssemblyMetrics.global().recordRound(System.nanoTime() - start);
+        String[] contigs = mergeChains(fragments, edges);
+        for (String contig : contigs) {
+            strSet.add(contig);
+        }
+    }
+
+    /**
+     * Compares {@code str1} and {@code str2} lexicographically, as
+     * {@code String.compareTo} compares strings.
+     *
+     * @param str1
+     *            first string
+     * @param str2
+     *            second string
+     * @return negative, zero, or positive as {@code str1} is before, equal
+     *         to, or after {@code str2}
+     */
+    private static int compare(CharSequence str1, CharSequence str2) {
+        int length = Math.min(str1.length(), str2.length());
+        int result = 0;
+        int i = 0;
+        while (result == 0 && i < length) {
+            result = str1.charAt(i) - str2.charAt(i);
+            i++;
+        }
+        if (result == 0) {
+            result = str1.length() - str2.length();
+        }
+        return result;
+    }
+
+    /**
+     * Assembles the fragments of {@code arena}: drops every fragment that is a
+     * substring of another, then combines the rest as much as possible, making
+     * the same merges as {@link StringReassembly#linesFromInput} followed by
+     * {@link #assemble(Set)}. All of this reads the fragments directly from
+     * the arena; only the assembled strings are turned into {@code String}s.
+     *
+     * @param arena
+     *            the fragments
+     * @return the assembled strings
+     * @throws IllegalArgumentException
+     *             if the lines of {@code arena} not contained in others number
+     *             more than {@code OverlapEdgeHeap.MAX_FIELD + 1}, too many
+     *             for the overlap graph to number
+     * @ensures <pre>
+     * assemble = [result of assembling the maximal set of lines of arena such
+     *             that CONTAINS_NO_SUBSTRING_PAIRS holds]
+     * </pre>
+     */
+    public static String[] assemble(FragmentArena arena) {
+        assert arena != null : "Violation of: arena is not null";
+        CharSequence[] lines = arena.fragments();
+        int[] maximal = ContainmentFilter.maximalIndices(lines);
+        if (maximal.length > OverlapEdgeHeap.MAX_FIELD + 1) {
+            throw new IllegalArgumentException(maximal.length
+                    + " fragments are more than the overlap graph can number ("
+                    + (OverlapEdgeHeap.MAX_FIELD + 1) + ")");
+        }
+        CharSequence[] fragments = new CharSequence[maximal.length];
+        for (int i = 0; i < maximal.length; i++) {
+            fragments[i] = lines[maximal[i]];
+        }
+        /*
+         * Number the fragments in sorted order, as snapshot does, so that
+         * ties are broken the same way
+         */
+        Arrays.sort(fragments, OverlapGraphAssembler::compare);
+        long start = System.nanoTime();
+        OverlapEdgeHeap edges = overlapGraph(fragments);
+        AssemblyMetrics.global().recordRound(System.nanoTime() - start);
+        return mergeChains(fragments, edges);
+    }
+
+}
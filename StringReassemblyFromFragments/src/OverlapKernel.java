@@ -0,0 +1,117 @@
+/**
+ * Linear-time computation of the maximum overlap between a suffix of one
+ * string and a prefix of another, using the Knuth-Morris-Pratt failure
+ * function of the second string.
+ *
+ * @author Justin Imber
+ *
+ */
+public final class OverlapKernel {
+
+    /**
+     * Private no-argument constructor to prevent instantiation of this utility
+     * class.
+     */
+    private OverlapKernel() {
+    }
+
+    /**
+     * Returns the Knuth-Morris-Pratt failure function of {@code pattern}.
+     *
+     * @param pattern
+     *            the string whose failure function is computed
+     * @return the failure function of {@code pattern}
+     * @ensures <pre>
+     * |failureFunction| = |pattern|  and
+     * for all i: integer
+     *     where (0 <= i  and  i < |pattern|)
+     *  (failureFunction[i] = [length of the longest proper prefix of
+     *                         pattern[0, i+1) that is also a suffix of it])
+     * </pre>
+     */
+    public static int[] failureFunction(CharSequence pattern) {
+        assert pattern != null : "Violation of: pattern is not null";
+        int[] failure = new int[pattern.length()];
+        int k = 0;
+        for (int i = 1; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            while (k > 0 && pattern.charAt(k) != c) {
+                k = failure[k - 1];
+            }
+            if (pattern.charAt(k) == c) {
+                k++;
+            }
+            failure[i] = k;
+        }
+        return failure;
+    }
+
+    /**
+     * Reports the maximum length of a common suffix of {@code str1} and proper
+     * prefix of {@code str2}, given the failure function of {@code str2}.
+     *
+     * @param str1
+     *            first string
+     * @param str2
+     *            second string
+     * @param failure
+     *            failure function of {@code str2}
+     * @return maximum overlap between right end of {@code str1} and left end of
+     *         {@code str2}
+     * @requires failure = failureFunction(str2)
+     * @ensures <pre>
+     * OVERLAPS(str1, str2, overlap)  and  overlap < |str2|  and
+     * for all k: integer
+     *     where (overlap < k  and  k <= |str1|  and  k < |str2|)
+     *  (not OVERLAPS(str1, str2, k))
+     * </pre>
+     */
+    public static int overlap(CharSequence str1, CharSequence str2,
+            int[] failure) {
+        assert str1 != null : "Violation of: str1 is not null";
+        assert str2 != null : "Violation of: str2 is not null";
+        assert failure != null : "Violation of: failure is not null";
+        assert failure.length == str2.length() : ""
+                + "Violation of: failure = failureFunction(str2)";
+        /*
+         * An overlap is shorter than str2, so only the last |str2| - 1
+         * characters of str1 can take part in it
+         */
+        int start = Math.max(0, str1.length() - str2.length() + 1);
+        int matched = 0;
+        for (int i = start; i < str1.length(); i++) {
+            char c = str1.charAt(i);
+            while (matched > 0 && str2.charAt(matched) != c) {
+                matched = failure[matched - 1];
+            }
+            if (str2.charAt(matched) == c) {
+                matched++;
+            }
+        }
+        return matched;
+    }
+
+    /**
+     * Reports the maximum length of a common suffix of {@code str1} and proper
+     * prefix of {@code str2}.
+     *
+     * @param str1
+     *            first string
+     * @param str2
+     *            second string
+     * @return maximum overlap between right end of {@code str1} and left end of
+     *         {@code str2}
+     * @ensures <pre>
+     * OVERLAPS(str1, str2, overlap)  and  overlap < |str2|  and
+     * for all k: integer
+     *     where (overlap < k  and  k <= |str1|  and  k < |str2|)
+     *  (not OVERLAPS(str1, str2, k))
+     * </pre>
+     */
+    public static int overlap(CharSequence str1, CharSequence str2) {
+        assert str1 != null : "Violation of: str1 is not null";
+        assert str2 != null : "Violation of: str2 is not null";
+        return overlap(str1, str2, failureFunction(str2));
+    }
+
+}
@@ -0,0 +1,403 @@
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import components.set.Set;
+
+/**
+ * Parallel version of the greedy assembler's best-overlap scan: the strings
+ * are copied into an array and the pair space is split into fork-join tasks,
+ * each of which finds the best pair in its share of the rows. Row {@code r}
+ * pairs the {@code r}-th string taken out of the set by {@code removeAny} with
+ * each string still in the set, so early rows hold far more pairs than late
+ * ones; tasks split their rows where half of their pairs fall on each side
+ * rather than at the middle row.
+ *
+ * <p>
+ * The rows are the ones {@link StringReassembly}'s sequential scan works
+ * through: the set is emptied with {@code removeAny} and refilled in the same
+ * order, and row {@code r} visits the strings left in the set in its
+ * iteration order, checking {@code (str0, str1)} and then {@code (str1, str0)}
+ * for each. A later pair wins only with a strictly larger overlap, so the
+ * reduction picks the same pair the sequential scan does, and leaves the set
+ * in the same order for the next round, as long as {@code removeAny} keeps the
+ * other strings in iteration order (as {@code Set1L} and {@link Set4} do).
+ *
+ * <p>
+ * Each task counts the characters its overlap computations scan, the counts
+ * being summed along with the reduction, so the work of a round is recorded
+ * in {@link AssemblyMetrics} once, as {@link StringReassembly} records it.
+ *
+ * @author Justin Imber
+ *
+ */
+public final class ParallelBestOverlap {
+
+    /**
+     * Number of pairs below which a task scans its rows itself instead of
+     * splitting them between two subtasks.
+     */
+    private static final long PAIR_THRESHOLD = 1024;
+
+    /**
+     * Private no-argument constructor to prevent instantiation of this utility
+     * class.
+     */
+    private ParallelBestOverlap() {
+    }
+
+    /**
+     * Reports the number of pairs in the rows before row {@code row} of the
+     * pair space of {@code n} strings.
+     *
+     * @param n
+     *            number of strings
+     * @param row
+     *            the row
+     * @return number of pairs in rows [0, row)
+     * @requires 0 <= row <= n
+     */
+    static long pairsBefore(int n, int row) {
+        /*
+         * Row i holds n - i - 1 pairs
+         */
+        return (long) row * n - (long) row * (row + 1) / 2;
+    }
+
+    /**
+     * Returns the row that splits the pairs of rows [lo, hi) of the pair
+     * space of {@code n} strings most nearly in half: the first row after
+     * {@code lo} before which at least half of them lie.
+     *
+     * @param n
+     *            number of strings
+     * @param lo
+     *            first row
+     * @param hi
+     *            one past the last row
+     * @return the splitting row
+     * @requires 0 <= lo  and  lo + 1 < hi  and  hi <= n
+     * @ensures lo < splitRow < hi
+     */
+    static int splitRow(int n, int lo, int hi) {
+        long half = (pairsBefore(n, lo) + pairsBefore(n, hi)) / 2;
+        int low = lo + 1;
+        int high = hi - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (pairsBefore(n, mid) >= half) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Best pair found in some part of the pair space.
+     */
+    private static final class Best {
+
+        /**
+         * Amount of overlap of the pair.
+         */
+        private final int overlap;
+
+        /**
+         * Index of the string whose suffix overlaps.
+         */
+        private final int from;
+
+        /**
+         * Index of the string whose prefix overlaps.
+         */
+        private final int to;
+
+        /**
+         * Number of characters scanned finding the pair.
+         */
+        private final long characters;
+
+        /**
+         * Constructor.
+         *
+         * @param overlap
+         *            amount of overlap
+         * @param from
+         *            index of the string whose suffix overlaps
+         * @param to
+         *            index of the string whose prefix overlaps
+         * @param characters
+         *            number of characters scanned finding the pair
+         */
+        Best(int overlap, int from, int to, long characters) {
+            this.overlap = overlap;
+            this.from = from;
+            this.to = to;
+            this.characters = characters;
+        }
+
+    }
+
+    /**
+     * Task that finds the best pair among the rows [lo, hi) of the pair space.
+     * Row {@code r} pairs {@code strings[rows[r]]} with each
+     * {@code strings[j]} such that {@code removedAt[j] > r}, in order of
+     * {@code j}.
+     */
+    private static final class ScanTask extends RecursiveTask<Best> {
+
+        /**
+         * Serialization version (required because RecursiveTask is
+         * serializable).
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The strings.
+         */
+        private final String[] strings;
+
+        /**
+         * Failure functions of the strings.
+         */
+        private final int[][] failure;
+
+        /**
+         * Index in {@code strings} of the string of each row.
+         */
+        private final int[] rows;
+
+        /**
+         * Row of each string in {@code strings}.
+         */
+        private final int[] removedAt;
+
+        /**
+         * First row.
+         */
+        private final int lo;
+
+        /**
+         * One past the last row.
+         */
+        private final int hi;
+
+        /**
+         * Constructor.
+         *
+         * @param strings
+         *            the strings
+         * @param failure
+         *            failure functions of the strings
+         * @param rows
+         *            index in {@code strings} of the string of each row
+         * @param removedAt
+         *            row of each string in {@code strings}
+         * @param lo
+         *            first row
+         * @param hi
+         *            one past the last row
+         */
+        ScanTask(String[] strings, int[][] failure, int[] rows,
+                int[] removedAt, int lo, int hi) {
+            this.strings = strings;
+            this.failure = failure;
+            this.rows = rows;
+            this.removedAt = removedAt;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected Best compute() {
+            Best result;
+            int n = this.strings.length;
+            long pairs = pairsBefore(n, this.hi) - pairsBefore(n, this.lo);
+            if (this.hi - this.lo <= 1 || pairs <= PAIR_THRESHOLD) {
+                result = this.scan();
+            } else {
+                int mid = splitRow(n, this.lo, this.hi);
+                ScanTask left = new ScanTask(this.strings, this.failure,
+                        this.rows, this.removedAt, this.lo, mid);
+                ScanTask right = new ScanTask(this.strings, this.failure,
+                        this.rows, this.removedAt, mid, this.hi);
+                left.fork();
+                Best rightBest = right.compute();
+                Best leftBest = left.join();
+                /*
+                 * Left rows come first in scan order, so the right result wins
+                 * only if it is strictly better
+                 */
+                Best better = leftBest;
+                if (rightBest.overlap > leftBest.overlap) {
+                    better = rightBest;
+                }
+                result = new Best(better.overlap, better.from, better.to,
+                        leftBest.characters + rightBest.characters);
+            }
+            return result;
+        }
+
+        /**
+         * Scans rows [lo, hi) sequentially.
+         *
+         * @return best pair in rows [lo, hi)
+         */
+        private Best scan() {
+            int bestOverlap = 0;
+            int bestFrom = -1;
+            int bestTo = -1;
+            long characters = 0;
+            for (int r = this.lo; r < this.hi; r++) {
+                int i = this.rows[r];
+                int length = this.strings[i].length();
+                for (int j = 0; j < this.strings.length; j++) {
+                    if (this.removedAt[j] <= r) {
+                        /*
+                         * strings[j] was out of the set by row r
+                         */
+                        continue;
+                    }
+                    int overlapFromIToJ = OverlapKernel.overlap(
+                            this.strings[i], this.strings[j], this.failure[j]);
+                    if (overlapFromIToJ > bestOverlap) {
+                        bestOverlap = overlapFromIToJ;
+                        bestFrom = i;
+                        bestTo = j;
+                    }
+                    int overlapFromJToI = OverlapKernel.overlap(
+                            this.strings[j], this.strings[i], this.failure[i]);
+                    if (overlapFromJToI > bestOverlap) {
+                        bestOverlap = overlapFromJToI;
+                        bestFrom = j;
+                        bestTo = i;
+                    }
+                    int otherLength = this.strings[j].length();
+                    characters += Math.min(length, otherLength - 1)
+                            + Math.min(otherLength, length - 1);
+                }
+            }
+            return new Best(bestOverlap, bestFrom, bestTo, characters);
+        }
+
+    }
+
+    /**
+     * Returns the longest overlap between the suffix of one string and the
+     * prefix of another string in {@code strSet}, and identifies the two
+     * strings that achieve that overlap, using all available processors. The
+     * pair picked, and the order {@code strSet} is left in, are those of the
+     * sequential scan of {@link StringReassembly#assemble(Set)}.
+     *
+     * @param strSet
+     *            the set of strings examined
+     * @param bestTwo
+     *            an array containing (upon return) the two strings with the
+     *            largest such overlap between the suffix of {@code bestTwo[0]}
+     *            and the prefix of {@code bestTwo[1]}
+     * @return the amount of overlap between those two strings
+     * @replaces bestTwo[0], bestTwo[1]
+     * @requires <pre>
+     * CONTAINS_NO_SUBSTRING_PAIRS(strSet)  and
+     * bestTwo.length >= 2
+     * </pre>
+     * @ensures <pre>
+     * bestTwo[0] is in strSet  and
+     * bestTwo[1] is in strSet  and
+     * OVERLAPS(bestTwo[0], bestTwo[1], bestOverlap)  and
+     * for all str1, str2: string of character, overlap: integer
+     *     where (str1 is in strSet  and  str2 is in strSet  and
+     *            OVERLAPS(str1, str2, overlap))
+     *   (overlap <= bestOverlap)
+     * </pre>
+     */
+    public static int bestOverlap(Set<String> strSet, String[] bestTwo) {
+        assert strSet != null : "Violation of: strSet is not null";
+        assert bestTwo != null : "Violation of: bestTwo is not null";
+        assert bestTwo.length >= 2 : "Violation of: bestTwo.length >= 2";
+        /*
+         * Note: Rest of precondition not checked!
+         */
+        String[] strings = new String[strSet.size()];
+        int[][] failure = new int[strings.length][];
+        Map<String, Integer> index = new HashMap<>();
+        int i = 0;
+        for (String str : strSet) {
+            strings[i] = str;
+            failure[i] = OverlapKernel.failureFunction(str);
+            index.put(str, i);
+            i++;
+        }
+        /*
+         * Take the strings out and put them back as the sequential scan does,
+         * noting the row of each
+         */
+        int[] rows = new int[strings.length];
+        int[] removedAt = new int[strings.length];
+        Set<String> processed = strSet.newInstance();
+        for (int r = 0; r < rows.length; r++) {
+            String str0 = strSet.removeAny();
+            rows[r] = index.get(str0);
+            removedAt[rows[r]] = r;
+            processed.add(str0);
+        }
+        strSet.transferFrom(processed);
+        Best best = ForkJoinPool.commonPool().invoke(new ScanTask(strings,
+                failure, rows, removedAt, 0, strings.length));
+        long n = strings.length;
+        AssemblyMetrics.global().recordOverlaps(n * (n - 1), best.characters);
+        if (best.overlap > 0) {
+            bestTwo[0] = strings[best.from];
+            bestTwo[1] = strings[best.to];
+        }
+        return best.overlap;
+    }
+
+    /**
+     * Combines strings in {@code strSet} as much as possible, leaving in it
+     * only strings that have no overlap between a suffix of one string and a
+     * prefix of another, exactly as {@link StringReassembly#assemble(Set)}
+     * does but finding each best pair with {@link #bestOverlap}.
+     *
+     * @param strSet
+     *            set of strings
+     * @updates strSet
+     * @requires CONTAINS_NO_SUBSTRING_PAIRS(strSet)
+     * @ensures <pre>
+     * ALL_SUPERSTRINGS(strSet) is subset of ALL_SUPERSTRINGS(#strSet)  and
+     * |strSet| <= |#strSet|  and
+     * CONTAINS_NO_SUBSTRING_PAIRS(strSet)  and
+     * CONTAINS_NO_OVERLAPPING_PAIRS(strSet)
+     * </pre>
+     */
+    public static void assemble(Set<String> strSet) {
+        assert strSet != null : "Violation of: strSet is not null";
+        /*
+         * Note: Precondition not checked!
+         */
+        boolean done = false;
+        while ((strSet.size() > 1) && !done) {
+            String[] bestTwo = new String[2];
+            long start = System.nanoTime();
+            int bestOverlap = bestOverlap(strSet, bestTwo);
+            AssemblyMetrics.global().recordRound(System.nanoTime() - start);
+            if (bestOverlap == 0) {
+                /*
+                 * No overlapping strings remain; can't do any more
+                 */
+                done = true;
+            } else {
+                strSet.remove(bestTwo[0]);
+                strSet.remove(bestTwo[1]);
+                String overlapped = StringReassembly.combination(bestTwo[0],
+                        bestTwo[1], bestOverlap);
+                strSet.add(overlapped);
+                AssemblyMetrics.global().recordMerge();
+            }
+        }
+    }
+
+}
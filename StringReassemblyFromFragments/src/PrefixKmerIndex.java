@@ -0,0 +1,254 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index of a set of fragments by the hash of their first {@code k} characters
+ * (their prefix k-mer), used to find, for a given fragment, the other
+ * fragments whose prefix overlaps its suffix by at least {@code k} characters
+ * without trying every fragment.
+ *
+ * <p>
+ * If {@code str2} overlaps {@code str1} by {@code o >= k} characters, then
+ * the prefix k-mer of {@code str2} occurs in {@code str1} at position
+ * {@code |str1| - o}. So sliding a window of {@code k} characters along
+ * {@code str1} and looking up each window yields every such {@code str2}; each
+ * candidate is then verified with {@code regionMatches}, which also makes hash
+ * collisions harmless. Each fragment is verified at most once as a candidate
+ * for a given {@code str1}: if its longest candidate overlap turns out to be
+ * a hash collision, its actual overlap with {@code str1} is computed outright
+ * by {@link OverlapKernel}, instead of verifying each shorter window that
+ * hashes like its prefix.
+ *
+ * <p>
+ * The minimum overlap sought is set apart from {@code k}. Overlaps at least
+ * as long as {@code k} are found through the k-mers as above; the shorter
+ * ones, down to the minimum overlap, are found by looking up each suffix of
+ * {@code str1} of such a length among the prefixes of the other fragments,
+ * which are kept by their contents for every length from the minimum overlap
+ * up to {@code k - 1}.
+ *
+ * @author Justin Imber
+ *
+ */
+public final class PrefixKmerIndex {
+
+    /**
+     * Multiplier of the polynomial hash.
+     */
+    private static final int BASE = 31;
+
+    /**
+     * The indexed fragments.
+     */
+    private final String[] fragments;
+
+    /**
+     * Length of the indexed prefixes.
+     */
+    private final int k;
+
+    /**
+     * Length of the shortest overlap sought.
+     */
+    private final int minOverlap;
+
+    /**
+     * BASE to the power k - 1, for removing the first character of a window.
+     */
+    private final int highPower;
+
+    /**
+     * Fragments grouped by the hash of their prefix k-mer.
+     */
+    private final Map<Integer, int[]> buckets;
+
+    /**
+     * Fragments by each of their prefixes from minOverlap up to k - 1
+     * characters long.
+     */
+    private final Map<String, List<Integer>> shortPrefixes;
+
+    /**
+     * Constructor.
+     *
+     * @param fragments
+     *            the fragments to index
+     * @param k
+     *            length of the indexed prefixes
+     * @param minOverlap
+     *            length of the shortest overlap sought
+     * @requires k > 0  and  minOverlap > 0
+     */
+    public PrefixKmerIndex(String[] fragments, int k, int minOverlap) {
+        assert fragments != null : "Violation of: fragments is not null";
+        assert k > 0 : "Violation of: k > 0";
+        assert minOverlap > 0 : "Violation of: minOverlap > 0";
+        this.fragments = fragments;
+        this.k = k;
+        this.minOverlap = minOverlap;
+        int power = 1;
+        for (int i = 1; i < k; i++) {
+            power *= BASE;
+        }
+        this.highPower = power;
+        /*
+         * Only a fragment longer than k can be overlapped by k or more
+         * characters, since an overlap is always shorter than the fragment
+         */
+        Map<Integer, int[]> counts = new HashMap<>();
+        int[] hash = new int[fragments.length];
+        for (int j = 0; j < fragments.length; j++) {
+            if (fragments[j].length() > k) {
+                hash[j] = this.hash(fragments[j], 0);
+                int[] count = counts.get(hash[j]);
+                if (count == null) {
+                    count = new int[1];
+                    counts.put(hash[j], count);
+                }
+                count[0]++;
+            }
+        }
+        this.buckets = new HashMap<>();
+        for (Map.Entry<Integer, int[]> entry : counts.entrySet()) {
+            this.buckets.put(entry.getKey(), new int[entry.getValue()[0]]);
+            entry.getValue()[0] = 0;
+        }
+        for (int j = 0; j < fragments.length; j++) {
+            if (fragments[j].length() > k) {
+                int[] count = counts.get(hash[j]);
+                this.buckets.get(hash[j])[count[0]] = j;
+                count[0]++;
+            }
+        }
+        /*
+         * Likewise, a prefix is kept only if it is shorter than the fragment
+         */
+        this.shortPrefixes = new HashMap<>();
+        for (int j = 0; j < fragments.length; j++) {
+            int longest = Math.min(k - 1, fragments[j].length() - 1);
+            for (int length = minOverlap; length <= longest; length++) {
+                String prefix = fragments[j].substring(0, length);
+                List<Integer> sharing = this.shortPrefixes.get(prefix);
+                if (sharing == null) {
+                    sharing = new ArrayList<>();
+                    this.shortPrefixes.put(prefix, sharing);
+                }
+                sharing.add(j);
+            }
+        }
+    }
+
+    /**
+     * Returns the hash of {@code str[start, start + k)}.
+     *
+     * @param str
+     *            the string
+     * @param start
+     *            start of the window
+     * @return the hash of the window
+     */
+    private int hash(String str, int start) {
+        int h = 0;
+        for (int i = start; i < start + this.k; i++) {
+            h = h * BASE + str.charAt(i);
+        }
+        return h;
+    }
+
+    /**
+     * Calls {@code edges.add(i, j, overlap(fragments[i], fragments[j]))} for
+     * every other indexed fragment {@code j} whose overlap with fragment
+     * {@code i} is at least {@code minOverlap}.
+     *
+     * @param i
+     *            index of the fragment whose suffix overlaps
+     * @param edges
+     *            the heap receiving the edges
+     * @param seen
+     *            scratch array of length |fragments|
+     * @updates edges, seen
+     * @requires <pre>
+     * 0 <= i < |fragments|  and  |seen| = |fragments|  and
+     * for all j: integer where (0 <= j < |seen|) (seen[j] /= i + 1)
+     * </pre>
+     * @ensures <pre>
+     * edges = #edges union {(i, j, o): integer
+     *   where (j /= i  and  minOverlap <= o  and
+     *          o = overlap(fragments[i], fragments[j]))}
+     * </pre>
+     */
+    void addEdgesFrom(int i, OverlapEdgeHeap edges, int[] seen) {
+        assert edges != null : "Violation of: edges is not null";
+        assert seen != null : "Violation of: seen is not null";
+        assert seen.length == this.fragments.length : ""
+                + "Violation of: |seen| = |fragments|";
+        String str1 = this.fragments[i];
+        long candidates = 0;
+        long characters = 0;
+        /*
+         * Slide the window from left to right, so that the first candidate
+         * found for each fragment is its longest possible overlap with str1;
+         * seen marks the fragments already dealt with
+         */
+        int longestWindow = str1.length() - Math.max(this.k, this.minOverlap);
+        if (longestWindow >= 0) {
+            int h = this.hash(str1, 0);
+            for (int p = 0; p <= longestWindow; p++) {
+                if (p > 0) {
+                    h = (h - str1.charAt(p - 1) * this.highPower) * BASE
+                            + str1.charAt(p + this.k - 1);
+                }
+                int[] bucket = this.buckets.get(h);
+                if (bucket != null) {
+                    int overlap = str1.length() - p;
+                    for (int j : bucket) {
+                        String str2 = this.fragments[j];
+                        if (j != i && seen[j] != i + 1
+                                && overlap < str2.length()) {
+                            seen[j] = i + 1;
+                            candidates++;
+                            if (str1.regionMatches(p, str2, 0, overlap)) {
+                                characters += overlap;
+                                edges.add(i, j, overlap);
+                            } else {
+                                /*
+                                 * A collision: every longer overlap would
+                                 * have been a candidate already, so the
+                                 * actual one is shorter
+                                 */
+                                characters += str1.length() + str2.length();
+                                int actual = OverlapKernel.overlap(str1,
+                                        str2);
+                                if (actual >= this.minOverlap) {
+                                    edges.add(i, j, actual);
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        /*
+         * Then look up the suffixes of str1 too short to have a k-mer, longest
+         * first; the fragments found are not verified, since they are looked
+         * up by contents
+         */
+        int longest = Math.min(this.k - 1, str1.length());
+        for (int overlap = longest; overlap >= this.minOverlap; overlap--) {
+            List<Integer> sharing = this.shortPrefixes
+                    .get(str1.substring(str1.length() - overlap));
+            if (sharing != null) {
+                for (int j : sharing) {
+                    if (j != i && seen[j] != i + 1) {
+                        seen[j] = i + 1;
+                        edges.add(i, j, overlap);
+                    }
+                }
+            }
+        }
+        AssemblyMetrics.global().recordOverlaps(candidates, characters);
+    }
+
+}
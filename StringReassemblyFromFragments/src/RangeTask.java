@@ -0,0 +1,62 @@
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * Fork-join task that runs a body once for each index in a range, splitting
+ * the range in halves down to single indices so that idle workers can steal
+ * any part of it. Meant for bodies that each do a sizable amount of work.
+ *
+ * @author Justin Imber
+ *
+ */
+final class RangeTask extends RecursiveAction {
+
+    /**
+     * Serialization version (required because RecursiveAction is
+     * serializable).
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The body run for each index.
+     */
+    private final transient IntConsumer body;
+
+    /**
+     * First index.
+     */
+    private final int lo;
+
+    /**
+     * One past the last index.
+     */
+    private final int hi;
+
+    /**
+     * Constructor.
+     *
+     * @param body
+     *            the body run for each index
+     * @param lo
+     *            first index
+     * @param hi
+     *            one past the last index
+     */
+    RangeTask(IntConsumer body, int lo, int hi) {
+        this.body = body;
+        this.lo = lo;
+        this.hi = hi;
+    }
+
+    @Override
+    protected void compute() {
+        if (this.hi - this.lo == 1) {
+            this.body.accept(this.lo);
+        } else if (this.hi - this.lo > 1) {
+            int mid = (this.lo + this.hi) >>> 1;
+            invokeAll(new RangeTask(this.body, this.lo, mid),
+                    new RangeTask(this.body, mid, this.hi));
+        }
+    }
+
+}
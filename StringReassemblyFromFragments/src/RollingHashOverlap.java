@@ -0,0 +1,440 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import components.set.Set;
+
+/**
+ * Overlap kernel based on polynomial (Rabin-Karp) hashes: the hashes of every
+ * prefix and every suffix of each fragment are computed once, when it is
+ * added. Testing whether two fragments overlap by {@code k} characters then
+ * costs one comparison of two array entries, plus a {@code regionMatches}
+ * check only when the hashes agree.
+ *
+ * <p>
+ * Unlike {@link OverlapKernel}, which has to read the whole of the first
+ * string, the test for each {@code k} stands on its own, so
+ * {@link #bestOverlap(int[])} tries only the overlaps longer than the best one
+ * found so far.
+ *
+ * <p>
+ * The hashes are computed modulo the prime 2<sup>31</sup> - 1 with a base
+ * picked from a seed, so no fixed input can be made to collide often for
+ * every seed; and since every hash match is verified, a collision costs time
+ * but never gives a wrong answer.
+ *
+ * @author Justin Imber
+ *
+ */
+public final class RollingHashOverlap {
+
+    /**
+     * Modulus of the hashes, unless a test picks a smaller one.
+     */
+    private static final long MODULUS = (1L << 31) - 1;
+
+    /**
+     * Smallest base used.
+     */
+    private static final int MIN_BASE = 256;
+
+    /**
+     * Seed used by {@link #assemble(Set)}, so that its runs are repeatable.
+     */
+    public static final long DEFAULT_SEED = 2221;
+
+    /**
+     * Base of the hashes.
+     */
+    private final long base;
+
+    /**
+     * Modulus of the hashes.
+     */
+    private final long modulus;
+
+    /**
+     * Powers of {@code base}, modulo {@code modulus}.
+     */
+    private long[] powers;
+
+    /**
+     * The fragments.
+     */
+    private final List<String> fragments;
+
+    /**
+     * Prefix hashes of the fragments: {@code hashes.get(i)[k]} is the hash of
+     * the first {@code k} characters of fragment {@code i}.
+     */
+    private final List<long[]> hashes;
+
+    /**
+     * Suffix hashes of the fragments: {@code suffixes.get(i)[k]} is the hash
+     * of the last {@code k} characters of fragment {@code i}.
+     */
+    private final List<long[]> suffixes;
+
+    /**
+     * Constructor.
+     *
+     * @param seed
+     *            seed for the choice of base
+     */
+    public RollingHashOverlap(long seed) {
+        this(MIN_BASE + new Random(seed).nextInt(
+                (int) (MODULUS - 2 * MIN_BASE)), MODULUS);
+    }
+
+    /**
+     * Constructor with a given base and modulus; a small modulus makes hashes
+     * collide as often as a test wants.
+     *
+     * @param base
+     *            base of the hashes
+     * @param modulus
+     *            modulus of the hashes
+     * @requires 0 < modulus <= MODULUS  and  0 <= base < modulus
+     */
+    RollingHashOverlap(long base, long modulus) {
+        assert 0 < modulus && modulus <= MODULUS : ""
+                + "Violation of: 0 < modulus <= MODULUS";
+        assert 0 <= base && base < modulus : ""
+                + "Violation of: 0 <= base < modulus";
+        this.base = base;
+        this.modulus = modulus;
+        this.powers = new long[] { 1 % modulus };
+        this.fragments = new ArrayList<>();
+        this.hashes = new ArrayList<>();
+        this.suffixes = new ArrayList<>();
+    }
+
+    /**
+     * Makes sure {@code powers} holds at least the first {@code n + 1}
+     * powers of {@code base}.
+     *
+     * @param n
+     *            largest power needed
+     */
+    private void ensurePowers(int n) {
+        if (this.powers.length <= n) {
+            long[] more = new long[Math.max(n + 1, 2 * this.powers.length)];
+            System.arraycopy(this.powers, 0, more, 0, this.powers.length);
+            for (int i = this.powers.length; i < more.length; i++) {
+                more[i] = more[i - 1] * this.base % this.modulus;
+            }
+            this.powers = more;
+        }
+    }
+
+    /**
+     * Returns the prefix hashes of {@code str}, continuing from
+     * {@code prefix}, the prefix hashes of {@code str[0, |prefix| - 1)}.
+     *
+     * @param str
+     *            the string
+     * @param prefix
+     *            prefix hashes already known
+     * @return prefix hashes of {@code str}
+     */
+    private long[] prefixHashes(String str, long[] prefix) {
+        long[] h = new long[str.length() + 1];
+        System.arraycopy(prefix, 0, h, 0, prefix.length);
+        for (int i = prefix.length - 1; i < str.length(); i++) {
+            h[i + 1] = (h[i] * this.base + str.charAt(i)) % this.modulus;
+        }
+        return h;
+    }
+
+    /**
+     * Returns the suffix hashes of {@code str}.
+     *
+     * @param str
+     *            the string
+     * @return suffix hashes of {@code str}
+     * @requires powers holds at least the first |str| powers of base
+     */
+    private long[] suffixHashes(String str) {
+        int n = str.length();
+        long[] h = new long[n + 1];
+        for (int k = 1; k <= n; k++) {
+            /*
+             * hash(str[n-k, n)) = str[n-k] * base^(k-1) + hash(str[n-k+1, n))
+             */
+            h[k] = (str.charAt(n - k) * this.powers[k - 1] + h[k - 1])
+                    % this.modulus;
+        }
+        return h;
+    }
+
+    /**
+     * Adds {@code str} to the fragments and computes its prefix hashes.
+     *
+     * @param str
+     *            the fragment
+     * @return index of the new fragment
+     */
+    public int add(String str) {
+        assert str != null : "Violation of: str is not null";
+        this.ensurePowers(str.length());
+        this.fragments.add(str);
+        this.hashes.add(this.prefixHashes(str, new long[1]));
+        this.suffixes.add(this.suffixHashes(str));
+        return this.fragments.size() - 1;
+    }
+
+    /**
+     * Reports the number of fragments.
+     *
+     * @return the number of fragments
+     */
+    public int size() {
+        return this.fragments.size();
+    }
+
+    /**
+     * Returns fragment {@code i}.
+     *
+     * @param i
+     *            index of the fragment
+     * @return fragment {@code i}
+     * @requires 0 <= i < size()
+     */
+    public String fragment(int i) {
+        return this.fragments.get(i);
+    }
+
+    /**
+     * Reports the maximum length of a common suffix of fragment {@code i} and
+     * proper prefix of fragment {@code j}.
+     *
+     * @param i
+     *            index of the first fragment
+     * @param j
+     *            index of the second fragment
+     * @return maximum overlap between right end of fragment {@code i} and left
+     *         end of fragment {@code j}
+     * @requires 0 <= i < size()  and  0 <= j < size()
+     * @ensures <pre>
+     * OVERLAPS(fragment(i), fragment(j), overlap)  and
+     * overlap < |fragment(j)|  and
+     * for all k: integer
+     *     where (overlap < k  and  k <= |fragment(i)|  and
+     *            k < |fragment(j)|)
+     *  (not OVERLAPS(fragment(i), fragment(j), k))
+     * </pre>
+     */
+    public int overlap(int i, int j) {
+        return this.overlapAbove(i, j, 0);
+    }
+
+    /**
+     * Reports the maximum length of a common suffix of fragment {@code i} and
+     * proper prefix of fragment {@code j} if it is more than {@code floor}, and
+     * 0 otherwise.
+     *
+     * @param i
+     *            index of the first fragment
+     * @param j
+     *            index of the second fragment
+     * @param floor
+     *            overlaps of at most this length are not looked for
+     * @return maximum overlap between right end of fragment {@code i} and left
+     *         end of fragment {@code j}, if more than {@code floor}; else 0
+     * @requires 0 <= i < size()  and  0 <= j < size()  and  floor >= 0
+     */
+    private int overlapAbove(int i, int j, int floor) {
+        String str1 = this.fragments.get(i);
+        String str2 = this.fragments.get(j);
+        long[] s1 = this.suffixes.get(i);
+        long[] h2 = this.hashes.get(j);
+        int n = str1.length();
+        int k = Math.min(n, str2.length() - 1);
+        while (k > floor && (s1[k] != h2[k]
+                || !str1.regionMatches(n - k, str2, 0, k))) {
+            k--;
+        }
+        if (k <= floor) {
+            k = 0;
+        }
+        return k;
+    }
+
+    /**
+     * Replaces fragment {@code i} with its combination with fragment
+     * {@code j} and removes fragment {@code j}, extending the prefix hashes of
+     * fragment {@code i} rather than recomputing them; the fragments after
+     * fragment {@code j} each move down one index, so the fragments stay in
+     * the order they were added in.
+     *
+     * @param i
+     *            index of the first fragment
+     * @param j
+     *            index of the second fragment
+     * @param overlap
+     *            amount of overlap
+     * @requires <pre>
+     * 0 <= i < size()  and  0 <= j < size()  and  i /= j  and
+     * OVERLAPS(fragment(i), fragment(j), overlap)
+     * </pre>
+     */
+    public void merge(int i, int j, int overlap) {
+        assert i != j : "Violation of: i /= j";
+        String merged = StringReassembly.combination(this.fragments.get(i),
+                this.fragments.get(j), overlap);
+        this.ensurePowers(merged.length());
+        this.hashes.set(i, this.prefixHashes(merged, this.hashes.get(i)));
+        this.suffixes.set(i, this.suffixHashes(merged));
+        this.fragments.set(i, merged);
+        /*
+         * Shift the fragments after j rather than moving the last one into
+         * its place, which would change the order ties are broken in (a shift
+         * costs far less than the scan of all pairs that found the merge)
+         */
+        this.fragments.remove(j);
+        this.hashes.remove(j);
+        this.suffixes.remove(j);
+    }
+
+    /**
+     * Returns the longest overlap between the suffix of one fragment and the
+     * prefix of another, and identifies the two fragments that achieve it.
+     * The work is recorded in {@link AssemblyMetrics#global()}, counting as
+     * scanned the lengths tried for each pair: those above the best overlap
+     * found before it.
+     *
+     * @param bestTwo
+     *            an array containing (upon return) the indices of the two
+     *            fragments with the largest such overlap
+     * @return the amount of overlap between those two fragments
+     * @replaces bestTwo[0], bestTwo[1]
+     * @requires <pre>
+     * CONTAINS_NO_SUBSTRING_PAIRS(fragments)  and
+     * bestTwo.length >= 2
+     * </pre>
+     */
+    public int bestOverlap(int[] bestTwo) {
+        assert bestTwo != null : "Violation of: bestTwo is not null";
+        assert bestTwo.length >= 2 : "Violation of: bestTwo.length >= 2";
+        int bestOverlap = 0;
+        /*
+         * Count the work locally, and record it once for the whole round;
+         * only the lengths above the best overlap so far are tried
+         */
+        long characters = 0;
+        for (int i = 0; i < this.fragments.size(); i++) {
+            int length = this.fragments.get(i).length();
+            for (int j = i + 1; j < this.fragments.size(); j++) {
+                int otherLength = this.fragments.get(j).length();
+                characters += Math.max(0,
+                        Math.min(length, otherLength - 1) - bestOverlap);
+                int overlapFromIToJ = this.overlapAbove(i, j, bestOverlap);
+                if (overlapFromIToJ > bestOverlap) {
+                    bestOverlap = overlapFromIToJ;
+                    bestTwo[0] = i;
+                    bestTwo[1] = j;
+                }
+                characters += Math.max(0,
+                        Math.min(otherLength, length - 1) - bestOverlap);
+                int overlapFromJToI = this.overlapAbove(j, i, bestOverlap);
+                if (overlapFromJToI > bestOverlap) {
+                    bestOverlap = overlapFromJToI;
+                    bestTwo[0] = j;
+                    bestTwo[1] = i;
+                }
+            }
+        }
+        long n = this.fragments.size();
+        AssemblyMetrics.global().recordOverlaps(n * (n - 1), characters);
+        return bestOverlap;
+    }
+
+    /**
+     * Combines strings in {@code strSet} as much as possible, leaving in it
+     * only strings that have no overlap between a suffix of one string and a
+     * prefix of another, making the merges
+     * {@link StringReassembly#assemble(Set)} makes, with ties between equal
+     * overlaps broken by the sorted order of the first fragment of each
+     * string, but scoring overlaps with cached prefix and suffix hashes, using
+     * {@link #DEFAULT_SEED}.
+     *
+     * @param strSet
+     *            set of strings
+     * @updates strSet
+     * @requires CONTAINS_NO_SUBSTRING_PAIRS(strSet)
+     * @ensures <pre>
+     * ALL_SUPERSTRINGS(strSet) is subset of ALL_SUPERSTRINGS(#strSet)  and
+     * |strSet| <= |#strSet|  and
+     * CONTAINS_NO_SUBSTRING_PAIRS(strSet)  and
+     * CONTAINS_NO_OVERLAPPING_PAIRS(strSet)
+     * </pre>
+     */
+    public static void assemble(Set<String> strSet) {
+        assemble(strSet, DEFAULT_SEED);
+    }
+
+    /**
+     * Combines strings in {@code strSet} as much as possible, as
+     * {@link #assemble(Set)} does, with the base of the hashes picked from
+     * {@code seed}. The result does not depend on {@code seed}; only the time
+     * spent on hash collisions does.
+     *
+     * @param strSet
+     *            set of strings
+     * @param seed
+     *            seed for the choice of base
+     * @updates strSet
+     * @requires CONTAINS_NO_SUBSTRING_PAIRS(strSet)
+     * @ensures <pre>
+     * ALL_SUPERSTRINGS(strSet) is subset of ALL_SUPERSTRINGS(#strSet)  and
+     * |strSet| <= |#strSet|  and
+     * CONTAINS_NO_SUBSTRING_PAIRS(strSet)  and
+     * CONTAINS_NO_OVERLAPPING_PAIRS(strSet)
+     * </pre>
+     */
+    public static void assemble(Set<String> strSet, long seed) {
+        assert strSet != null : "Violation of: strSet is not null";
+        /*
+         * Note: Precondition not checked!
+         */
+        RollingHashOverlap table = new RollingHashOverlap(seed);
+        assemble(strSet, table);
+    }
+
+    /**
+     * Combines strings in {@code strSet} as much as possible, as
+     * {@link #assemble(Set)} does, scoring overlaps with {@code table}.
+     *
+     * @param strSet
+     *            set of strings
+     * @param table
+     *            empty table to score the overlaps with
+     * @updates strSet
+     * @requires CONTAINS_NO_SUBSTRING_PAIRS(strSet)  and  table.size() = 0
+     */
+    static void assemble(Set<String> strSet, RollingHashOverlap table) {
+        for (String str : OverlapGraphAssembler.snapshot(strSet)) {
+            table.add(str);
+        }
+        boolean done = false;
+        while ((table.size() > 1) && !done) {
+            int[] bestTwo = new int[2];
+            long start = System.nanoTime();
+            int bestOverlap = table.bestOverlap(bestTwo);
+            AssemblyMetrics.global().recordRound(System.nanoTime() - start);
+            if (bestOverlap == 0) {
+                /*
+                 * No overlapping strings remain; can't do any more
+                 */
+                done = true;
+            } else {
+                table.merge(bestTwo[0], bestTwo[1], bestOverlap);
+                AssemblyMetrics.global().recordMerge();
+            }
+        }
+        for (int i = 0; i < table.size(); i++) {
+            strSet.add(table.fragment(i));
+        }
+    }
+
+}
@@ -0,0 +1,283 @@
+/**
+ * Immutable string of characters represented as a balanced binary tree of
+ * string pieces, so that two ropes can be concatenated, and a rope can be cut,
+ * in time logarithmic in the number of pieces instead of linear in the number
+ * of characters.
+ *
+ * <p>
+ * The tree is kept height-balanced the same way an AVL tree is: the depths of
+ * the two children of every node differ by at most one. Short pieces are
+ * combined into a single leaf so that a rope built from many small fragments
+ * does not end up with one node per fragment.
+ *
+ * @author Justin Imber
+ *
+ */
+public final class Rope implements CharSequence {
+
+    /**
+     * Longest leaf created by combining two short leaves.
+     */
+    private static final int MAX_COMBINED_LEAF = 64;
+
+    /**
+     * The empty rope.
+     */
+    private static final Rope EMPTY = new Rope("");
+
+    /**
+     * Characters of this rope, if it is a leaf; null otherwise.
+     */
+    private final String leaf;
+
+    /**
+     * Left subtree, if this rope is not a leaf; null otherwise.
+     */
+    private final Rope left;
+
+    /**
+     * Right subtree, if this rope is not a leaf; null otherwise.
+     */
+    private final Rope right;
+
+    /**
+     * Number of characters in this rope.
+     */
+    private final int length;
+
+    /**
+     * Depth of this rope's tree; 0 for a leaf.
+     */
+    private final int depth;
+
+    /**
+     * Leaf constructor.
+     *
+     * @param leaf
+     *            characters of the rope
+     */
+    private Rope(String leaf) {
+        this.leaf = leaf;
+        this.left = null;
+        this.right = null;
+        this.length = leaf.length();
+        this.depth = 0;
+    }
+
+    /**
+     * Node constructor.
+     *
+     * @param left
+     *            left subtree
+     * @param right
+     *            right subtree
+     */
+    private Rope(Rope left, Rope right) {
+        this.leaf = null;
+        this.left = left;
+        this.right = right;
+        this.length = left.length + right.length;
+        this.depth = Math.max(left.depth, right.depth) + 1;
+    }
+
+    /**
+     * Returns a rope with the same characters as {@code str}.
+     *
+     * @param str
+     *            the characters of the rope
+     * @return rope for {@code str}
+     * @ensures valueOf = str
+     */
+    public static Rope valueOf(String str) {
+        assert str != null : "Violation of: str is not null";
+        Rope result = EMPTY;
+        if (str.length() > 0) {
+            result = new Rope(str);
+        }
+        return result;
+    }
+
+    /**
+     * Returns a node with the given subtrees, rotating once if their depths
+     * differ by two.
+     *
+     * @param left
+     *            left subtree
+     * @param right
+     *            right subtree
+     * @return balanced rope for left * right
+     * @requires |left.depth - right.depth| <= 2  and  both are balanced
+     */
+    private static Rope balance(Rope left, Rope right) {
+        Rope result;
+        if (left.depth > right.depth + 1) {
+            if (left.left.depth >= left.right.depth) {
+                result = new Rope(left.left, new Rope(left.right, right));
+            } else {
+                result = new Rope(new Rope(left.left, left.right.left),
+                        new Rope(left.right.right, right));
+            }
+        } else if (right.depth > left.depth + 1) {
+            if (right.right.depth >= right.left.depth) {
+                result = new Rope(new Rope(left, right.left), right.right);
+            } else {
+                result = new Rope(new Rope(left, right.left.left),
+                        new Rope(right.left.right, right.right));
+            }
+        } else {
+            result = new Rope(left, right);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the concatenation of {@code left} and {@code right}.
+     *
+     * @param left
+     *            left part
+     * @param right
+     *            right part
+     * @return balanced rope for left * right
+     */
+    private static Rope join(Rope left, Rope right) {
+        Rope result;
+        if (left.length == 0) {
+            result = right;
+        } else if (right.length == 0) {
+            result = left;
+        } else if (left.leaf != null && right.leaf != null
+                && left.length + right.length <= MAX_COMBINED_LEAF) {
+            result = new Rope(left.leaf + right.leaf);
+        } else if (left.depth > right.depth + 1) {
+            result = balance(left.left, join(left.right, right));
+        } else if (right.depth > left.depth + 1) {
+            result = balance(join(left, right.left), right.right);
+        } else {
+            result = new Rope(left, right);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the concatenation of this and {@code other}.
+     *
+     * @param other
+     *            rope to append
+     * @return this * other
+     * @ensures concat = this * other
+     */
+    public Rope concat(Rope other) {
+        assert other != null : "Violation of: other is not null";
+        return join(this, other);
+    }
+
+    @Override
+    public int length() {
+        return this.length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        assert 0 <= index && index < this.length : ""
+                + "Violation of: 0 <= index < |this|";
+        Rope r = this;
+        int i = index;
+        while (r.leaf == null) {
+            if (i < r.left.length) {
+                r = r.left;
+            } else {
+                i -= r.left.length;
+                r = r.right;
+            }
+        }
+        return r.leaf.charAt(i);
+    }
+
+    @Override
+    public Rope subSequence(int start, int end) {
+        assert 0 <= start && start <= end && end <= this.length : ""
+                + "Violation of: 0 <= start <= end <= |this|";
+        Rope result;
+        if (start == 0 && end == this.length) {
+            result = this;
+        } else if (start == end) {
+            result = EMPTY;
+        } else if (this.leaf != null) {
+            result = new Rope(this.leaf.substring(start, end));
+        } else if (end <= this.left.length) {
+            result = this.left.subSequence(start, end);
+        } else if (start >= this.left.length) {
+            result = this.right.subSequence(start - this.left.length,
+                    end - this.left.length);
+        } else {
+            result = join(this.left.subSequence(start, this.left.length),
+                    this.right.subSequence(0, end - this.left.length));
+        }
+        return result;
+    }
+
+    /**
+     * Appends the characters of {@code this[start, end)} to {@code out}.
+     *
+     * @param start
+     *            start of the range
+     * @param end
+     *            end of the range
+     * @param out
+     *            the builder receiving the characters
+     * @updates out
+     * @requires 0 <= start <= end <= |this|
+     * @ensures out = #out * this[start, end)
+     */
+    private void appendTo(int start, int end, StringBuilder out) {
+        if (start < end) {
+            if (this.leaf != null) {
+                out.append(this.leaf, start, end);
+            } else {
+                int mid = this.left.length;
+                this.left.appendTo(Math.min(start, mid), Math.min(end, mid),
+                        out);
+                this.right.appendTo(Math.max(start, mid) - mid,
+                        Math.max(end, mid) - mid, out);
+            }
+        }
+    }
+
+    /**
+     * Returns the first {@code k} characters of this rope as a string.
+     *
+     * @param k
+     *            number of characters
+     * @return this[0, k)
+     * @requires 0 <= k <= |this|
+     * @ensures prefix = this[0, k)
+     */
+    public String prefix(int k) {
+        assert 0 <= k && k <= this.length : "Violation of: 0 <= k <= |this|";
+        StringBuilder out = new StringBuilder(k);
+        this.appendTo(0, k, out);
+        return out.toString();
+    }
+
+    /**
+     * Returns the last {@code k} characters of this rope as a string.
+     *
+     * @param k
+     *            number of characters
+     * @return this[|this|-k, |this|)
+     * @requires 0 <= k <= |this|
+     * @ensures suffix = this[|this|-k, |this|)
+     */
+    public String suffix(int k) {
+        assert 0 <= k && k <= this.length : "Violation of: 0 <= k <= |this|";
+        StringBuilder out = new StringBuilder(k);
+        this.appendTo(this.length - k, this.length, out);
+        return out.toString();
+    }
+
+    @Override
+    public String toString() {
+        return this.prefix(this.length);
+    }
+
+}
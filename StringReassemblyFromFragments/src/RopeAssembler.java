@@ -0,0 +1,322 @@
+import java.util.ArrayList;
+import java.util.List;
+
+import components.set.Set;
+
+/**
+ * Greedy assembler that works on {@link Rope}s instead of {@code String}s, so
+ * that each merge costs time logarithmic in the size of the merged strings
+ * instead of copying them; the assembled strings are flattened back into
+ * {@code String}s only once, at the end.
+ *
+ * <p>
+ * Overlaps are computed from a few characters kept from each end of each
+ * rope, with the failure function of the ones at its start, extracted when
+ * the rope is made and again only when a merge elsewhere makes them too
+ * short. No overlap is longer than the rope whose prefix it is, so each rope
+ * keeps only as many characters as the longest other rope has: the one
+ * contig that keeps growing in a typical greedy assembly keeps about a
+ * fragment's worth from each end, not its whole length.
+ *
+ * @author Justin Imber
+ *
+ */
+public final class RopeAssembler {
+
+    /**
+     * Private no-argument constructor to prevent instantiation of this utility
+     * class.
+     */
+    private RopeAssembler() {
+    }
+
+    /**
+     * Reports the maximum length of a common suffix of {@code rope1} and prefix
+     * of {@code rope2}. Only the end of {@code rope1} and the beginning of
+     * {@code rope2} that could take part in an overlap are extracted.
+     *
+     * @param rope1
+     *            first rope
+     * @param rope2
+     *            second rope
+     * @return maximum overlap between right end of {@code rope1} and left end
+     *         of {@code rope2}
+     * @requires <pre>
+     * rope1 is not substring of rope2  and
+     * rope2 is not substring of rope1
+     * </pre>
+     * @ensures <pre>
+     * OVERLAPS(rope1, rope2, overlap)  and
+     * for all k: integer
+     *     where (overlap < k  and  k <= |rope1|  and  k <= |rope2|)
+     *  (not OVERLAPS(rope1, rope2, k))
+     * </pre>
+     */
+    public static int overlap(Rope rope1, Rope rope2) {
+        assert rope1 != null : "Violation of: rope1 is not null";
+        assert rope2 != null : "Violation of: rope2 is not null";
+        int window = Math.min(rope1.length(), rope2.length() - 1);
+        int result = 0;
+        if (window > 0) {
+            result = OverlapKernel.overlap(rope1.suffix(window),
+                    rope2.prefix(window + 1));
+        }
+        return result;
+    }
+
+    /**
+     * A rope with the characters at its two ends held as strings, and the
+     * failure function of the one at its start, so that its overlaps with
+     * other ropes can be computed without extracting anything from it.
+     */
+    private static final class Boundary {
+
+        /**
+         * The rope.
+         */
+        private final Rope rope;
+
+        /**
+         * The first characters of the rope.
+         */
+        private final String head;
+
+        /**
+         * Failure function of {@code head}.
+         */
+        private final int[] failure;
+
+        /**
+         * The last characters of the rope.
+         */
+        private final String tail;
+
+        /**
+         * Constructor.
+         *
+         * @param rope
+         *            the rope
+         * @param headLength
+         *            number of characters to keep from the start of the rope
+         * @param tailLength
+         *            number of characters to keep from the end of the rope
+         * @requires <pre>
+         * 0 <= headLength <= |rope|  and  0 <= tailLength <= |rope|
+         * </pre>
+         */
+        Boundary(Rope rope, int headLength, int tailLength) {
+            this.rope = rope;
+            this.head = rope.prefix(headLength);
+            this.failure = OverlapKernel.failureFunction(this.head);
+            this.tail = rope.suffix(tailLength);
+        }
+
+        /**
+         * Returns this boundary if it keeps at least {@code headLength} and
+         * {@code tailLength} characters, or else a wider one for the same
+         * rope.
+         *
+         * @param headLength
+         *            number of characters needed from the start of the rope
+         * @param tailLength
+         *            number of characters needed from the end of the rope
+         * @return a boundary of the rope keeping at least that many
+         *         characters
+         */
+        Boundary widen(int headLength, int tailLength) {
+            Boundary result = this;
+            if (this.head.length() < headLength
+                    || this.tail.length() < tailLength) {
+                /*
+                 * Keep twice what is needed, so that a rope whose neighbors
+                 * keep growing is not extracted again after every merge
+                 */
+                int length = this.rope.length();
+                result = new Boundary(this.rope,
+                        Math.min(length, 2 * Math.max(headLength,
+                                this.head.length())),
+                        Math.min(length, 2 * Math.max(tailLength,
+                                this.tail.length())));
+            }
+            return result;
+        }
+
+    }
+
+    /**
+     * Returns the overlap of the rope of {@code b1} with the rope of
+     * {@code b2}, computed from their boundaries alone.
+     *
+     * @param b1
+     *            boundary of the first rope
+     * @param b2
+     *            boundary of the second rope
+     * @return maximum overlap between right end of the first rope and left
+     *         end of the second
+     * @requires <pre>
+     * |b1.tail| >= min(|b1.rope|, |b2.rope| - 1)  and
+     * |b2.head| >= min(|b1.rope| + 1, |b2.rope|)
+     * </pre>
+     */
+    private static int overlap(Boundary b1, Boundary b2) {
+        /*
+         * Every overlap of the ropes short enough to be one lies within the
+         * kept characters, and every overlap of those is one of the ropes
+         */
+        return OverlapKernel.overlap(b1.tail, b2.head, b2.failure);
+    }
+
+    /**
+     * Widens each boundary in {@code boundaries} as far as its overlaps with
+     * the others need: an overlap is shorter than the rope whose prefix it is
+     * and no longer than the rope whose suffix it is, so each rope needs no
+     * more characters from either end than one more than the longest other
+     * rope has.
+     *
+     * @param boundaries
+     *            the boundaries
+     * @updates boundaries
+     */
+    private static void widen(List<Boundary> boundaries) {
+        int longest = 0;
+        int secondLongest = 0;
+        for (Boundary b : boundaries) {
+            int length = b.rope.length();
+            if (length > longest) {
+                secondLongest = longest;
+                longest = length;
+            } else if (length > secondLongest) {
+                secondLongest = length;
+            }
+        }
+        for (int i = 0; i < boundaries.size(); i++) {
+            Boundary b = boundaries.get(i);
+            int length = b.rope.length();
+            int longestOther = longest;
+            if (length == longest) {
+                longestOther = secondLongest;
+            }
+            boundaries.set(i, b.widen(Math.min(length, longestOther + 1),
+                    Math.min(length, Math.max(longestOther - 1, 0))));
+        }
+    }
+
+    /**
+     * Returns the longest overlap between the suffix of one rope and the prefix
+     * of another rope in {@code boundaries}, and identifies the positions of
+     * the two ropes that achieve that overlap.
+     *
+     * @param boundaries
+     *            the boundaries of the ropes examined
+     * @param bestTwo
+     *            an array containing (upon return) the positions in
+     *            {@code boundaries} of the two ropes with the largest such
+     *            overlap between the suffix of the first and the prefix of the
+     *            second
+     * @return the amount of overlap between those two ropes
+     * @replaces bestTwo[0], bestTwo[1]
+     * @requires <pre>
+     * CONTAINS_NO_SUBSTRING_PAIRS(ropes of boundaries)  and
+     * [boundaries have been widened]  and
+     * bestTwo.length >= 2
+     * </pre>
+     */
+    private static int bestOverlap(List<Boundary> boundaries, int[] bestTwo) {
+        int bestOverlap = 0;
+        /*
+         * Count the work locally, and record it once for the whole round
+         */
+        long characters = 0;
+        for (int i = 0; i < boundaries.size(); i++) {
+            Boundary bi = boundaries.get(i);
+            for (int j = i + 1; j < boundaries.size(); j++) {
+                Boundary bj = boundaries.get(j);
+                characters += Math.min(bi.tail.length(), bj.head.length() - 1)
+                        + Math.min(bj.tail.length(), bi.head.length() - 1);
+                int overlapFromIToJ = overlap(bi, bj);
+                if (overlapFromIToJ > bestOverlap) {
+                    bestOverlap = overlapFromIToJ;
+                    bestTwo[0] = i;
+                    bestTwo[1] = j;
+                }
+                int overlapFromJToI = overlap(bj, bi);
+                if (overlapFromJToI > bestOverlap) {
+                    bestOverlap = overlapFromJToI;
+                    bestTwo[0] = j;
+                    bestTwo[1] = i;
+                }
+            }
+        }
+        long n = boundaries.size();
+        AssemblyMetrics.global().recordOverlaps(n * (n - 1), characters);
+        return bestOverlap;
+    }
+
+    /**
+     * Combines strings in {@code strSet} as much as possible, leaving in it
+     * only strings that have no overlap between a suffix of one string and a
+     * prefix of another, making the merges
+     * {@link StringReassembly#assemble(Set)} makes, with ties between equal
+     * overlaps broken by the sorted order of the first fragment of each rope,
+     * but merging ropes rather than copying strings.
+     *
+     * @param strSet
+     *            set of strings
+     * @updates strSet
+     * @requires CONTAINS_NO_SUBSTRING_PAIRS(strSet)
+     * @ensures <pre>
+     * ALL_SUPERSTRINGS(strSet) is subset of ALL_SUPERSTRINGS(#strSet)  and
+     * |strSet| <= |#strSet|  and
+     * CONTAINS_NO_SUBSTRING_PAIRS(strSet)  and
+     * CONTAINS_NO_OVERLAPPING_PAIRS(strSet)
+     * </pre>
+     */
+    public static void assemble(Set<String> strSet) {
+        assert strSet != null : "Violation of: strSet is not null";
+        /*
+         * Note: Precondition not checked!
+         */
+        List<Boundary> boundaries = new ArrayList<>();
+        for (String str : OverlapGraphAssembler.snapshot(strSet)) {
+            boundaries.add(new Boundary(Rope.valueOf(str), 0, 0));
+        }
+        boolean done = false;
+        while ((boundaries.size() > 1) && !done) {
+            widen(boundaries);
+            int[] bestTwo = new int[2];
+            long start = System.nanoTime();
+            int bestOverlap = bestOverlap(boundaries, bestTwo);
+            AssemblyMetrics.global().recordRound(System.nanoTime() - start);
+            if (bestOverlap == 0) {
+                /*
+                 * No overlapping ropes remain; can't do any more
+                 */
+                done = true;
+            } else {
+                /*
+                 * Replace the two most-overlapping ropes with their
+                 * combination, dropping the overlap from the front of the
+                 * second one; the combination takes the place of the first,
+                 * which it starts with, and the second is removed, shifting
+                 * the ropes after it, so the ropes stay in the sorted order
+                 * of their first fragments (a shift costs far less than the
+                 * scan of all pairs that found the merge)
+                 */
+                Rope first = boundaries.get(bestTwo[0]).rope;
+                Rope second = boundaries.get(bestTwo[1]).rope;
+                Rope overlapped = first.concat(
+                        second.subSequence(bestOverlap, second.length()));
+                boundaries.set(bestTwo[0], new Boundary(overlapped, 0, 0));
+                boundaries.remove(bestTwo[1]);
+                AssemblyMetrics.global().recordMerge();
+            }
+        }
+        /*
+         * Flatten the assembled ropes
+         */
+        for (Boundary b : boundaries) {
+            strSet.add(b.rope.toString());
+        }
+    }
+
+}
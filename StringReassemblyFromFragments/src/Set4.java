@@ -0,0 +1,381 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import components.set.Set;
+import components.set.SetSecondary;
+
+/**
+ * {@code Set} represented as an open-addressing hash table with linear
+ * probing, with implementations of primary methods that all take constant
+ * expected time.
+ *
+ * <p>
+ * The elements themselves are kept, together with their (cached) hash codes,
+ * in a dense array; the hash table holds only positions in that array. This
+ * makes {@code removeAny} and iteration cheap, and means that growing the
+ * table never has to call {@code hashCode} again.
+ *
+ * @param <T>
+ *            type of {@code Set} entries
+ * @mathdefinitions <pre>
+ * IS_INDEXED (
+ *   table: string of integer,
+ *   entries: string of T,
+ *   hashes: string of integer,
+ *   size: integer
+ *  ) : boolean is
+ *  for all i: integer where (0 <= i < size)
+ *   (hashes[i] = MIX(entries[i].hashCode())  and
+ *    exactly one slot s of table has table[s] = i + 1, and every slot
+ *    probed from hashes[i] mod |table| up to s is non-zero)  and
+ *  every non-zero slot of table has value in [1, size]
+ * </pre>
+ * @convention <pre>
+ * |$this.table| is a power of 2  and  2 * $this.size <= |$this.table|  and
+ * |$this.entries| = |$this.hashes|  and  $this.size <= |$this.entries|  and
+ * entries of $this.entries[0, $this.size) are distinct and not null  and
+ * IS_INDEXED($this.table, $this.entries, $this.hashes, $this.size)
+ * </pre>
+ * @correspondence this = entries($this.entries[0, $this.size))
+ *
+ * @author Justin Imber
+ *
+ */
+public class Set4<T> extends SetSecondary<T> {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Initial number of slots in the hash table.
+     */
+    private static final int INITIAL_TABLE_SIZE = 16;
+
+    /**
+     * Hash table of positions in {@code entries}, plus one; 0 marks an empty
+     * slot.
+     */
+    private int[] table;
+
+    /**
+     * Elements of this set, in positions [0, size).
+     */
+    private Object[] entries;
+
+    /**
+     * Cached (mixed) hash codes of the elements in {@code entries}.
+     */
+    private int[] hashes;
+
+    /**
+     * Number of elements in this set.
+     */
+    private int size;
+
+    /**
+     * Spreads the bits of {@code h} so that hash codes differing only in their
+     * high bits do not collide in a small table.
+     *
+     * @param h
+     *            a hash code
+     * @return the mixed hash code
+     */
+    private static int mix(int h) {
+        final int multiplier = 0x9E3779B9;
+        final int shift = 16;
+        int m = h * multiplier;
+        return m ^ (m >>> shift);
+    }
+
+    /**
+     * Finds the slot of {@code table} holding {@code x}, or the empty slot
+     * where {@code x} would be added.
+     *
+     * @param x
+     *            the element to look for
+     * @param hash
+     *            mixed hash code of {@code x}
+     * @return slot of {@code x}, or empty slot for it
+     */
+    private int findSlot(Object x, int hash) {
+        int mask = this.table.length - 1;
+        int slot = hash & mask;
+        boolean found = false;
+        while (!found && this.table[slot] != 0) {
+            int e = this.table[slot] - 1;
+            if (this.hashes[e] == hash && this.entries[e].equals(x)) {
+                found = true;
+            } else {
+                slot = (slot + 1) & mask;
+            }
+        }
+        return slot;
+    }
+
+    /**
+     * Finds the slot of {@code table} holding position {@code e} of
+     * {@code entries}.
+     *
+     * @param e
+     *            position in {@code entries}
+     * @return slot of {@code e}
+     */
+    private int slotOfPosition(int e) {
+        int mask = this.table.length - 1;
+        int slot = this.hashes[e] & mask;
+        while (this.table[slot] != e + 1) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Rebuilds the hash table with {@code tableSize} slots.
+     *
+     * @param tableSize
+     *            new number of slots
+     */
+    private void rehash(int tableSize) {
+        this.table = new int[tableSize];
+        int mask = tableSize - 1;
+        for (int e = 0; e < this.size; e++) {
+            int slot = this.hashes[e] & mask;
+            while (this.table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            this.table[slot] = e + 1;
+        }
+    }
+
+    /**
+     * Empties slot {@code hole} of {@code table}, moving later entries of its
+     * probe run back so that no lookup is cut short by the new empty slot.
+     *
+     * @param hole
+     *            slot to empty
+     */
+    private void deleteSlot(int hole) {
+        int mask = this.table.length - 1;
+        int i = hole;
+        int j = (i + 1) & mask;
+        while (this.table[j] != 0) {
+            int home = this.hashes[this.table[j] - 1] & mask;
+            /*
+             * The entry in slot j may move back to slot i only if its home
+             * slot is not cyclically within (i, j]
+             */
+            boolean homeInRange;
+            if (i <= j) {
+                homeInRange = i < home && home <= j;
+            } else {
+                homeInRange = i < home || home <= j;
+            }
+            if (!homeInRange) {
+                this.table[i] = this.table[j];
+                i = j;
+            }
+            j = (j + 1) & mask;
+        }
+        this.table[i] = 0;
+    }
+
+    /**
+     * Removes the element at position {@code e} of {@code entries}, whose
+     * table slot is {@code slot}.
+     *
+     * @param e
+     *            position in {@code entries}
+     * @param slot
+     *            slot of {@code e}
+     * @return the element removed
+     */
+    @SuppressWarnings("unchecked")
+    private T removeAt(int e, int slot) {
+        T removed = (T) this.entries[e];
+        this.deleteSlot(slot);
+        int last = this.size - 1;
+        if (e != last) {
+            /*
+             * Fill the gap in entries with the last element
+             */
+            this.table[this.slotOfPosition(last)] = e + 1;
+            this.entries[e] = this.entries[last];
+            this.hashes[e] = this.hashes[last];
+        }
+        this.entries[last] = null;
+        this.size = last;
+        return removed;
+    }
+
+    /**
+     * Creator of initial representation.
+     */
+    private void createNewRep() {
+        this.table = new int[INITIAL_TABLE_SIZE];
+        this.entries = new Object[INITIAL_TABLE_SIZE / 2];
+        this.hashes = new int[INITIAL_TABLE_SIZE / 2];
+        this.size = 0;
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * No-argument constructor.
+     */
+    public Set4() {
+        this.createNewRep();
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final Set<T> newInstance() {
+        try {
+            return this.getClass().getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.createNewRep();
+    }
+
+    @Override
+    public final void transferFrom(Set<T> source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof Set4<?> : ""
+                + "Violation of: source is of dynamic type Set4<?>";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type Set4<?>, and
+         * the ? must be T or the call would not have compiled.
+         */
+        Set4<T> localSource = (Set4<T>) source;
+        this.table = localSource.table;
+        this.entries = localSource.entries;
+        this.hashes = localSource.hashes;
+        this.size = localSource.size;
+        localSource.createNewRep();
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final void add(T x) {
+        assert x != null : "Violation of: x is not null";
+        assert !this.contains(x) : "Violation of: x is not in this";
+
+        if (2 * (this.size + 1) > this.table.length) {
+            this.rehash(2 * this.table.length);
+        }
+        if (this.size == this.entries.length) {
+            Object[] biggerEntries = new Object[2 * this.size];
+            int[] biggerHashes = new int[2 * this.size];
+            System.arraycopy(this.entries, 0, biggerEntries, 0, this.size);
+            System.arraycopy(this.hashes, 0, biggerHashes, 0, this.size);
+            this.entries = biggerEntries;
+            this.hashes = biggerHashes;
+        }
+        int hash = mix(x.hashCode());
+        int slot = this.findSlot(x, hash);
+        this.entries[this.size] = x;
+        this.hashes[this.size] = hash;
+        this.size++;
+        this.table[slot] = this.size;
+    }
+
+    @Override
+    public final T remove(T x) {
+        assert x != null : "Violation of: x is not null";
+        assert this.contains(x) : "Violation of: x is in this";
+
+        int slot = this.findSlot(x, mix(x.hashCode()));
+        return this.removeAt(this.table[slot] - 1, slot);
+    }
+
+    @Override
+    public final T removeAny() {
+        assert this.size() > 0 : "Violation of: this /= empty_set";
+
+        int last = this.size - 1;
+        return this.removeAt(last, this.slotOfPosition(last));
+    }
+
+    @Override
+    public final boolean contains(T x) {
+        assert x != null : "Violation of: x is not null";
+
+        int slot = this.findSlot(x, mix(x.hashCode()));
+        return this.table[slot] != 0;
+    }
+
+    @Override
+    public final int size() {
+        return this.size;
+    }
+
+    @Override
+    public final Iterator<T> iterator() {
+        return new Set4Iterator();
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for {@code Set4}.
+     */
+    private final class Set4Iterator implements Iterator<T> {
+
+        /**
+         * Position in {@code entries} of the next element.
+         */
+        private int next;
+
+        /**
+         * No-argument constructor.
+         */
+        private Set4Iterator() {
+            this.next = 0;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.next < Set4.this.size;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public T next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            T x = (T) Set4.this.entries[this.next];
+            this.next++;
+            return x;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+
+    }
+
+}
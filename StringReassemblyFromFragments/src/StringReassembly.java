@@ -1,5 +1,14 @@
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 import components.set.Set;
-import components.set.Set1L;
 import components.simplereader.SimpleReader;
 import components.simplereader.SimpleReader1L;
 import components.simplewriter.SimpleWriter;
@@ -62,6 +71,41 @@ import components.simplewriter.SimpleWriter1L;
  */
 public final class StringReassembly {
 
+    /**
+     * System property naming the checkpoint file {@link #main} saves to and
+     * resumes from.
+     */
+    public static final String CHECKPOINT_PROPERTY = ""
+            + "stringreassembly.checkpoint";
+
+    /**
+     * System property giving the time between checkpoints, in seconds.
+     */
+    public static final String CHECKPOINT_INTERVAL_PROPERTY = ""
+            + "stringreassembly.checkpoint.interval";
+
+    /**
+     * Default time between checkpoints, in seconds.
+     */
+    private static final long DEFAULT_CHECKPOINT_INTERVAL = 60;
+
+    /**
+     * System property naming the overlap cache file {@link #main} uses.
+     */
+    public static final String OVERLAP_CACHE_PROPERTY = ""
+            + "stringreassembly.overlapcache";
+
+    /**
+     * System property giving the number of entries in a new overlap cache.
+     */
+    public static final String OVERLAP_CACHE_ENTRIES_PROPERTY = ""
+            + "stringreassembly.overlapcache.entries";
+
+    /**
+     * Default number of entries in a new overlap cache (48 MiB on disk).
+     */
+    private static final int DEFAULT_OVERLAP_CACHE_ENTRIES = 1 << 20;
+
     /**
      * Private no-argument constructor to prevent instantiation of this utility
      * class.
@@ -98,16 +142,13 @@ public final class StringReassembly {
         assert str1.indexOf(str2) < 0 : "Violation of: "
                 + "str2 is not substring of str1";
         /*
-         * Start with maximum possible overlap and work down until a match is
-         * found; think about it and try it on some examples to see why
-         * iterating in the other direction doesn't work
+         * Scan the end of str1 for the longest prefix of str2 in one linear
+         * pass, rather than trying each possible overlap from the largest
+         * down with regionMatches
          */
-        int maxOverlap = str2.length() - 1;
-        while (!str1.regionMatches(str1.length() - maxOverlap, str2, 0,
-                maxOverlap)) {
-            maxOverlap--;
-        }
-        return maxOverlap;
+        AssemblyMetrics.global().recordOverlap(
+                Math.min(str1.length(), Math.max(str2.length() - 1, 0)));
+        return OverlapKernel.overlap(str1, str2);
     }
 
     /**
@@ -244,21 +285,81 @@ public final class StringReassembly {
     public static Set<String> linesFromInput(SimpleReader input) {
         assert input != null : "Violation of: input is not null";
         assert input.isOpen() : "Violation of: input.is_open";
+        return linesFromInput(input, false);
+    }
+
+    /**
+     * Returns the set of all individual lines read from {@code input}, except
+     * that any line that is a substring of another is not in the returned set,
+     * exactly as {@link #linesFromInput(SimpleReader)} does, but with the
+     * containment checks split between threads (see
+     * {@link ContainmentFilter#maximalIndicesInParallel(CharSequence[])}).
+     *
+     * @param input
+     *            source of strings, one per line
+     * @return set of lines read from {@code input}
+     * @requires input.is_open
+     * @ensures <pre>
+     * input.is_open  and  input.content = <>  and
+     * linesFromInputInParallel =
+     *   [maximal set of lines from #input.content such that
+     *    CONTAINS_NO_SUBSTRING_PAIRS(linesFromInputInParallel)]
+     * </pre>
+     */
+    public static Set<String> linesFromInputInParallel(SimpleReader input) {
+        assert input != null : "Violation of: input is not null";
+        assert input.isOpen() : "Violation of: input.is_open";
+        return linesFromInput(input, true);
+    }
 
-        // creation of variable for storing the next line within input
-        String potentialAddition = "";
-        // creation of the set for the set of strings to be returned by method
-        Set<String> strSet = new Set1L<>();
+    /**
+     * Reads the lines of {@code input} and returns the set of those that are
+     * not substrings of others.
+     *
+     * @param input
+     *            source of strings, one per line
+     * @param parallel
+     *            whether to split the containment checks between threads
+     * @return set of lines read from {@code input}
+     * @requires input.is_open
+     * @ensures <pre>
+     * input.is_open  and  input.content = <>  and
+     * linesFromInput = [maximal set of lines from #input.content such that
+     *                   CONTAINS_NO_SUBSTRING_PAIRS(linesFromInput)]
+     * </pre>
+     */
+    private static Set<String> linesFromInput(SimpleReader input,
+            boolean parallel) {
+        long start = System.nanoTime();
+
+        // list of every line within input, in order
+        List<String> lines = new ArrayList<>();
         // runs until input reaches the end of its stream
         while (!input.atEOS()) {
-            // represents string which is the next line of input
-            potentialAddition = input.nextLine();
-            /*
-             * calls method to add the string to the set if it isn't a substring
-             * or already in the set
-             */
-            addToSetAvoidingSubstrings(strSet, potentialAddition);
+            lines.add(input.nextLine());
+        }
+        /*
+         * finds all lines that are not substrings of other lines at once,
+         * rather than calling addToSetAvoidingSubstrings for each line
+         */
+        String[] lineArray = lines.toArray(new String[lines.size()]);
+        int[] maximal;
+        if (parallel) {
+            maximal = ContainmentFilter.maximalIndicesInParallel(lineArray);
+        } else {
+            maximal = ContainmentFilter.maximalIndices(lineArray);
+        }
+        /*
+         * creation of the set for the set of strings to be returned by method;
+         * a hash table keeps contains, remove, and removeAny constant-time
+         * during assembly
+         */
+        Set<String> strSet = new Set4<>();
+        for (int i : maximal) {
+            strSet.add(lineArray[i]);
         }
+        AssemblyMetrics.global().recordLinesFromInput(lineArray.length,
+                System.nanoTime() - start);
 
         return strSet;
     }
@@ -298,17 +399,27 @@ public final class StringReassembly {
          * Note: Rest of precondition not checked!
          */
         int bestOverlap = 0;
+        /*
+         * Count the work locally, and record it once for the whole round
+         */
+        long calls = 0;
+        long characters = 0;
         Set<String> processed = strSet.newInstance();
         while (strSet.size() > 0) {
             /*
              * Remove one string from strSet to check against all others
              */
             String str0 = strSet.removeAny();
+            /*
+             * str0 is the second argument of half of the overlap checks below,
+             * so compute its failure function just once
+             */
+            int[] failure0 = OverlapKernel.failureFunction(str0);
             for (String str1 : strSet) {
                 /*
                  * Check str0 and str1 for overlap first in one order...
                  */
-                int overlapFrom0To1 = overlap(str0, str1);
+                int overlapFrom0To1 = OverlapKernel.overlap(str0, str1);
                 if (overlapFrom0To1 > bestOverlap) {
                     /*
                      * Update best overlap found so far, and the two strings
@@ -321,7 +432,8 @@ public final class StringReassembly {
                 /*
                  * ... and then in the other order
                  */
-                int overlapFrom1To0 = overlap(str1, str0);
+                int overlapFrom1To0 = OverlapKernel.overlap(str1, str0,
+                        failure0);
                 if (overlapFrom1To0 > bestOverlap) {
                     /*
                      * Update best overlap found so far, and the two strings
@@ -331,6 +443,9 @@ public final class StringReassembly {
                     bestTwo[0] = str1;
                     bestTwo[1] = str0;
                 }
+                calls += 2;
+                characters += Math.min(str0.length(), str1.length() - 1)
+                        + Math.min(str1.length(), str0.length() - 1);
             }
             /*
              * Record that str0 has been checked against every other string in
@@ -338,6 +453,7 @@ public final class StringReassembly {
              */
             processed.add(str0);
         }
+        AssemblyMetrics.global().recordOverlaps(calls, characters);
         /*
          * Restore strSet and return best overlap
          */
@@ -373,7 +489,9 @@ public final class StringReassembly {
         boolean done = false;
         while ((strSet.size() > 1) && !done) {
             String[] bestTwo = new String[2];
+            long start = System.nanoTime();
             int bestOverlap = bestOverlap(strSet, bestTwo);
+            AssemblyMetrics.global().recordRound(System.nanoTime() - start);
             if (bestOverlap == 0) {
                 /*
                  * No overlapping strings remain; can't do any more
@@ -391,7 +509,468 @@ public final class StringReassembly {
                 String overlapped = combination(bestTwo[0], bestTwo[1],
                         bestOverlap);
                 strSet.add(overlapped);
+                AssemblyMetrics.global().recordMerge();
+            }
+        }
+    }
+
+    /**
+     * Returns the best-scoring approximate overlap, with at most
+     * {@code maxErrors} edits, between the suffix of one string and the
+     * prefix of another string in {@code strSet}, and identifies the two
+     * strings that achieve it. Overlaps are ranked by
+     * {@link ApproximateOverlap#score(int, int)}, so an exact overlap beats
+     * an approximate one of about the same length.
+     *
+     * @param strSet
+     *            the set of strings examined
+     * @param bestTwo
+     *            an array containing (upon return) the two strings with the
+     *            best-scoring such overlap between the suffix of
+     *            {@code bestTwo[0]} and the prefix of {@code bestTwo[1]}
+     * @param maxErrors
+     *            largest number of edits allowed in an overlap
+     * @return the amount of overlap between those two strings
+     * @replaces bestTwo[0], bestTwo[1]
+     * @requires <pre>
+     * CONTAINS_NO_SUBSTRING_PAIRS(strSet)  and
+     * bestTwo.length >= 2  and  maxErrors >= 0
+     * </pre>
+     * @ensures <pre>
+     * bestTwo[0] is in strSet  and
+     * bestTwo[1] is in strSet  and
+     * bestOverlap = ApproximateOverlap.overlap(bestTwo[0], bestTwo[1],
+     *                                          maxErrors)  and
+     * for all str1, str2: string of character
+     *     where (str1 is in strSet  and  str2 is in strSet  and
+     *            str1 /= str2)
+     *   (SCORE(str1, str2, ApproximateOverlap.overlap(str1, str2, maxErrors))
+     *    <= SCORE(bestTwo[0], bestTwo[1], bestOverlap))
+     * </pre>
+     */
+    private static int bestApproximateOverlap(Set<String> strSet,
+            String[] bestTwo, int maxErrors) {
+        assert strSet != null : "Violation of: strSet is not null";
+        assert bestTwo != null : "Violation of: bestTwo is not null";
+        assert bestTwo.length >= 2 : "Violation of: bestTwo.length >= 2";
+        /*
+         * Note: Rest of precondition not checked!
+         */
+        int bestOverlap = 0;
+        int bestScore = 0;
+        int[] edits = new int[1];
+        long calls = 0;
+        long characters = 0;
+        Set<String> processed = strSet.newInstance();
+        while (strSet.size() > 0) {
+            String str0 = strSet.removeAny();
+            for (String str1 : strSet) {
+                int overlapFrom0To1 = ApproximateOverlap.overlapAbove(str0,
+                        str1, maxErrors, edits, bestScore);
+                int score = ApproximateOverlap.score(overlapFrom0To1,
+                        edits[0]);
+                if (score > bestScore) {
+                    bestOverlap = overlapFrom0To1;
+                    bestScore = score;
+                    bestTwo[0] = str0;
+                    bestTwo[1] = str1;
+                }
+                int overlapFrom1To0 = ApproximateOverlap.overlapAbove(str1,
+                        str0, maxErrors, edits, bestScore);
+                score = ApproximateOverlap.score(overlapFrom1To0, edits[0]);
+                if (score > bestScore) {
+                    bestOverlap = overlapFrom1To0;
+                    bestScore = score;
+                    bestTwo[0] = str1;
+                    bestTwo[1] = str0;
+                }
+                calls += 2;
+                characters += Math.min(str0.length(), str1.length() + maxErrors)
+                        + Math.min(str1.length(), str0.length() + maxErrors);
+            }
+            processed.add(str0);
+        }
+        AssemblyMetrics.global().recordOverlaps(calls, characters);
+        strSet.transferFrom(processed);
+        return bestOverlap;
+    }
+
+    /**
+     * Combines strings in {@code strSet} as much as possible, as
+     * {@link #assemble(Set)} does, but also counting as an overlap a suffix of
+     * one string and a prefix of another that differ by at most
+     * {@code maxErrors} edits (see {@link ApproximateOverlap}), so that
+     * fragments with a few corrupted characters are still combined. The pair
+     * with the best-scoring overlap is combined first, an edit costing
+     * {@value ApproximateOverlap#CHARS_PER_EDIT} characters of overlap, so
+     * exact overlaps are preferred. Where the two copies of an overlap differ,
+     * the copy from the string on the left is kept. With
+     * {@code maxErrors = 0} this is exactly {@link #assemble(Set)}.
+     *
+     * @param strSet
+     *            set of strings
+     * @param maxErrors
+     *            largest number of edits allowed in an overlap
+     * @updates strSet
+     * @requires <pre>
+     * CONTAINS_NO_SUBSTRING_PAIRS(strSet)  and  maxErrors >= 0
+     * </pre>
+     * @ensures <pre>
+     * |strSet| <= |#strSet|  and
+     * for all t1, t2: string of character
+     *     where (t1 /= t2  and  t1 is in strSet  and  t2 is in strSet)
+     *   (ApproximateOverlap.overlap(t1, t2, maxErrors) = 0)
+     * </pre>
+     */
+    public static void assemble(Set<String> strSet, int maxErrors) {
+        assert strSet != null : "Violation of: strSet is not null";
+        assert maxErrors >= 0 : "Violation of: maxErrors >= 0";
+        /*
+         * Note: Rest of precondition not checked!
+         */
+        boolean done = false;
+        while ((strSet.size() > 1) && !done) {
+            String[] bestTwo = new String[2];
+            long start = System.nanoTime();
+            int bestOverlap = bestApproximateOverlap(strSet, bestTwo,
+                    maxErrors);
+            AssemblyMetrics.global().recordRound(System.nanoTime() - start);
+            if (bestOverlap == 0) {
+                done = true;
+            } else {
+                strSet.remove(bestTwo[0]);
+                strSet.remove(bestTwo[1]);
+                String overlapped = ApproximateOverlap.combination(bestTwo[0],
+                        bestTwo[1], bestOverlap);
+                /*
+                 * Unlike an exact combination, this one need not contain
+                 * bestTwo[1], so it may now contain (or be contained in)
+                 * another string
+                 */
+                addToSetAvoidingSubstrings(strSet, overlapped);
+                AssemblyMetrics.global().recordMerge();
+            }
+        }
+    }
+
+    /**
+     * Combines strings in {@code strSet} as much as possible, exactly as
+     * {@link #assemble(Set)} does, but saving the working set to
+     * {@code checkpoint} whenever at least {@code intervalMillis} milliseconds
+     * have passed since the last save, so that an interrupted run can resume
+     * from the checkpoint. The checkpoint file is deleted once assembly is
+     * complete.
+     *
+     * @param strSet
+     *            set of strings
+     * @param checkpoint
+     *            the checkpoint file
+     * @param intervalMillis
+     *            smallest time between two checkpoints, in milliseconds
+     * @throws IOException
+     *             if a checkpoint cannot be written
+     * @updates strSet
+     * @requires <pre>
+     * CONTAINS_NO_SUBSTRING_PAIRS(strSet)  and  intervalMillis >= 0
+     * </pre>
+     * @ensures <pre>
+     * ALL_SUPERSTRINGS(strSet) is subset of ALL_SUPERSTRINGS(#strSet)  and
+     * |strSet| <= |#strSet|  and
+     * CONTAINS_NO_SUBSTRING_PAIRS(strSet)  and
+     * CONTAINS_NO_OVERLAPPING_PAIRS(strSet)
+     * </pre>
+     */
+    public static void assemble(Set<String> strSet,
+            AssemblyCheckpoint checkpoint, long intervalMillis)
+            throws IOException {
+        assert strSet != null : "Violation of: strSet is not null";
+        assert checkpoint != null : "Violation of: checkpoint is not null";
+        assert intervalMillis >= 0 : "Violation of: intervalMillis >= 0";
+        /*
+         * Note: Rest of precondition not checked!
+         */
+        assembleGreedily(strSet, null, checkpoint, intervalMillis);
+    }
+
+    /**
+     * Reports the overlap of {@code str1} with {@code str2}, taking it from
+     * {@code cache} if it is there, and otherwise computing it and adding it
+     * to {@code cache}. The cache tells pairs apart by two independent hashes
+     * and the lengths of the strings, and a cached value is used only if
+     * {@code str1} really ends with that many characters from the start of
+     * {@code str2}; a wrong value, which would make a wrong merge or miss a
+     * longer overlap, therefore needs both hashes of strings of the same
+     * lengths to collide at once.
+     *
+     * @param str1
+     *            first string
+     * @param key1
+     *            cache key of {@code str1}
+     * @param str2
+     *            second string
+     * @param key2
+     *            cache key of {@code str2}
+     * @param cache
+     *            the overlap cache
+     * @param work
+     *            the numbers of overlaps computed and of characters they
+     *            scanned, to which those of this call, if any, are added
+     * @return maximum overlap between right end of {@code str1} and left end of
+     *         {@code str2}
+     * @updates cache, work[0], work[1]
+     * @requires <pre>
+     * |work| >= 2  and
+     * key1 = OverlapCache.Key.of(str1)  and
+     * key2 = OverlapCache.Key.of(str2)  and
+     * str1 is not substring of str2  and
+     * str2 is not substring of str1
+     * </pre>
+     * @ensures <pre>
+     * OVERLAPS(str1, str2, cachedOverlap)  and
+     * for all k: integer
+     *     where (cachedOverlap < k  and  k <= |str1|  and  k <= |str2|)
+     *  (not OVERLAPS(str1, str2, k))
+     * </pre>
+     */
+    private static int cachedOverlap(String str1, OverlapCache.Key key1,
+            String str2, OverlapCache.Key key2, OverlapCache cache,
+            long[] work) {
+        int overlap = cache.get(key1, key2);
+        if (overlap == OverlapCache.MISSING || overlap >= str2.length()
+                || overlap > str1.length()
+                || !str1.regionMatches(str1.length() - overlap, str2, 0,
+                        overlap)) {
+            overlap = OverlapKernel.overlap(str1, str2);
+            cache.put(key1, key2, overlap);
+            work[0]++;
+            work[1] += Math.min(str1.length(), str2.length() - 1);
+        }
+        return overlap;
+    }
+
+    /**
+     * Returns the longest overlap between the suffix of one string and the
+     * prefix of another string in {@code strSet}, and identifies the two
+     * strings that achieve that overlap, exactly as
+     * {@link #bestOverlap(Set, String[])} does, visiting the pairs in the same
+     * order and leaving {@code strSet} in the same order, but looking up each
+     * pair in {@code cache} first. The cache key of each string is computed
+     * once per call.
+     *
+     * @param strSet
+     *            the set of strings examined
+     * @param bestTwo
+     *            an array containing (upon return) the two strings with the
+     *            largest such overlap between the suffix of {@code bestTwo[0]}
+     *            and the prefix of {@code bestTwo[1]}
+     * @param cache
+     *            the overlap cache
+     * @return the amount of overlap between those two strings
+     * @replaces bestTwo[0], bestTwo[1]
+     * @updates cache
+     * @requires <pre>
+     * CONTAINS_NO_SUBSTRING_PAIRS(strSet)  and
+     * bestTwo.length >= 2
+     * </pre>
+     * @ensures <pre>
+     * bestTwo[0] is in strSet  and
+     * bestTwo[1] is in strSet  and
+     * OVERLAPS(bestTwo[0], bestTwo[1], bestOverlap)  and
+     * for all str1, str2: string of character, overlap: integer
+     *     where (str1 is in strSet  and  str2 is in strSet  and
+     *            OVERLAPS(str1, str2, overlap))
+     *   (overlap <= bestOverlap)
+     * </pre>
+     */
+    private static int bestOverlap(Set<String> strSet, String[] bestTwo,
+            OverlapCache cache) {
+        Map<String, OverlapCache.Key> keys = new HashMap<>();
+        for (String str : strSet) {
+            keys.put(str, OverlapCache.Key.of(str));
+        }
+        int bestOverlap = 0;
+        long[] work = new long[2];
+        Set<String> processed = strSet.newInstance();
+        while (strSet.size() > 0) {
+            /*
+             * Remove one string from strSet to check against all others, as
+             * the uncached scan does, so that ties resolve the same way
+             */
+            String str0 = strSet.removeAny();
+            OverlapCache.Key key0 = keys.get(str0);
+            for (String str1 : strSet) {
+                OverlapCache.Key key1 = keys.get(str1);
+                int overlapFrom0To1 = cachedOverlap(str0, key0, str1, key1,
+                        cache, work);
+                if (overlapFrom0To1 > bestOverlap) {
+                    bestOverlap = overlapFrom0To1;
+                    bestTwo[0] = str0;
+                    bestTwo[1] = str1;
+                }
+                int overlapFrom1To0 = cachedOverlap(str1, key1, str0, key0,
+                        cache, work);
+                if (overlapFrom1To0 > bestOverlap) {
+                    bestOverlap = overlapFrom1To0;
+                    bestTwo[0] = str1;
+                    bestTwo[1] = str0;
+                }
+            }
+            processed.add(str0);
+        }
+        strSet.transferFrom(processed);
+        AssemblyMetrics.global().recordOverlaps(work[0], work[1]);
+        return bestOverlap;
+    }
+
+    /**
+     * Combines strings in {@code strSet} as much as possible, exactly as
+     * {@link #assemble(Set)} does, but keeping the overlap of every pair it
+     * computes in {@code cache}, where later rounds and later runs on largely
+     * the same fragments look it up. Looking up the overlap of two short
+     * fragments costs about as much as computing it, so this saves little
+     * over {@link #assemble(Set)}; the overlap-graph engines, which compute
+     * each overlap just once, are far faster than either.
+     *
+     * @param strSet
+     *            set of strings
+     * @param cache
+     *            the overlap cache
+     * @updates strSet, cache
+     * @requires CONTAINS_NO_SUBSTRING_PAIRS(strSet)
+     * @ensures <pre>
+     * ALL_SUPERSTRINGS(strSet) is subset of ALL_SUPERSTRINGS(#strSet)  and
+     * |strSet| <= |#strSet|  and
+     * CONTAINS_NO_SUBSTRING_PAIRS(strSet)  and
+     * CONTAINS_NO_OVERLAPPING_PAIRS(strSet)
+     * </pre>
+     */
+    public static void assemble(Set<String> strSet, OverlapCache cache) {
+        assert strSet != null : "Violation of: strSet is not null";
+        assert cache != null : "Violation of: cache is not null";
+        /*
+         * Note: Precondition not checked!
+         */
+        try {
+            assembleGreedily(strSet, cache, null, 0);
+        } catch (IOException e) {
+            /*
+             * Only writing a checkpoint can fail, and there is none
+             */
+            throw new AssertionError(e);
+        }
+    }
+
+    /**
+     * The greedy assembly loop of {@link #assemble(Set)}, optionally looking
+     * up overlaps in {@code cache} and optionally saving the working set to
+     * {@code checkpoint} whenever at least {@code intervalMillis}
+     * milliseconds have passed since the last save; the checkpoint file is
+     * deleted once assembly is complete.
+     *
+     * @param strSet
+     *            set of strings
+     * @param cache
+     *            the overlap cache, or {@code null} for none
+     * @param checkpoint
+     *            the checkpoint file, or {@code null} for none
+     * @param intervalMillis
+     *            smallest time between two checkpoints, in milliseconds
+     * @throws IOException
+     *             if a checkpoint cannot be written
+     * @updates strSet, cache
+     * @requires <pre>
+     * CONTAINS_NO_SUBSTRING_PAIRS(strSet)  and  intervalMillis >= 0
+     * </pre>
+     * @ensures <pre>
+     * ALL_SUPERSTRINGS(strSet) is subset of ALL_SUPERSTRINGS(#strSet)  and
+     * |strSet| <= |#strSet|  and
+     * CONTAINS_NO_SUBSTRING_PAIRS(strSet)  and
+     * CONTAINS_NO_OVERLAPPING_PAIRS(strSet)
+     * </pre>
+     */
+    private static void assembleGreedily(Set<String> strSet,
+            OverlapCache cache, AssemblyCheckpoint checkpoint,
+            long intervalMillis) throws IOException {
+        final long intervalNanos = intervalMillis * 1000000L;
+        long lastCheckpoint = System.nanoTime();
+        boolean done = false;
+        while ((strSet.size() > 1) && !done) {
+            String[] bestTwo = new String[2];
+            long start = System.nanoTime();
+            int bestOverlap;
+            if (cache == null) {
+                bestOverlap = bestOverlap(strSet, bestTwo);
+            } else {
+                bestOverlap = bestOverlap(strSet, bestTwo, cache);
+            }
+            AssemblyMetrics.global().recordRound(System.nanoTime() - start);
+            if (bestOverlap == 0) {
+                done = true;
+            } else {
+                strSet.remove(bestTwo[0]);
+                strSet.remove(bestTwo[1]);
+                String overlapped = combination(bestTwo[0], bestTwo[1],
+                        bestOverlap);
+                strSet.add(overlapped);
+                AssemblyMetrics.global().recordMerge();
+                if (checkpoint != null && System.nanoTime()
+                        - lastCheckpoint >= intervalNanos) {
+                    checkpoint.write(strSet);
+                    lastCheckpoint = System.nanoTime();
+                }
+            }
+        }
+        if (checkpoint != null) {
+            checkpoint.delete();
+        }
+    }
+
+    /**
+     * Combines strings in {@code strSet} as much as possible, leaving in it
+     * only strings that have no overlap between a suffix of one string and a
+     * prefix of another. Works in rounds: each round scores all pairs once,
+     * then makes, best overlap first, every merge whose two ends are still
+     * free, exactly as {@link #assemble(Set)} would pick them; rounds repeat
+     * until one makes no merge. Since a merge never changes the overlaps of
+     * the merged strings with the others, the first round usually makes every
+     * merge, and the second only confirms that none is left.
+     *
+     * @param strSet
+     *            set of strings
+     * @updates strSet
+     * @requires CONTAINS_NO_SUBSTRING_PAIRS(strSet)
+     * @ensures <pre>
+     * ALL_SUPERSTRINGS(strSet) is subset of ALL_SUPERSTRINGS(#strSet)  and
+     * |strSet| <= |#strSet|  and
+     * CONTAINS_NO_SUBSTRING_PAIRS(strSet)  and
+     * CONTAINS_NO_OVERLAPPING_PAIRS(strSet)
+     * </pre>
+     */
+    public static void assembleInBatches(Set<String> strSet) {
+        assert strSet != null : "Violation of: strSet is not null";
+        /*
+         * Note: Precondition not checked!
+         */
+        boolean done = false;
+        while ((strSet.size() > 1) && !done) {
+            /*
+             * Score every pair once, then merge along the best edges whose
+             * ends are still free
+             */
+            String[] fragments = OverlapGraphAssembler.snapshot(strSet);
+            long start = System.nanoTime();
+            OverlapEdgeHeap edges = OverlapGraphAssembler
+                    .overlapGraph(fragments);
+            AssemblyMetrics.global().recordRound(System.nanoTime() - start);
+            String[] merged = OverlapGraphAssembler.mergeChains(fragments,
+                    edges);
+            for (String str : merged) {
+                strSet.add(str);
             }
+            /*
+             * A round without any merge means no overlapping strings remain
+             */
+            done = merged.length == fragments.length;
         }
     }
 
@@ -416,19 +995,87 @@ public final class StringReassembly {
         assert out != null : "Violation of: out is not null";
         assert out.isOpen() : "Violation of: out.is_open";
 
-        // loops through every character within text
-        for (int i = 0; i < text.length(); i++) {
-            /*
-             * prints a newline if the character at index i is '~', otherwise
-             * the character at i is printed to the output stream.
-             */
-            if (text.charAt(i) == '~') {
-                out.println();
-            } else {
-                out.print(text.charAt(i));
-            }
+        /*
+         * prints each run of characters between '~'s with a single call,
+         * followed by a line separator for the '~' that ends it
+         */
+        int start = 0;
+        int tilde = text.indexOf('~');
+        while (tilde >= 0) {
+            out.println(text.substring(start, tilde));
+            start = tilde + 1;
+            tilde = text.indexOf('~', start);
         }
+        out.print(text.substring(start));
+
+    }
+
+    /**
+     * Writes the string {@code text} to {@code out}, replacing each '~' with a
+     * line separator. Each run of characters between '~'s is written with a
+     * single call, straight from {@code text}.
+     *
+     * @param text
+     *            string to be output
+     * @param out
+     *            output stream
+     * @throws IOException
+     *             if {@code out} cannot be written
+     * @updates out
+     * @ensures <pre>
+     * out.content = #out.content *
+     *   [text with each '~' replaced by line separator]
+     * </pre>
+     */
+    public static void printWithLineSeparators(String text, Writer out)
+            throws IOException {
+        assert text != null : "Violation of: text is not null";
+        assert out != null : "Violation of: out is not null";
 
+        String separator = System.lineSeparator();
+        int start = 0;
+        int tilde = text.indexOf('~');
+        while (tilde >= 0) {
+            out.write(text, start, tilde - start);
+            out.write(separator);
+            start = tilde + 1;
+            tilde = text.indexOf('~', start);
+        }
+        out.write(text, start, text.length() - start);
+    }
+
+    /**
+     * Writes the string {@code text} to {@code channel} in UTF-8, replacing
+     * each '~' with a line separator; the text is encoded through a buffer, so
+     * the channel sees only large writes.
+     *
+     * @param text
+     *            string to be output
+     * @param channel
+     *            output channel
+     * @throws IOException
+     *             if {@code channel} cannot be written
+     * @updates channel
+     * @requires channel.is_open
+     * @ensures <pre>
+     * channel.content = #channel.content *
+     *   [UTF-8 encoding of text with each '~' replaced by line separator]
+     * </pre>
+     */
+    public static void printWithLineSeparators(String text,
+            WritableByteChannel channel) throws IOException {
+        assert text != null : "Violation of: text is not null";
+        assert channel != null : "Violation of: channel is not null";
+        assert channel.isOpen() : "Violation of: channel.is_open";
+
+        Writer out = Channels.newWriter(channel,
+                StandardCharsets.UTF_8.newEncoder(), -1);
+        printWithLineSeparators(text, out);
+        /*
+         * flush, but do not close, the writer: closing it would close the
+         * channel too
+         */
+        out.flush();
     }
 
     /**
@@ -443,30 +1090,139 @@ public final class StringReassembly {
      * mutually non-overlapping, in which case it outputs the remaining
      * fragments, appropriately labelled.
      *
+     * <p>
+     * If the system property {@value #CHECKPOINT_PROPERTY} names a file, the
+     * greedy assembly saves its progress there every
+     * {@value #CHECKPOINT_INTERVAL_PROPERTY} seconds (default 60), and a run
+     * that finds the file already there resumes from it instead of reading the
+     * input file, provided it was saved for an input file with the same
+     * contents. Checkpoints need the greedy assembly of
+     * {@link #assemble(Set)}, which takes time cubic in the number of
+     * fragments, so they override the engine named on the command line, with
+     * a warning. If the system property {@value #OVERLAP_CACHE_PROPERTY} names
+     * a file and the engine is {@code in_place}, the greedy assembly keeps the
+     * overlaps it computes in that {@link OverlapCache}, holding
+     * {@value #OVERLAP_CACHE_ENTRIES_PROPERTY} entries (default
+     * 2<sup>20</sup>), and a later run reuses them; with any other engine the
+     * cache is ignored, with a warning, since those engines compute each
+     * overlap only once and run far faster without it.
+     *
+     * <p>
+     * Before reading the input file, an {@link AssemblyFootprint} of it is
+     * checked against the heap budget, set by the system property
+     * {@value AssemblyFootprint#HEAP_BUDGET_PROPERTY} (default: the free
+     * heap). If the job does not fit, the footprint is reported and the job
+     * either switches to an engine that needs less memory or is rejected.
+     *
      * @param args
-     *            Command-line arguments: not used
+     *            Command-line arguments: optionally, the name of the
+     *            {@link AssemblyEngine} to use (default {@code greedy});
+     *            ignored when checkpointing
+     * @throws IOException
+     *             if a checkpoint or the overlap cache cannot be read or
+     *             written, or the checkpoint was saved for another input
      */
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
+        AssemblyMetrics.dumpAtExit();
         SimpleReader in = new SimpleReader1L();
         SimpleWriter out = new SimpleWriter1L();
+        String checkpointFile = System.getProperty(CHECKPOINT_PROPERTY);
+        String cacheFile = System.getProperty(OVERLAP_CACHE_PROPERTY);
+        AssemblyEngine engine = AssemblyEngine.GREEDY;
+        if (args.length > 0) {
+            engine = AssemblyEngine.named(args[0]);
+        }
+        if (checkpointFile != null && engine != AssemblyEngine.IN_PLACE) {
+            out.println("Warning: checkpoints need the "
+                    + AssemblyEngine.IN_PLACE + " engine, whose time grows "
+                    + "with the cube of the number of fragments; using it "
+                    + "instead of " + engine);
+            engine = AssemblyEngine.IN_PLACE;
+        }
+        if (cacheFile != null && engine != AssemblyEngine.IN_PLACE) {
+            out.println("Warning: only the " + AssemblyEngine.IN_PLACE
+                    + " engine uses the overlap cache; ignoring it for "
+                    + engine);
+            cacheFile = null;
+        }
+        boolean greedily = checkpointFile != null || cacheFile != null;
         /*
          * Get input file name
          */
         out.print("Input file (with fragments): ");
         String inputFileName = in.nextLine();
-        SimpleReader inFile = new SimpleReader1L(inputFileName);
-        /*
-         * Get initial fragments from input file
-         */
-        Set<String> fragments = linesFromInput(inFile);
-        /*
-         * Close inFile; we're done with it
-         */
-        inFile.close();
-        /*
-         * Assemble fragments as far as possible
-         */
-        assemble(fragments);
+        AssemblyCheckpoint checkpoint = null;
+        if (checkpointFile != null) {
+            checkpoint = new AssemblyCheckpoint(checkpointFile, inputFileName);
+        }
+        Set<String> fragments;
+        if (checkpoint != null && checkpoint.exists()) {
+            /*
+             * Resume an interrupted run of the same input from its last
+             * checkpoint
+             */
+            out.println("Resuming from checkpoint " + checkpointFile);
+            fragments = new Set4<>();
+            checkpoint.read(fragments);
+        } else {
+            /*
+             * Check that the job fits in the heap before reading it
+             */
+            AssemblyFootprint footprint = AssemblyFootprint
+                    .scan(inputFileName);
+            long budget = AssemblyFootprint.heapBudget();
+            AssemblyEngine admitted = footprint.admit(engine, budget);
+            if (admitted != engine) {
+                out.println();
+                footprint.report(out, engine, budget);
+                if (admitted == null) {
+                    out.println("No engine fits the heap budget for "
+                            + inputFileName);
+                    in.close();
+                    out.close();
+                    return;
+                }
+                out.println("Switching to " + admitted + " to save memory");
+                engine = admitted;
+            }
+            SimpleReader inFile = new SimpleReader1L(inputFileName);
+            /*
+             * Get initial fragments from input file
+             */
+            fragments = linesFromInput(inFile);
+            /*
+             * Close inFile; we're done with it
+             */
+            inFile.close();
+        }
+        if (greedily) {
+            /*
+             * Assemble fragments greedily as far as possible, saving progress
+             * and reusing cached overlaps as requested
+             */
+            long interval = Long.getLong(CHECKPOINT_INTERVAL_PROPERTY,
+                    DEFAULT_CHECKPOINT_INTERVAL);
+            final long millisPerSecond = 1000;
+            OverlapCache cache = null;
+            if (cacheFile != null) {
+                cache = OverlapCache.open(cacheFile,
+                        Integer.getInteger(OVERLAP_CACHE_ENTRIES_PROPERTY,
+                                DEFAULT_OVERLAP_CACHE_ENTRIES));
+            }
+            try {
+                assembleGreedily(fragments, cache, checkpoint,
+                        interval * millisPerSecond);
+            } finally {
+                if (cache != null) {
+                    cache.close();
+                }
+            }
+        } else {
+            /*
+             * Assemble fragments as far as possible with the selected engine
+             */
+            engine.assemble(fragments);
+        }
         /*
          * Output fully assembled text or remaining fragments
          */
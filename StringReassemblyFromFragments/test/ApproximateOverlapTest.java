@@ -0,0 +1,102 @@
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ *
+ * @author Justin Imber
+ *
+ */
+public class ApproximateOverlapTest {
+
+    /*
+     * overlap method test cases
+     */
+
+    @Test
+    public void testOverlap_no_errors_is_exact() {
+        String str1 = "the potato is indeed qu";
+        String str2 = "quite corrupted";
+        assertEquals(2, ApproximateOverlap.overlap(str1, str2, 0));
+    }
+
+    @Test
+    public void testOverlap_substitution() {
+        String str1 = "the potato is indeed quite";
+        String str2 = "indeed qu1te corrupted";
+        final int expected = 12;
+        assertEquals(0, ApproximateOverlap.overlap(str1, str2, 0));
+        assertEquals(expected, ApproximateOverlap.overlap(str1, str2, 1));
+    }
+
+    @Test
+    public void testOverlap_insertion() {
+        String str1 = "the potato is indeed quite";
+        String str2 = "indeed quiite corrupted";
+        final int expected = 13;
+        assertEquals(expected, ApproximateOverlap.overlap(str1, str2, 1));
+    }
+
+    @Test
+    public void testOverlap_too_many_errors() {
+        String str1 = "the potato is indeed quite";
+        String str2 = "indeed qu11e corrupted";
+        assertEquals(0, ApproximateOverlap.overlap(str1, str2, 1));
+    }
+
+    @Test
+    public void testOverlap_deletion() {
+        String str1 = "the potato is indeed quite";
+        String str2 = "is indeed quie corrupted";
+        final int expected = 14;
+        assertEquals(expected, ApproximateOverlap.overlap(str1, str2, 1));
+    }
+
+    @Test
+    public void testOverlap_short_approximate_rejected() {
+        /*
+         * Four characters with one edit is a coincidence, not an overlap
+         */
+        assertEquals(0, ApproximateOverlap.overlap("Go Bucks", "Bunks!", 1));
+        assertEquals(0, ApproximateOverlap.overlap("Beat Mich",
+                "Mchigan~", 1));
+    }
+
+    @Test
+    public void testOverlap_ends_on_last_character() {
+        /*
+         * Counting the comma as an inserted character would make a longer
+         * overlap, and appending the rest of str2 would then drop it
+         */
+        String str1 = "the potato is indeed quite";
+        String str2 = "is indeed quite, corrupted";
+        final int expected = 15;
+        int[] edits = new int[1];
+        assertEquals(expected,
+                ApproximateOverlap.overlap(str1, str2, 1, edits));
+        assertEquals(0, edits[0]);
+    }
+
+    @Test
+    public void testOverlap_reports_edits() {
+        String str1 = "the potato is indeed quite";
+        String str2 = "indeed qu1te corrupted";
+        int[] edits = new int[1];
+        ApproximateOverlap.overlap(str1, str2, 2, edits);
+        assertEquals(1, edits[0]);
+    }
+
+    /*
+     * combination method test cases
+     */
+
+    @Test
+    public void testCombination_keeps_left_copy() {
+        String str1 = "the potato is indeed quite";
+        String str2 = "indeed qu1te corrupted";
+        final int overlap = 12;
+        assertEquals("the potato is indeed quite corrupted",
+                ApproximateOverlap.combination(str1, str2, overlap));
+    }
+
+}
@@ -0,0 +1,98 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ *
+ * @author Justin Imber
+ *
+ */
+public class AsciiFragmentTest {
+
+    /*
+     * isAscii method test cases
+     */
+
+    @Test
+    public void testIsAscii() {
+        assertTrue(AsciiFragment.isAscii("Go Bucks -- Beat Michigan~"));
+        assertTrue(AsciiFragment.isAscii(""));
+        assertFalse(AsciiFragment.isAscii("caf\u00e9"));
+    }
+
+    /*
+     * valueOf and toString method test cases
+     */
+
+    @Test
+    public void testValueOf_round_trip() {
+        String str = "we, the people~";
+        AsciiFragment fragment = AsciiFragment.valueOf(str);
+        assertEquals(str.length(), fragment.length());
+        assertEquals('w', fragment.charAt(0));
+        assertEquals(str, fragment.toString());
+    }
+
+    /*
+     * valueOfAll method test cases
+     */
+
+    @Test
+    public void testValueOfAll_clears_strings() {
+        String[] strs = { "Go Bucks", "Beat Mich" };
+        AsciiFragment[] fragments = AsciiFragment.valueOfAll(strs);
+        assertEquals(2, fragments.length);
+        assertEquals("Go Bucks", fragments[0].toString());
+        assertEquals("Beat Mich", fragments[1].toString());
+        assertNull(strs[0]);
+        assertNull(strs[1]);
+    }
+
+    /*
+     * overlap method test cases
+     */
+
+    @Test
+    public void testOverlap_long_overlap() {
+        AsciiFragment str1 = AsciiFragment
+                .valueOf("Four score and seven years ago our fathers");
+        AsciiFragment str2 = AsciiFragment
+                .valueOf("seven years ago our fathers brought forth");
+        final int expected = 27;
+        assertEquals(expected, AsciiFragment.overlap(str1, str2));
+    }
+
+    @Test
+    public void testOverlap_matches_kernel() {
+        String[] strs = { "aabaa", "baab", "abab", "aaba", "abaa", "b", "" };
+        for (String s1 : strs) {
+            for (String s2 : strs) {
+                assertEquals(OverlapKernel.overlap(s1, s2),
+                        AsciiFragment.overlap(AsciiFragment.valueOf(s1),
+                                AsciiFragment.valueOf(s2)));
+            }
+        }
+    }
+
+    @Test
+    public void testOverlap_repetitive_falls_back() {
+        /*
+         * Every candidate longer than the run of a's at the start of str2
+         * passes the first check and fails at the b
+         */
+        final int run = 1000;
+        StringBuilder a = new StringBuilder();
+        for (int i = 0; i < run; i++) {
+            a.append('a');
+        }
+        String str1 = a.toString() + a;
+        String str2 = a + "b" + a + a;
+        assertEquals(run, AsciiFragment.overlap(AsciiFragment.valueOf(str1),
+                AsciiFragment.valueOf(str2)));
+        assertEquals(run, OverlapKernel.overlap(str1, str2));
+    }
+
+}
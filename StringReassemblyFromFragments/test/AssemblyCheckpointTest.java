@@ -0,0 +1,141 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import components.set.Set;
+import components.set.Set1L;
+
+/**
+ *
+ * @author Justin Imber
+ *
+ */
+public class AssemblyCheckpointTest {
+
+    /**
+     * Input file the checkpoints are saved for.
+     */
+    private static final String INPUT = "data/cheer-8-2.txt";
+
+    /*
+     * write and read method test cases
+     */
+
+    @Test
+    public void testWriteRead_round_trip() throws IOException {
+        File file = File.createTempFile("checkpoint", ".bin");
+        try {
+            AssemblyCheckpoint checkpoint = new AssemblyCheckpoint(
+                    file.getPath(), INPUT);
+            Set<String> strSet = new Set1L<>();
+            strSet.add("Go Bucks -- Beat");
+            strSet.add("Michigan~");
+            strSet.add("caf\u00e9 \u2014 na\u00efve");
+            strSet.add("");
+            checkpoint.write(strSet);
+            Set<String> read = new Set1L<>();
+            read.add("stale");
+            new AssemblyCheckpoint(file.getPath(), INPUT).read(read);
+            assertEquals(strSet, read);
+        } finally {
+            Files.deleteIfExists(file.toPath());
+        }
+    }
+
+    @Test
+    public void testRead_truncated() throws IOException {
+        File file = File.createTempFile("checkpoint", ".bin");
+        try {
+            AssemblyCheckpoint checkpoint = new AssemblyCheckpoint(
+                    file.getPath(), INPUT);
+            Set<String> strSet = new Set1L<>();
+            strSet.add("Go Bucks -- Beat Michigan~");
+            checkpoint.write(strSet);
+            byte[] bytes = Files.readAllBytes(file.toPath());
+            Files.write(file.toPath(), Arrays.copyOf(bytes, bytes.length - 1));
+            try {
+                checkpoint.read(new Set1L<String>());
+                fail("truncated checkpoint was accepted");
+            } catch (IOException e) {
+                /*
+                 * expected
+                 */
+            }
+        } finally {
+            Files.deleteIfExists(file.toPath());
+        }
+    }
+
+    @Test
+    public void testRead_other_input() throws IOException {
+        File file = File.createTempFile("checkpoint", ".bin");
+        try {
+            Set<String> strSet = new Set1L<>();
+            strSet.add("Go Bucks -- Beat Michigan~");
+            new AssemblyCheckpoint(file.getPath(), INPUT).write(strSet);
+            try {
+                new AssemblyCheckpoint(file.getPath(),
+                        "data/gettysburg-30-4.txt").read(new Set1L<String>());
+                fail("checkpoint of another input was accepted");
+            } catch (IOException e) {
+                assertTrue(e.getMessage().contains("cheer-8-2.txt"));
+            }
+        } finally {
+            Files.deleteIfExists(file.toPath());
+        }
+    }
+
+    @Test
+    public void testRead_same_contents_elsewhere() throws IOException {
+        File file = File.createTempFile("checkpoint", ".bin");
+        File copy = File.createTempFile("cheer", ".txt");
+        try {
+            Files.copy(new File(INPUT).toPath(), copy.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING);
+            Set<String> strSet = new Set1L<>();
+            strSet.add("Go Bucks -- Beat Michigan~");
+            new AssemblyCheckpoint(file.getPath(), INPUT).write(strSet);
+            Set<String> read = new Set1L<>();
+            new AssemblyCheckpoint(file.getPath(), copy.getPath()).read(read);
+            assertEquals(strSet, read);
+        } finally {
+            Files.deleteIfExists(file.toPath());
+            Files.deleteIfExists(copy.toPath());
+        }
+    }
+
+    /*
+     * assemble with checkpoints test cases
+     */
+
+    @Test
+    public void testAssemble_checkpointed_matches_assemble()
+            throws IOException {
+        File file = File.createTempFile("checkpoint", ".bin");
+        Set<String> strSet = new Set1L<>();
+        strSet.add("Bucks -- Beat");
+        strSet.add("Go Bucks");
+        strSet.add("o Bucks -- B");
+        strSet.add("Beat Mich");
+        strSet.add("Michigan~");
+        Set<String> expected = strSet.newInstance();
+        for (String str : strSet) {
+            expected.add(str);
+        }
+        StringReassembly.assemble(expected);
+        StringReassembly.assemble(strSet,
+                new AssemblyCheckpoint(file.getPath(), INPUT), 0);
+        assertEquals(expected, strSet);
+        assertFalse(file.exists());
+    }
+
+}
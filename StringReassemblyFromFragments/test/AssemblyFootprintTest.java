@@ -0,0 +1,184 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ *
+ * @author Justin Imber
+ *
+ */
+public class AssemblyFootprintTest {
+
+    /**
+     * Fragment file used for the admission test cases.
+     */
+    private static final String DECLARATION = "data/declaration-50-8.txt";
+
+    /**
+     * Number of fragments of the generated input, as many as the largest of
+     * the scale test.
+     */
+    private static final int GENERATED_FRAGMENTS = 100000;
+
+    /**
+     * Number of fragments of the binary input.
+     */
+    private static final int BINARY_FRAGMENTS = 4000;
+
+    /**
+     * Length of each fragment of the binary input.
+     */
+    private static final int BINARY_FRAGMENT_LENGTH = 30;
+
+    /**
+     * Returns the heap budget that just fits {@code engine} on
+     * {@code footprint}.
+     *
+     * @param footprint
+     *            the footprint
+     * @param engine
+     *            the engine
+     * @return the smallest budget that admits {@code engine}
+     */
+    private static long budgetFor(AssemblyFootprint footprint,
+            AssemblyEngine engine) {
+        return AssemblyFootprint
+                .heapNeeded(footprint.workingSetBytes(engine));
+    }
+
+    /**
+     * Writes a fragment file of {@value #BINARY_FRAGMENTS} random strings of
+     * {@value #BINARY_FRAGMENT_LENGTH} a's and b's, the same ones every time.
+     * Nearly every pair of them overlaps, and enough by six characters or
+     * more that even {@link AssemblyEngine#BEST_OVERLAP} needs more memory
+     * than {@link AssemblyEngine#IN_PLACE}.
+     *
+     * @return the name of the fragment file
+     * @throws IOException
+     *             if the file cannot be written
+     */
+    private static String binaryFile() throws IOException {
+        Random random = new Random(BINARY_FRAGMENTS);
+        List<String> fragments = new ArrayList<>();
+        for (int i = 0; i < BINARY_FRAGMENTS; i++) {
+            StringBuilder fragment = new StringBuilder();
+            for (int k = 0; k < BINARY_FRAGMENT_LENGTH; k++) {
+                fragment.append((char) ('a' + random.nextInt(2)));
+            }
+            fragments.add(fragment.toString());
+        }
+        File file = File.createTempFile("binary-", ".txt");
+        file.deleteOnExit();
+        FragmentGenerator.write(fragments, file.getPath());
+        return file.getPath();
+    }
+
+    /*
+     * scan method test cases
+     */
+
+    @Test
+    public void testScan_cheer() {
+        AssemblyFootprint footprint = AssemblyFootprint
+                .scan("data/cheer-8-2.txt");
+        assertEquals(7, footprint.fragments());
+        assertEquals(64, footprint.characters());
+        /*
+         * Every fragment is in the sample, and 9 of the 42 pairs overlap
+         */
+        assertEquals(9 * Long.BYTES, footprint.overlapMatrixBytes());
+    }
+
+    /*
+     * admit method test cases
+     */
+
+    @Test
+    public void testAdmit_fits() {
+        AssemblyFootprint footprint = AssemblyFootprint.scan(DECLARATION);
+        long budget = budgetFor(footprint, AssemblyEngine.BEAM);
+        assertEquals(AssemblyEngine.BEAM,
+                footprint.admit(AssemblyEngine.BEAM, budget));
+    }
+
+    @Test
+    public void testAdmit_beam_switches_to_best_overlap() {
+        AssemblyFootprint footprint = AssemblyFootprint.scan(DECLARATION);
+        long budget = budgetFor(footprint, AssemblyEngine.BEST_OVERLAP);
+        assertEquals(AssemblyEngine.BEST_OVERLAP,
+                footprint.admit(AssemblyEngine.BEAM, budget));
+    }
+
+    @Test
+    public void testAdmit_generated_best_overlap_fits() throws IOException {
+        /*
+         * The input of the largest scale test: few pairs overlap by the six
+         * characters BEST_OVERLAP needs, so it fits in 2 GiB though the full
+         * overlap graph of GREEDY does not
+         */
+        File file = StringReassemblyScaleTest.fragmentFile(
+                StringReassemblyScaleTest.vocabulary(), GENERATED_FRAGMENTS);
+        AssemblyFootprint footprint = AssemblyFootprint.scan(file.getPath());
+        long budget = AssemblyFootprint.parseSize("2g");
+        assertEquals(AssemblyEngine.BEST_OVERLAP,
+                footprint.admit(AssemblyEngine.BEST_OVERLAP, budget));
+        assertEquals(AssemblyEngine.BEST_OVERLAP,
+                footprint.admit(AssemblyEngine.GREEDY, budget));
+    }
+
+    @Test
+    public void testAdmit_greedy_switches_to_in_place() throws IOException {
+        AssemblyFootprint footprint = AssemblyFootprint.scan(binaryFile());
+        long budget = budgetFor(footprint, AssemblyEngine.IN_PLACE);
+        assertEquals(AssemblyEngine.IN_PLACE, footprint
+                .admit(AssemblyEngine.GREEDY, budget, footprint.fragments()));
+    }
+
+    @Test
+    public void testAdmit_rejects() {
+        AssemblyFootprint footprint = AssemblyFootprint.scan(DECLARATION);
+        long budget = budgetFor(footprint, AssemblyEngine.IN_PLACE) - 1;
+        assertNull(footprint.admit(AssemblyEngine.GREEDY, budget));
+    }
+
+    @Test
+    public void testAdmit_in_place_over_fragment_limit_rejects()
+            throws IOException {
+        AssemblyFootprint footprint = AssemblyFootprint.scan(binaryFile());
+        long budget = budgetFor(footprint, AssemblyEngine.IN_PLACE);
+        assertNull(footprint.admit(AssemblyEngine.GREEDY, budget,
+                footprint.fragments() - 1));
+        assertEquals(AssemblyEngine.IN_PLACE, footprint
+                .admit(AssemblyEngine.GREEDY, budget, footprint.fragments()));
+    }
+
+    @Test
+    public void testAdmit_in_place_selected_over_fragment_limit() {
+        /*
+         * The limit only applies to falling back, not to a choice of engine
+         */
+        AssemblyFootprint footprint = AssemblyFootprint.scan(DECLARATION);
+        long budget = budgetFor(footprint, AssemblyEngine.IN_PLACE);
+        assertEquals(AssemblyEngine.IN_PLACE,
+                footprint.admit(AssemblyEngine.IN_PLACE, budget, 1));
+    }
+
+    /*
+     * parseSize method test cases
+     */
+
+    @Test
+    public void testParseSize() {
+        assertEquals(100, AssemblyFootprint.parseSize("100"));
+        assertEquals(512 * 1024, AssemblyFootprint.parseSize("512k"));
+        assertEquals(2L << 30, AssemblyFootprint.parseSize("2G"));
+    }
+
+}
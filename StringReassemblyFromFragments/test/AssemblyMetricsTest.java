@@ -0,0 +1,98 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import components.set.Set;
+import components.set.Set1L;
+
+/**
+ *
+ * @author Justin Imber
+ *
+ */
+public class AssemblyMetricsTest {
+
+    /*
+     * counter test cases
+     */
+
+    @Test
+    public void testAssemble_cheer_counts() {
+        AssemblyMetrics metrics = AssemblyMetrics.global();
+        metrics.reset();
+        Set<String> strSet = new Set1L<>();
+        strSet.add("Bucks -- Beat");
+        strSet.add("Go Bucks");
+        strSet.add("o Bucks -- B");
+        strSet.add("Beat Mich");
+        strSet.add("Michigan~");
+        StringReassembly.assemble(strSet);
+        /*
+         * Four rounds, over 5, 4, 3, and 2 strings, each scoring every
+         * ordered pair and ending in a merge
+         */
+        final long rounds = 4;
+        final long overlapCalls = 5 * 4 + 4 * 3 + 3 * 2 + 2 * 1;
+        assertEquals(rounds, metrics.rounds());
+        assertEquals(rounds, metrics.merges());
+        assertEquals(overlapCalls, metrics.overlapCalls());
+    }
+
+    @Test
+    public void testAssemble_cheer_counts_match_in_place() {
+        AssemblyEngine[] engines = { AssemblyEngine.IN_PLACE,
+            AssemblyEngine.PARALLEL, AssemblyEngine.ROPE,
+            AssemblyEngine.ROLLING_HASH };
+        long[] overlapCalls = new long[engines.length];
+        long[] characters = new long[engines.length];
+        long[] merges = new long[engines.length];
+        for (int e = 0; e < engines.length; e++) {
+            AssemblyMetrics metrics = AssemblyMetrics.global();
+            metrics.reset();
+            Set<String> strSet = new Set1L<>();
+            strSet.add("Bucks -- Beat");
+            strSet.add("Go Bucks");
+            strSet.add("o Bucks -- B");
+            strSet.add("Beat Mich");
+            strSet.add("Michigan~");
+            engines[e].assemble(strSet);
+            overlapCalls[e] = metrics.overlapCalls();
+            characters[e] = metrics.charactersScanned();
+            merges[e] = metrics.merges();
+        }
+        for (int e = 1; e < engines.length; e++) {
+            assertEquals(overlapCalls[0], overlapCalls[e]);
+            assertEquals(merges[0], merges[e]);
+            assertTrue(characters[e] > 0);
+        }
+    }
+
+    @Test
+    public void testToJson() {
+        AssemblyMetrics metrics = new AssemblyMetrics();
+        final long nanos = 1500;
+        final int fragments = 7;
+        final int characters = 12;
+        metrics.recordLinesFromInput(fragments, nanos);
+        metrics.recordOverlap(characters);
+        metrics.recordMerge();
+        metrics.recordRound(nanos);
+        assertEquals("{\"fragmentsRead\": 7, \"overlapCalls\": 1, "
+                + "\"charactersScanned\": 12, \"merges\": 1, \"rounds\": 1, "
+                + "\"bestOverlapNanos\": 1500, "
+                + "\"linesFromInputNanos\": 1500}", metrics.toJson());
+    }
+
+    @Test
+    public void testReset() {
+        AssemblyMetrics metrics = new AssemblyMetrics();
+        metrics.recordOverlaps(3, 30);
+        metrics.recordMerges(2);
+        metrics.reset();
+        assertEquals(0, metrics.overlapCalls());
+        assertEquals(0, metrics.charactersScanned());
+        assertEquals(0, metrics.merges());
+    }
+
+}
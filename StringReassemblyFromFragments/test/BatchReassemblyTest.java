@@ -0,0 +1,52 @@
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ *
+ * @author Justin Imber
+ *
+ */
+public class BatchReassemblyTest {
+
+    /*
+     * inputFiles method test cases
+     */
+
+    @Test
+    public void testInputFiles_glob() throws IOException {
+        List<Path> files = BatchReassembly.inputFiles("data/gettysburg-*.txt");
+        assertEquals(2, files.size());
+        assertEquals(Paths.get("data/gettysburg-30-4.txt"), files.get(0));
+        assertEquals(Paths.get("data/gettysburg-30-6.txt"), files.get(1));
+    }
+
+    /*
+     * reassemble method test cases
+     */
+
+    @Test
+    public void testReassemble_cheer() throws IOException {
+        Path output = Files.createTempFile("cheer", ".assembled");
+        try {
+            int count = BatchReassembly.reassemble(
+                    Paths.get("data/cheer-8-2.txt"), output,
+                    AssemblyEngine.GREEDY);
+            assertEquals(1, count);
+            String expected = System.lineSeparator()
+                    + "Go Bucks -- Beat Michigan" + System.lineSeparator();
+            assertEquals(expected, new String(Files.readAllBytes(output),
+                    StandardCharsets.UTF_8));
+        } finally {
+            Files.deleteIfExists(output);
+        }
+    }
+
+}
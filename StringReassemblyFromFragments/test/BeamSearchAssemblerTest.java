@@ -0,0 +1,79 @@
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import components.set.Set;
+import components.set.Set1L;
+
+/**
+ *
+ * @author Justin Imber
+ *
+ */
+public class BeamSearchAssemblerTest {
+
+    /*
+     * assemble method test cases
+     */
+
+    @Test
+    public void testAssemble_cheer() {
+        Set<String> expected = new Set1L<>();
+        expected.add("Go Bucks -- Beat Michigan~");
+        Set<String> strSet = new Set1L<>();
+        strSet.add("Bucks -- Beat");
+        strSet.add("Go Bucks");
+        strSet.add("o Bucks -- B");
+        strSet.add("Beat Mich");
+        strSet.add("Michigan~");
+        final int width = 4;
+        BeamSearchAssembler.assemble(strSet, width);
+        assertEquals(expected, strSet);
+    }
+
+    @Test
+    public void testAssemble_width_one_is_greedy() {
+        Set<String> expected = new Set1L<>();
+        expected.add("aabaabab");
+        Set<String> strSet = new Set1L<>();
+        strSet.add("baab");
+        strSet.add("abab");
+        strSet.add("aaba");
+        strSet.add("abaa");
+        BeamSearchAssembler.assemble(strSet, 1);
+        assertEquals(expected, strSet);
+    }
+
+    @Test
+    public void testAssemble_wider_beam_shorter_than_greedy() {
+        Set<String> expected = new Set1L<>();
+        expected.add("abaabab");
+        Set<String> strSet = new Set1L<>();
+        strSet.add("baab");
+        strSet.add("abab");
+        strSet.add("aaba");
+        strSet.add("abaa");
+        final int width = 4;
+        BeamSearchAssembler.assemble(strSet, width);
+        assertEquals(expected, strSet);
+    }
+
+    @Test
+    public void testAssemble_wide_beam_independent_merges() {
+        Set<String> expected = new Set1L<>();
+        expected.add("Go Bucks");
+        expected.add("Beat Michigan");
+        expected.add("Scarlet and Gray");
+        Set<String> strSet = new Set1L<>();
+        strSet.add("Go Bu");
+        strSet.add("Bucks");
+        strSet.add("Beat Mich");
+        strSet.add("Michigan");
+        strSet.add("Scarlet");
+        strSet.add("let and Gray");
+        final int width = 16;
+        BeamSearchAssembler.assemble(strSet, width);
+        assertEquals(expected, strSet);
+    }
+
+}
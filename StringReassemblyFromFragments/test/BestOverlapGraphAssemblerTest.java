@@ -0,0 +1,94 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import components.set.Set;
+import components.set.Set1L;
+import components.simplereader.SimpleReader;
+import components.simplereader.SimpleReader1L;
+
+/**
+ *
+ * @author Justin Imber
+ *
+ */
+public class BestOverlapGraphAssemblerTest {
+
+    /*
+     * assemble method test cases
+     */
+
+    @Test
+    public void testAssemble_cheer() {
+        Set<String> expected = new Set1L<>();
+        expected.add("Go Bucks -- Beat Michigan~");
+        Set<String> strSet = new Set1L<>();
+        strSet.add("Bucks -- Beat");
+        strSet.add("Go Bucks");
+        strSet.add("o Bucks -- B");
+        strSet.add("Beat Mich");
+        strSet.add("Michigan~");
+        BestOverlapGraphAssembler.assemble(strSet);
+        assertEquals(expected, strSet);
+    }
+
+    @Test
+    public void testAssemble_shorter_than_greedy() {
+        /*
+         * OverlapGraphAssembler.assemble ends with "aabaabab" on this set
+         */
+        Set<String> expected = new Set1L<>();
+        expected.add("abaabab");
+        Set<String> strSet = new Set1L<>();
+        strSet.add("baab");
+        strSet.add("abab");
+        strSet.add("aaba");
+        strSet.add("abaa");
+        BestOverlapGraphAssembler.assemble(strSet);
+        assertEquals(expected, strSet);
+    }
+
+    @Test
+    public void testAssemble_min_overlap_skips_short_overlaps() {
+        Set<String> expected = new Set1L<>();
+        expected.add("we, the people, are great");
+        expected.add("there");
+        Set<String> strSet = new Set1L<>();
+        strSet.add("we, the peo");
+        strSet.add("the people, are");
+        strSet.add("ople, are great");
+        strSet.add("there");
+        final int minOverlap = 3;
+        BestOverlapGraphAssembler.assemble(strSet, minOverlap);
+        assertEquals(expected, strSet);
+    }
+
+    @Test
+    public void testAssemble_short_overlaps_last() {
+        Set<String> expected = new Set1L<>();
+        expected.add("we, the people, are greathere");
+        Set<String> strSet = new Set1L<>();
+        strSet.add("we, the peo");
+        strSet.add("the people, are");
+        strSet.add("ople, are great");
+        strSet.add("there");
+        BestOverlapGraphAssembler.assemble(strSet);
+        assertEquals(expected, strSet);
+    }
+
+    @Test
+    public void testAssemble_no_overlapping_pairs_left() {
+        SimpleReader in = new SimpleReader1L("data/gettysburg-30-4.txt");
+        Set<String> strSet = StringReassembly.linesFromInput(in);
+        in.close();
+        BestOverlapGraphAssembler.assemble(strSet);
+        for (String str1 : strSet) {
+            for (String str2 : strSet) {
+                assertTrue(str1.equals(str2)
+                        || OverlapKernel.overlap(str1, str2) == 0);
+            }
+        }
+    }
+
+}
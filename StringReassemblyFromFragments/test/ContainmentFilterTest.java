@@ -0,0 +1,35 @@
+import static org.junit.Assert.assertArrayEquals;
+
+import org.junit.Test;
+
+/**
+ *
+ * @author Justin Imber
+ *
+ */
+public class ContainmentFilterTest {
+
+    /*
+     * maximalIndicesInParallel method test cases
+     */
+
+    @Test
+    public void testMaximalIndicesInParallel_matches_maximalIndices() {
+        String[] fragments = { "Beat Mich", "Go Bucks", "", "Michigan~",
+                "Bucks -- Beat", "Go Bucks", "o Bucks -- B", "Bucks", "Mich",
+                "Beat Mich", "ichigan", "-- Beat Michigan~" };
+        int[] expected = ContainmentFilter.maximalIndices(fragments);
+        for (int blocks = 1; blocks <= fragments.length + 1; blocks++) {
+            assertArrayEquals(expected, ContainmentFilter
+                    .maximalIndicesInParallel(fragments, blocks));
+        }
+    }
+
+    @Test
+    public void testMaximalIndicesInParallel_empty() {
+        final int blocks = 4;
+        assertArrayEquals(new int[0], ContainmentFilter
+                .maximalIndicesInParallel(new String[0], blocks));
+    }
+
+}
@@ -0,0 +1,150 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.Test;
+
+import components.set.Set;
+import components.set.Set1L;
+import components.simplereader.SimpleReader;
+import components.simplereader.SimpleReader1L;
+
+/**
+ *
+ * @author Justin Imber
+ *
+ */
+public class FragmentArenaTest {
+
+    /**
+     * Writes {@code contents} to a new temporary file.
+     *
+     * @param contents
+     *            the bytes of the file
+     * @return the file
+     * @throws IOException
+     *             if the file cannot be written
+     */
+    private static File tempFile(byte[] contents) throws IOException {
+        File file = File.createTempFile("arena", ".txt");
+        file.deleteOnExit();
+        Files.write(file.toPath(), contents);
+        return file;
+    }
+
+    /**
+     * Checks that {@code arena} holds exactly the lines {@code expected}.
+     *
+     * @param expected
+     *            the expected lines
+     * @param arena
+     *            the arena
+     */
+    private static void assertLines(String[] expected, FragmentArena arena) {
+        assertEquals(expected.length, arena.size());
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], arena.fragment(i).toString());
+        }
+    }
+
+    /*
+     * load method test cases
+     */
+
+    @Test
+    public void testLoad_crlf_and_no_final_newline() throws IOException {
+        File file = tempFile("Go Bucks\r\n\r\nBeat Mich\nigan~"
+                .getBytes(StandardCharsets.US_ASCII));
+        String[] expected = { "Go Bucks", "", "Beat Mich", "igan~" };
+        assertLines(expected, FragmentArena.load(file.getPath()));
+    }
+
+    @Test
+    public void testLoad_lone_carriage_returns() throws IOException {
+        File file = tempFile("Go Bucks\rBeat Mich\r\nigan~\r\r\n"
+                .getBytes(StandardCharsets.US_ASCII));
+        String[] expected = { "Go Bucks", "Beat Mich", "igan~", "" };
+        assertLines(expected, FragmentArena.load(file.getPath()));
+        /*
+         * The first segment of 19 bytes would end between the two halves of
+         * the "\r\n" after "Beat Mich", which must not end two lines
+         */
+        final int maxSegment = 19;
+        assertLines(expected, FragmentArena.load(file.getPath(), maxSegment));
+    }
+
+    @Test
+    public void testLoad_matches_simple_reader() throws IOException {
+        String fileName = "data/gettysburg-30-4.txt";
+        SimpleReader in = new SimpleReader1L(fileName);
+        FragmentArena arena = FragmentArena.load(fileName);
+        int i = 0;
+        while (!in.atEOS()) {
+            assertEquals(in.nextLine(), arena.fragment(i).toString());
+            i++;
+        }
+        in.close();
+        assertEquals(i, arena.size());
+    }
+
+    @Test
+    public void testLoad_small_segments() throws IOException {
+        String[] expected = { "abc", "defgh", "i", "", "jklmno", "pq",
+                "rstuvw", "xyz" };
+        StringBuilder text = new StringBuilder();
+        for (String line : expected) {
+            text.append(line).append("\r\n");
+        }
+        File file = tempFile(
+                text.toString().getBytes(StandardCharsets.US_ASCII));
+        /*
+         * Every line with its terminator fits in 8 bytes, so segments of 8
+         * bytes cut the file at many line boundaries
+         */
+        final int maxSegment = 8;
+        assertLines(expected, FragmentArena.load(file.getPath(), maxSegment));
+        assertLines(expected,
+                FragmentArena.load(file.getPath(), maxSegment + 1));
+    }
+
+    @Test
+    public void testLoad_rejects_non_ascii() throws IOException {
+        File file = tempFile("Go Bucks\nna\u00efve\n"
+                .getBytes(StandardCharsets.UTF_8));
+        boolean rejected = false;
+        try {
+            FragmentArena.load(file.getPath());
+        } catch (IOException e) {
+            rejected = true;
+        }
+        assertTrue(rejected);
+    }
+
+    /*
+     * OverlapGraphAssembler.assemble(FragmentArena) test cases
+     */
+
+    @Test
+    public void testAssemble_matches_string_path() throws IOException {
+        String[] fileNames = { "data/cheer-8-2.txt",
+                "data/gettysburg-30-4.txt", "data/gettysburg-30-6.txt",
+                "data/declaration-50-8.txt" };
+        for (String fileName : fileNames) {
+            SimpleReader in = new SimpleReader1L(fileName);
+            Set<String> expected = StringReassembly.linesFromInput(in);
+            in.close();
+            OverlapGraphAssembler.assemble(expected);
+            Set<String> actual = new Set1L<>();
+            for (String contig : OverlapGraphAssembler
+                    .assemble(FragmentArena.load(fileName))) {
+                actual.add(contig);
+            }
+            assertEquals(expected, actual);
+        }
+    }
+
+}
@@ -0,0 +1,159 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ *
+ * @author Justin Imber
+ *
+ */
+public class FragmentGeneratorTest {
+
+    /**
+     * Returns a random text of {@code length} characters over the alphabet
+     * "abc".
+     *
+     * @param length
+     *            length of the text
+     * @param seed
+     *            seed of the generator
+     * @return the text
+     */
+    private static String randomText(int length, long seed) {
+        Random random = new Random(seed);
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            text.append((char) ('a' + random.nextInt(3)));
+        }
+        return text.toString();
+    }
+
+    /**
+     * Checks the @ensures of {@code FragmentGenerator.fragments}: every
+     * fragment is a substring of {@code text}, and some of them, overlapping
+     * by at least {@code minOverlap} each time, spell {@code text}.
+     *
+     * @param text
+     *            the source text
+     * @param length
+     *            length of each fragment
+     * @param minOverlap
+     *            minimum overlap between consecutive backbone fragments
+     * @param fragments
+     *            the fragments of text
+     */
+    private static void assertTiles(String text, int length, int minOverlap,
+            List<String> fragments) {
+        /*
+         * Mark every position of text at which some fragment occurs
+         */
+        boolean[] starts = new boolean[text.length() - length + 1];
+        for (String fragment : fragments) {
+            assertEquals(length, fragment.length());
+            int at = text.indexOf(fragment);
+            assertTrue(at >= 0);
+            while (at >= 0) {
+                starts[at] = true;
+                at = text.indexOf(fragment, at + 1);
+            }
+        }
+        /*
+         * Walk from the start of text to its end, each time jumping to the
+         * farthest occurrence that still overlaps the current one enough
+         */
+        int maxStep = length - minOverlap;
+        int last = text.length() - length;
+        assertTrue(starts[0]);
+        int at = 0;
+        while (at < last) {
+            int next = Math.min(at + maxStep, last);
+            while (next > at && !starts[next]) {
+                next--;
+            }
+            assertTrue(next > at);
+            at = next;
+        }
+    }
+
+    /*
+     * fits method test cases
+     */
+
+    @Test
+    public void testFits_boundary() {
+        /*
+         * 90 characters past the first fragment, 8 at a time: 12 steps
+         */
+        assertTrue(FragmentGenerator.fits(100, 10, 2, 13));
+        assertFalse(FragmentGenerator.fits(100, 10, 2, 12));
+    }
+
+    @Test
+    public void testFits_single_fragment() {
+        assertTrue(FragmentGenerator.fits(10, 10, 9, 1));
+        assertFalse(FragmentGenerator.fits(11, 10, 9, 1));
+    }
+
+    /*
+     * fragments method test cases
+     */
+
+    @Test
+    public void testFragments_tiles_text() {
+        String text = randomText(500, 1);
+        final int length = 20;
+        final int minOverlap = 5;
+        for (long seed = 1; seed <= 20; seed++) {
+            List<String> fragments = FragmentGenerator.fragments(text, length,
+                    minOverlap, 3.0, seed);
+            assertTiles(text, length, minOverlap, fragments);
+        }
+    }
+
+    @Test
+    public void testFragments_whole_text() {
+        String text = randomText(20, 2);
+        List<String> fragments = FragmentGenerator.fragments(text, 20, 5, 1.0,
+                3);
+        assertEquals(1, fragments.size());
+        assertEquals(text, fragments.get(0));
+    }
+
+    @Test
+    public void testFragments_backbone_at_limit() {
+        /*
+         * Only just enough fragments for a backbone: the steps must all be
+         * as long as they can be, whatever the random choices
+         */
+        String text = randomText(100, 4);
+        final int length = 10;
+        final int minOverlap = 2;
+        final int maxFragments = 13;
+        for (long seed = 1; seed <= 50; seed++) {
+            List<String> fragments = FragmentGenerator.fragments(text, length,
+                    minOverlap, 1.0, seed, maxFragments);
+            assertTrue(fragments.size() <= maxFragments);
+            assertTiles(text, length, minOverlap, fragments);
+        }
+    }
+
+    @Test
+    public void testFragments_backbone_near_limit() {
+        String text = randomText(1000, 5);
+        final int length = 30;
+        final int minOverlap = 10;
+        final int maxFragments = 60;
+        for (long seed = 1; seed <= 50; seed++) {
+            List<String> fragments = FragmentGenerator.fragments(text, length,
+                    minOverlap, 5.0, seed, maxFragments);
+            assertEquals(maxFragments, fragments.size());
+            assertTiles(text, length, minOverlap, fragments);
+        }
+    }
+
+}
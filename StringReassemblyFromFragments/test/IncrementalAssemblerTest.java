@@ -0,0 +1,129 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import components.set.Set;
+import components.set.Set1L;
+import components.simplereader.SimpleReader;
+import components.simplereader.SimpleReader1L;
+
+/**
+ *
+ * @author Justin Imber
+ *
+ */
+public class IncrementalAssemblerTest {
+
+    /**
+     * Returns a set containing the entries of {@code strings}.
+     *
+     * @param strings
+     *            the strings
+     * @return set of the strings
+     */
+    private static Set<String> setOf(String... strings) {
+        Set<String> s = new Set1L<>();
+        for (String str : strings) {
+            s.add(str);
+        }
+        return s;
+    }
+
+    @Test
+    public void testContigs_empty() {
+        IncrementalAssembler assembler = new IncrementalAssembler();
+        assertEquals(0, assembler.contigs().length);
+    }
+
+    @Test
+    public void testContigs_after_each_fragment() {
+        IncrementalAssembler assembler = new IncrementalAssembler();
+        assembler.add("Go Bucks");
+        assertEquals(setOf("Go Bucks"), setOf(assembler.contigs()));
+        assembler.add("Beat Mich");
+        assertEquals(setOf("Go Bucks", "Beat Mich"),
+                setOf(assembler.contigs()));
+        assembler.add("o Bucks -- B");
+        assertEquals(setOf("Go Bucks -- Beat Mich"),
+                setOf(assembler.contigs()));
+    }
+
+    @Test
+    public void testAdd_substrings_dropped() {
+        IncrementalAssembler assembler = new IncrementalAssembler();
+        assembler.add("Bucks");
+        assembler.add("Go Bucks");
+        assembler.add("Buck");
+        assertEquals(1, assembler.size());
+        assertEquals(setOf("Go Bucks"), setOf(assembler.contigs()));
+    }
+
+    @Test
+    public void testAdd_longer_overlap_replaces_link() {
+        IncrementalAssembler assembler = new IncrementalAssembler();
+        assembler.add("Go Bucks");
+        assembler.add("ks!");
+        assertEquals(setOf("Go Bucks!"), setOf(assembler.contigs()));
+        assembler.add("Bucks -- Beat");
+        assertEquals(setOf("Go Bucks -- Beat", "ks!"),
+                setOf(assembler.contigs()));
+    }
+
+    @Test
+    public void testAdd_substring_dropped_from_chain() {
+        IncrementalAssembler assembler = new IncrementalAssembler();
+        assembler.add("Go Bucks");
+        assembler.add("Bucks -- B");
+        assembler.add("-- Beat");
+        assertEquals(setOf("Go Bucks -- Beat"), setOf(assembler.contigs()));
+        assembler.add("o Bucks -- Be");
+        assertEquals(3, assembler.size());
+        assertEquals(setOf("Go Bucks -- Beat"), setOf(assembler.contigs()));
+    }
+
+    @Test
+    public void testContigs_cover_every_fragment() {
+        SimpleReader in = new SimpleReader1L("data/gettysburg-30-4.txt");
+        IncrementalAssembler assembler = new IncrementalAssembler();
+        Set<String> received = new Set1L<>();
+        while (!in.atEOS()) {
+            String line = in.nextLine();
+            assembler.add(line);
+            if (!received.contains(line)) {
+                received.add(line);
+            }
+        }
+        in.close();
+        String[] contigs = assembler.contigs();
+        for (String line : received) {
+            boolean covered = false;
+            for (String contig : contigs) {
+                covered = covered || contig.contains(line);
+            }
+            assertTrue(covered);
+        }
+    }
+
+    @Test
+    public void testContigs_no_overlapping_pairs_left() {
+        String[] files = { "data/gettysburg-30-4.txt",
+                "data/gettysburg-30-6.txt", "data/declaration-50-8.txt" };
+        for (String fileName : files) {
+            SimpleReader in = new SimpleReader1L(fileName);
+            IncrementalAssembler assembler = new IncrementalAssembler();
+            while (!in.atEOS()) {
+                assembler.add(in.nextLine());
+            }
+            in.close();
+            String[] contigs = assembler.contigs();
+            for (String str1 : contigs) {
+                for (String str2 : contigs) {
+                    assertTrue(str1.equals(str2)
+                            || OverlapKernel.overlap(str1, str2) == 0);
+                }
+            }
+        }
+    }
+
+}
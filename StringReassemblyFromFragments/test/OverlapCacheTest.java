@@ -0,0 +1,263 @@
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.Random;
+
+import org.junit.Test;
+
+import components.set.Set;
+import components.set.Set1L;
+
+/**
+ *
+ * @author Justin Imber
+ *
+ */
+public class OverlapCacheTest {
+
+    /**
+     * Returns a set of random strings over the alphabet "ab", none a substring
+     * of another, so that many pairs tie for the best overlap.
+     *
+     * @param count
+     *            number of strings generated before dropping contained ones
+     * @param seed
+     *            seed of the generator
+     * @return the strings
+     */
+    private static Set<String> randomStrings(int count, long seed) {
+        final int minLength = 8;
+        final int lengths = 5;
+        Random random = new Random(seed);
+        String[] strings = new String[count];
+        for (int i = 0; i < count; i++) {
+            StringBuilder str = new StringBuilder();
+            int length = minLength + random.nextInt(lengths);
+            for (int k = 0; k < length; k++) {
+                str.append((char) ('a' + random.nextInt(2)));
+            }
+            strings[i] = str.toString();
+        }
+        Set<String> strSet = new Set4<>();
+        for (int i : ContainmentFilter.maximalIndices(strings)) {
+            strSet.add(strings[i]);
+        }
+        return strSet;
+    }
+
+    /*
+     * get and put method test cases
+     */
+
+    @Test
+    public void testPutGet_persists_across_open() throws IOException {
+        File file = File.createTempFile("overlaps", ".bin");
+        try {
+            OverlapCache.Key key1 = OverlapCache.Key.of("Go Bucks");
+            OverlapCache.Key key2 = OverlapCache.Key.of("Bucks -- Beat");
+            try (OverlapCache cache = OverlapCache.open(file.getPath(), 64)) {
+                assertEquals(OverlapCache.MISSING, cache.get(key1, key2));
+                cache.put(key1, key2, 5);
+                cache.put(key2, key1, 0);
+            }
+            try (OverlapCache cache = OverlapCache.open(file.getPath(), 64)) {
+                assertEquals(5, cache.get(key1, key2));
+                assertEquals(0, cache.get(key2, key1));
+                assertEquals(2, cache.hits());
+                assertEquals(0, cache.misses());
+            }
+        } finally {
+            Files.deleteIfExists(file.toPath());
+        }
+    }
+
+    @Test
+    public void testPut_full_evicts_least_recently_used() throws IOException {
+        File file = File.createTempFile("overlaps", ".bin");
+        try (OverlapCache cache = OverlapCache.open(file.getPath(),
+                OverlapCache.WAYS)) {
+            /*
+             * With a single bucket, every pair competes for the same entries
+             */
+            OverlapCache.Key[] keys = new OverlapCache.Key[OverlapCache.WAYS
+                    + 2];
+            for (int i = 1; i < keys.length; i++) {
+                keys[i] = new OverlapCache.Key(i, i, i);
+            }
+            for (int i = 1; i <= OverlapCache.WAYS; i++) {
+                cache.put(keys[i], keys[i], i);
+            }
+            assertEquals(1, cache.get(keys[1], keys[1]));
+            cache.put(keys[OverlapCache.WAYS + 1], keys[1], 0);
+            assertEquals(1, cache.get(keys[1], keys[1]));
+            assertEquals(OverlapCache.MISSING, cache.get(keys[2], keys[2]));
+            assertEquals(0, cache.get(keys[OverlapCache.WAYS + 1], keys[1]));
+        } finally {
+            Files.deleteIfExists(file.toPath());
+        }
+    }
+
+    @Test
+    public void testPut_evicts_least_recently_used_past_32_bit_clock()
+            throws IOException {
+        File file = File.createTempFile("overlaps", ".bin");
+        try {
+            OverlapCache.open(file.getPath(), OverlapCache.WAYS).close();
+            /*
+             * Set the use counter in the header just short of 2^32, so that
+             * the entries below are stamped on both sides of it
+             */
+            final int clockAt = 16;
+            try (RandomAccessFile raw = new RandomAccessFile(file, "rw")) {
+                raw.seek(clockAt);
+                raw.writeLong((1L << Integer.SIZE) - 2);
+            }
+            try (OverlapCache cache = OverlapCache.open(file.getPath(),
+                    OverlapCache.WAYS)) {
+                OverlapCache.Key[] keys = new OverlapCache.Key[OverlapCache.WAYS
+                        + 2];
+                for (int i = 1; i < keys.length; i++) {
+                    keys[i] = new OverlapCache.Key(i, i, i);
+                }
+                for (int i = 1; i <= OverlapCache.WAYS; i++) {
+                    cache.put(keys[i], keys[i], i);
+                }
+                cache.put(keys[OverlapCache.WAYS + 1], keys[1], 0);
+                assertEquals(OverlapCache.MISSING,
+                        cache.get(keys[1], keys[1]));
+                assertEquals(OverlapCache.WAYS, cache.get(
+                        keys[OverlapCache.WAYS], keys[OverlapCache.WAYS]));
+                assertEquals(0, cache.get(keys[OverlapCache.WAYS + 1],
+                        keys[1]));
+            }
+        } finally {
+            Files.deleteIfExists(file.toPath());
+        }
+    }
+
+    @Test
+    public void testGet_colliding_content_hash_misses() throws IOException {
+        File file = File.createTempFile("overlaps", ".bin");
+        try (OverlapCache cache = OverlapCache.open(file.getPath(), 64)) {
+            OverlapCache.Key key1 = new OverlapCache.Key(1, 2, 8);
+            OverlapCache.Key key2 = new OverlapCache.Key(3, 4, 13);
+            cache.put(key1, key2, 5);
+            /*
+             * Same content hashes, but another check hash or length: a
+             * different pair of fragments
+             */
+            assertEquals(OverlapCache.MISSING,
+                    cache.get(new OverlapCache.Key(1, 9, 8), key2));
+            assertEquals(OverlapCache.MISSING,
+                    cache.get(key1, new OverlapCache.Key(3, 4, 12)));
+            assertEquals(5, cache.get(key1, key2));
+        } finally {
+            Files.deleteIfExists(file.toPath());
+        }
+    }
+
+    @Test
+    public void testAssemble_colliding_entry_recomputed() throws IOException {
+        File file = File.createTempFile("overlaps", ".bin");
+        try (OverlapCache cache = OverlapCache.open(file.getPath(), 64)) {
+            /*
+             * Plant under the content hashes of a pair an overlap that is
+             * real but not the longest, as a colliding pair of other
+             * fragments could have left it
+             */
+            String str1 = "xabab";
+            String str2 = "ababy";
+            OverlapCache.Key key1 = OverlapCache.Key.of(str1);
+            OverlapCache.Key key2 = OverlapCache.Key.of(str2);
+            cache.put(new OverlapCache.Key(OverlapCache.contentHash(str1), 0,
+                    str1.length()), key2, 2);
+            Set<String> strSet = new Set1L<>();
+            strSet.add(str1);
+            strSet.add(str2);
+            StringReassembly.assemble(strSet, cache);
+            assertEquals(1, strSet.size());
+            assertEquals("xababy", strSet.removeAny());
+            assertEquals("abab".length(), cache.get(key1, key2));
+        } finally {
+            Files.deleteIfExists(file.toPath());
+        }
+    }
+
+    /*
+     * assemble with an overlap cache test cases
+     */
+
+    @Test
+    public void testAssemble_cached_matches_assemble() throws IOException {
+        File file = File.createTempFile("overlaps", ".bin");
+        try {
+            Set<String> strSet = new Set1L<>();
+            strSet.add("Bucks -- Beat");
+            strSet.add("Go Bucks");
+            strSet.add("o Bucks -- B");
+            strSet.add("Beat Mich");
+            strSet.add("Michigan~");
+            Set<String> expected = strSet.newInstance();
+            for (String str : strSet) {
+                expected.add(str);
+            }
+            StringReassembly.assemble(expected);
+            Set<String> rerun = strSet.newInstance();
+            for (String str : strSet) {
+                rerun.add(str);
+            }
+            try (OverlapCache cache = OverlapCache.open(file.getPath(), 64)) {
+                StringReassembly.assemble(strSet, cache);
+            }
+            assertEquals(expected, strSet);
+            /*
+             * A rerun on the same fragments finds every overlap in the cache
+             */
+            try (OverlapCache cache = OverlapCache.open(file.getPath(), 64)) {
+                StringReassembly.assemble(rerun, cache);
+                assertEquals(0, cache.misses());
+            }
+            assertEquals(expected, rerun);
+        } finally {
+            Files.deleteIfExists(file.toPath());
+        }
+    }
+
+    @Test
+    public void testAssemble_cached_matches_assemble_on_ties()
+            throws IOException {
+        final int count = 60;
+        File file = File.createTempFile("overlaps", ".bin");
+        try {
+            for (long seed = 1; seed <= 10; seed++) {
+                Set<String> strSet = randomStrings(count, seed);
+                Set<String> expected = strSet.newInstance();
+                Set<String> rerun = strSet.newInstance();
+                for (String str : strSet) {
+                    expected.add(str);
+                    rerun.add(str);
+                }
+                StringReassembly.assemble(expected);
+                try (OverlapCache cache = OverlapCache.open(file.getPath(),
+                        1024)) {
+                    StringReassembly.assemble(strSet, cache);
+                }
+                assertEquals(expected, strSet);
+                /*
+                 * A warm cache makes no difference either
+                 */
+                try (OverlapCache cache = OverlapCache.open(file.getPath(),
+                        1024)) {
+                    StringReassembly.assemble(rerun, cache);
+                }
+                assertEquals(expected, rerun);
+            }
+        } finally {
+            Files.deleteIfExists(file.toPath());
+        }
+    }
+
+}
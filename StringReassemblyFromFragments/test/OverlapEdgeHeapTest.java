@@ -0,0 +1,55 @@
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ *
+ * @author Justin Imber
+ *
+ */
+public class OverlapEdgeHeapTest {
+
+    /*
+     * add and removeMax test cases
+     */
+
+    @Test
+    public void testRemoveMax_largest_overlap_first() {
+        OverlapEdgeHeap heap = new OverlapEdgeHeap();
+        final int overlap = 5;
+        heap.add(0, 1, 2);
+        heap.add(2, 3, overlap);
+        heap.add(1, 2, 2);
+        long edge = heap.removeMax();
+        assertEquals(2, OverlapEdgeHeap.from(edge));
+        assertEquals(3, OverlapEdgeHeap.to(edge));
+        assertEquals(overlap, OverlapEdgeHeap.overlap(edge));
+        edge = heap.removeMax();
+        assertEquals(0, OverlapEdgeHeap.from(edge));
+        assertEquals(1, heap.size());
+    }
+
+    @Test
+    public void testAdd_largest_fields() {
+        OverlapEdgeHeap heap = new OverlapEdgeHeap();
+        final int max = OverlapEdgeHeap.MAX_FIELD;
+        heap.add(max, max, max);
+        long edge = heap.removeMax();
+        assertEquals(max, OverlapEdgeHeap.from(edge));
+        assertEquals(max, OverlapEdgeHeap.to(edge));
+        assertEquals(max, OverlapEdgeHeap.overlap(edge));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAdd_from_too_large() {
+        OverlapEdgeHeap heap = new OverlapEdgeHeap();
+        heap.add(OverlapEdgeHeap.MAX_FIELD + 1, 0, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAdd_overlap_too_large() {
+        OverlapEdgeHeap heap = new OverlapEdgeHeap();
+        heap.add(0, 1, OverlapEdgeHeap.MAX_FIELD + 1);
+    }
+
+}
@@ -0,0 +1,105 @@
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import components.set.Set;
+import components.set.Set1L;
+import components.simplereader.SimpleReader;
+import components.simplereader.SimpleReader1L;
+
+/**
+ *
+ * @author Justin Imber
+ *
+ */
+public class OverlapGraphAssemblerTest {
+
+    /*
+     * assemble method test cases
+     */
+
+    @Test
+    public void testAssemble_cheer() {
+        Set<String> expected = new Set1L<>();
+        expected.add("Go Bucks -- Beat Michigan~");
+        Set<String> strSet = new Set1L<>();
+        strSet.add("Bucks -- Beat");
+        strSet.add("Go Bucks");
+        strSet.add("o Bucks -- B");
+        strSet.add("Beat Mich");
+        strSet.add("Michigan~");
+        OverlapGraphAssembler.assemble(strSet);
+        assertEquals(expected, strSet);
+    }
+
+    @Test
+    public void testAssemble_no_overlaps() {
+        Set<String> expected = new Set1L<>();
+        expected.add("campaign wars");
+        expected.add("the president");
+        Set<String> strSet = new Set1L<>();
+        strSet.add("campaign wars");
+        strSet.add("the president");
+        OverlapGraphAssembler.assemble(strSet);
+        assertEquals(expected, strSet);
+    }
+
+    @Test
+    public void testAssemble_matches_greedy() {
+        Set<String> strSet = new Set1L<>();
+        strSet.add("we, the peo");
+        strSet.add("the people, are");
+        strSet.add("ople, are great");
+        strSet.add("great nation");
+        Set<String> expected = strSet.newInstance();
+        for (String str : strSet) {
+            expected.add(str);
+        }
+        StringReassembly.assemble(expected);
+        OverlapGraphAssembler.assemble(strSet);
+        assertEquals(expected, strSet);
+    }
+
+    @Test
+    public void testAssemble_min_overlap_skips_short_overlaps() {
+        Set<String> expected = new Set1L<>();
+        expected.add("we, the people, are great");
+        expected.add("there");
+        Set<String> strSet = new Set1L<>();
+        strSet.add("we, the peo");
+        strSet.add("the people, are");
+        strSet.add("ople, are great");
+        strSet.add("there");
+        final int minOverlap = 3;
+        OverlapGraphAssembler.assemble(strSet, minOverlap);
+        assertEquals(expected, strSet);
+    }
+
+    @Test
+    public void testAssemble_overlaps_shorter_than_k() {
+        Set<String> expected = new Set1L<>();
+        expected.add("we, the people, are great");
+        Set<String> strSet = new Set1L<>();
+        strSet.add("we, the peo");
+        strSet.add("the people, are");
+        strSet.add("ople, are great");
+        final int k = 8;
+        OverlapGraphAssembler.assemble(strSet, k, 1);
+        assertEquals(expected, strSet);
+    }
+
+    @Test
+    public void testAssemble_kmer_matches_greedy() {
+        SimpleReader in = new SimpleReader1L("data/gettysburg-30-6.txt");
+        Set<String> strSet = StringReassembly.linesFromInput(in);
+        in.close();
+        Set<String> expected = strSet.newInstance();
+        for (String str : strSet) {
+            expected.add(str);
+        }
+        OverlapGraphAssembler.assemble(expected);
+        AssemblyEngine.KMER.assemble(strSet);
+        assertEquals(expected, strSet);
+    }
+
+}
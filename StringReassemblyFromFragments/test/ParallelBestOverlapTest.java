@@ -0,0 +1,143 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import components.set.Set;
+
+/**
+ *
+ * @author Justin Imber
+ *
+ */
+public class ParallelBestOverlapTest {
+
+    /**
+     * Returns a set of {@code count} random strings over the alphabet "ab",
+     * none a substring of another, so that many pairs tie for the best
+     * overlap.
+     *
+     * @param count
+     *            number of strings generated before dropping contained ones
+     * @param seed
+     *            seed of the generator
+     * @return the strings
+     */
+    private static Set<String> randomStrings(int count, long seed) {
+        final int minLength = 8;
+        final int lengths = 5;
+        Random random = new Random(seed);
+        String[] strings = new String[count];
+        for (int i = 0; i < count; i++) {
+            StringBuilder str = new StringBuilder();
+            int length = minLength + random.nextInt(lengths);
+            for (int k = 0; k < length; k++) {
+                str.append((char) ('a' + random.nextInt(2)));
+            }
+            strings[i] = str.toString();
+        }
+        Set<String> strSet = new Set4<>();
+        for (int i : ContainmentFilter.maximalIndices(strings)) {
+            strSet.add(strings[i]);
+        }
+        return strSet;
+    }
+
+    /**
+     * Returns a copy of {@code strSet}, built by adding its strings in
+     * iteration order.
+     *
+     * @param strSet
+     *            the set copied
+     * @return the copy
+     */
+    private static Set<String> copy(Set<String> strSet) {
+        Set<String> copy = strSet.newInstance();
+        for (String str : strSet) {
+            copy.add(str);
+        }
+        return copy;
+    }
+
+    /*
+     * bestOverlap method test cases
+     */
+
+    @Test
+    public void testBestOverlap_leaves_set_as_sequential_scan() {
+        final int count = 60;
+        Set<String> strSet = randomStrings(count, 1);
+        Set<String> before = copy(strSet);
+        String[] bestTwo = new String[2];
+        assertTrue(ParallelBestOverlap.bestOverlap(strSet, bestTwo) > 0);
+        assertEquals(before, strSet);
+        assertTrue(strSet.contains(bestTwo[0]));
+        assertTrue(strSet.contains(bestTwo[1]));
+    }
+
+    /*
+     * splitRow method test cases
+     */
+
+    @Test
+    public void testSplitRow_halves_pairs() {
+        final int n = 1000;
+        int mid = ParallelBestOverlap.splitRow(n, 0, n);
+        long left = ParallelBestOverlap.pairsBefore(n, mid);
+        long right = ParallelBestOverlap.pairsBefore(n, n) - left;
+        /*
+         * Off from an even split by less than one row
+         */
+        assertTrue(Math.abs(left - right) <= 2 * (n - mid));
+        assertTrue(mid < n / 2);
+    }
+
+    /*
+     * assemble method test cases
+     */
+
+    @Test
+    public void testAssemble_matches_sequential_on_ties() {
+        final int count = 60;
+        for (long seed = 1; seed <= 20; seed++) {
+            Set<String> strSet = randomStrings(count, seed);
+            Set<String> expected = copy(strSet);
+            StringReassembly.assemble(expected);
+            AssemblyEngine.PARALLEL.assemble(strSet);
+            assertEquals(expected, strSet);
+        }
+    }
+
+    @Test
+    public void testAssemble_matches_sequential_on_large_ties() {
+        /*
+         * Enough strings that the scan is split between tasks
+         */
+        final int count = 400;
+        Set<String> strSet = randomStrings(count, 1);
+        Set<String> expected = copy(strSet);
+        StringReassembly.assemble(expected);
+        AssemblyEngine.PARALLEL.assemble(strSet);
+        assertEquals(expected, strSet);
+    }
+
+    @Test
+    public void testAssemble_matches_sequential() {
+        Set<String> strSet = new Set4<>();
+        strSet.add("Bucks -- Beat");
+        strSet.add("Go Bucks");
+        strSet.add("o Bucks -- B");
+        strSet.add("Beat Mich");
+        strSet.add("Michigan~");
+        Set<String> expected = strSet.newInstance();
+        for (String str : strSet) {
+            expected.add(str);
+        }
+        StringReassembly.assemble(expected);
+        AssemblyEngine.PARALLEL.assemble(strSet);
+        assertEquals(expected, strSet);
+    }
+
+}
@@ -0,0 +1,189 @@
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import components.set.Set;
+import components.set.Set1L;
+import components.simplereader.SimpleReader;
+import components.simplereader.SimpleReader1L;
+
+/**
+ *
+ * @author Justin Imber
+ *
+ */
+public class RollingHashOverlapTest {
+
+    /**
+     * Returns a random string of 1 to {@code maxLength} characters over the
+     * alphabet "ab", so that many pairs overlap.
+     *
+     * @param random
+     *            source of randomness
+     * @param maxLength
+     *            largest length
+     * @return the string
+     */
+    private static String randomString(Random random, int maxLength) {
+        StringBuilder str = new StringBuilder();
+        int length = 1 + random.nextInt(maxLength);
+        for (int i = 0; i < length; i++) {
+            str.append((char) ('a' + random.nextInt(2)));
+        }
+        return str.toString();
+    }
+
+    /**
+     * Checks that {@code table} finds the same overlap as
+     * {@link OverlapKernel} in both directions on many random pairs.
+     *
+     * @param table
+     *            the table to check
+     */
+    private static void assertAgreesWithKernel(RollingHashOverlap table) {
+        final int pairs = 2000;
+        final int maxLength = 12;
+        Random random = new Random(1);
+        for (int t = 0; t < pairs; t++) {
+            String str1 = randomString(random, maxLength);
+            String str2 = randomString(random, maxLength);
+            int i = table.add(str1);
+            int j = table.add(str2);
+            assertEquals(OverlapKernel.overlap(str1, str2),
+                    table.overlap(i, j));
+            assertEquals(OverlapKernel.overlap(str2, str1),
+                    table.overlap(j, i));
+        }
+    }
+
+    /**
+     * Returns the maximal lines of the file {@code fileName}.
+     *
+     * @param fileName
+     *            name of the file
+     * @return the lines, none a substring of another
+     */
+    private static Set<String> linesOf(String fileName) {
+        SimpleReader in = new SimpleReader1L(fileName);
+        Set<String> strSet = StringReassembly.linesFromInput(in);
+        in.close();
+        return strSet;
+    }
+
+    /*
+     * overlap method test cases
+     */
+
+    @Test
+    public void testOverlap_matches_kernel() {
+        assertAgreesWithKernel(new RollingHashOverlap(1));
+    }
+
+    @Test
+    public void testOverlap_every_hash_collides() {
+        /*
+         * Modulo 1 every hash is 0, so every length is a hash hit and only
+         * the check of the characters gets the answer right
+         */
+        assertAgreesWithKernel(new RollingHashOverlap(0, 1));
+    }
+
+    @Test
+    public void testOverlap_many_hashes_collide() {
+        assertAgreesWithKernel(new RollingHashOverlap(2, 3));
+    }
+
+    /*
+     * merge method test cases
+     */
+
+    @Test
+    public void testMerge_rehashes() {
+        RollingHashOverlap table = new RollingHashOverlap(1);
+        int i = table.add("Go Bucks");
+        int j = table.add("Bucks -- Beat");
+        int k = table.add("Beat Mich");
+        table.merge(i, j, "Bucks".length());
+        assertEquals(2, table.size());
+        assertEquals("Go Bucks -- Beat", table.fragment(i));
+        /*
+         * The fragment after the removed one moved down into its slot
+         */
+        assertEquals("Beat Mich", table.fragment(j));
+        assertEquals("Beat".length(), table.overlap(i, j));
+        assertEquals(0, table.overlap(j, i));
+        assertEquals(2, k);
+    }
+
+    @Test
+    public void testMerge_keeps_order() {
+        RollingHashOverlap table = new RollingHashOverlap(1);
+        table.add("aa");
+        table.add("ab");
+        table.add("ba");
+        table.add("bbbb");
+        table.merge(0, 1, 1);
+        assertEquals(3, table.size());
+        assertEquals("aab", table.fragment(0));
+        assertEquals("ba", table.fragment(1));
+        assertEquals("bbbb", table.fragment(2));
+    }
+
+    /*
+     * assemble method test cases
+     */
+
+    @Test
+    public void testAssemble_matches_in_place() {
+        String[] files = { "data/cheer-8-2.txt", "data/gettysburg-30-4.txt",
+                "data/gettysburg-30-6.txt" };
+        for (String fileName : files) {
+            Set<String> expected = linesOf(fileName);
+            StringReassembly.assemble(expected);
+            Set<String> strSet = linesOf(fileName);
+            RollingHashOverlap.assemble(strSet);
+            assertEquals(expected, strSet);
+        }
+    }
+
+    @Test
+    public void testAssemble_ties_follow_sorted_order() {
+        /*
+         * Sorted, the strings are aa, ab, ba, bbbb; the first pair with the
+         * best overlap, 1, is (aa, ab), and then (aab, ba)
+         */
+        Set<String> expected = new Set1L<>();
+        expected.add("aaba");
+        expected.add("bbbb");
+        Set<String> strSet = new Set1L<>();
+        strSet.add("bbbb");
+        strSet.add("ba");
+        strSet.add("ab");
+        strSet.add("aa");
+        RollingHashOverlap.assemble(strSet);
+        assertEquals(expected, strSet);
+    }
+
+    @Test
+    public void testAssemble_colliding_hashes() {
+        Set<String> expected = linesOf("data/gettysburg-30-4.txt");
+        RollingHashOverlap.assemble(expected);
+        Set<String> strSet = linesOf("data/gettysburg-30-4.txt");
+        RollingHashOverlap.assemble(strSet, new RollingHashOverlap(2, 3));
+        assertEquals(expected, strSet);
+    }
+
+    @Test
+    public void testAssemble_engine() {
+        Set<String> strSet = new Set1L<>();
+        strSet.add("Go Bucks");
+        strSet.add("Bucks -- Beat");
+        strSet.add("Beat Mich");
+        AssemblyEngine.ROLLING_HASH.assemble(strSet);
+        assertEquals(1, strSet.size());
+        assertEquals("Go Bucks -- Beat Mich", strSet.removeAny());
+    }
+
+}
@@ -0,0 +1,108 @@
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import components.set.Set;
+import components.set.Set1L;
+import components.simplereader.SimpleReader;
+import components.simplereader.SimpleReader1L;
+
+/**
+ *
+ * @author Justin Imber
+ *
+ */
+public class RopeAssemblerTest {
+
+    /**
+     * Returns the fragments of {@code fileName}, contained ones dropped.
+     *
+     * @param fileName
+     *            the fragment file
+     * @return the fragments
+     */
+    private static Set<String> fragments(String fileName) {
+        SimpleReader in = new SimpleReader1L(fileName);
+        Set<String> strSet = StringReassembly.linesFromInput(in);
+        in.close();
+        return strSet;
+    }
+
+    /*
+     * overlap method test cases
+     */
+
+    @Test
+    public void testOverlap() {
+        Rope rope1 = Rope.valueOf("Go ").concat(Rope.valueOf("Bucks"));
+        Rope rope2 = Rope.valueOf("Bucks -").concat(Rope.valueOf("- Beat"));
+        assertEquals(5, RopeAssembler.overlap(rope1, rope2));
+        assertEquals(0, RopeAssembler.overlap(rope2, rope1));
+    }
+
+    /*
+     * assemble method test cases
+     */
+
+    @Test
+    public void testAssemble_cheer() {
+        Set<String> expected = new Set1L<>();
+        expected.add("Go Bucks -- Beat Michigan~");
+        Set<String> strSet = new Set1L<>();
+        strSet.add("Bucks -- Beat");
+        strSet.add("Go Bucks");
+        strSet.add("o Bucks -- B");
+        strSet.add("Beat Mich");
+        strSet.add("Michigan~");
+        RopeAssembler.assemble(strSet);
+        assertEquals(expected, strSet);
+    }
+
+    @Test
+    public void testAssemble_gettysburg_matches_assemble() {
+        Set<String> expected = fragments("data/gettysburg-30-4.txt");
+        StringReassembly.assemble(expected);
+        Set<String> strSet = fragments("data/gettysburg-30-4.txt");
+        RopeAssembler.assemble(strSet);
+        assertEquals(expected, strSet);
+    }
+
+    @Test
+    public void testAssemble_ties_follow_sorted_order() {
+        /*
+         * Every overlap is 1: "aa" takes "ab", then "aab" takes "ba", the
+         * next rope in sorted order, rather than "bbbb"
+         */
+        Set<String> expected = new Set1L<>();
+        expected.add("aaba");
+        expected.add("bbbb");
+        Set<String> strSet = new Set1L<>();
+        strSet.add("bbbb");
+        strSet.add("ba");
+        strSet.add("ab");
+        strSet.add("aa");
+        RopeAssembler.assemble(strSet);
+        assertEquals(expected, strSet);
+    }
+
+    @Test
+    public void testAssemble_two_contigs_growing() {
+        /*
+         * Two contigs grow side by side, so each rope's kept ends must widen
+         * as the other grows
+         */
+        Set<String> expected = new Set1L<>();
+        expected.add("abcdefghijklmnop");
+        expected.add("ABCDEFGHIJKLMNOP");
+        Set<String> strSet = new Set1L<>();
+        strSet.add("abcdefg");
+        strSet.add("efghijk");
+        strSet.add("ijklmnop");
+        strSet.add("ABCDEFG");
+        strSet.add("EFGHIJK");
+        strSet.add("IJKLMNOP");
+        RopeAssembler.assemble(strSet);
+        assertEquals(expected, strSet);
+    }
+
+}
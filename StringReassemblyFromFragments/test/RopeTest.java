@@ -0,0 +1,99 @@
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ *
+ * @author Justin Imber
+ *
+ */
+public class RopeTest {
+
+    /**
+     * Returns the rope made by appending the decimal numbers from 0 to
+     * {@code count - 1}, one at a time, and puts the same characters in
+     * {@code expected}.
+     *
+     * @param count
+     *            number of pieces
+     * @param expected
+     *            the builder receiving the characters
+     * @return the rope
+     */
+    private static Rope numbers(int count, StringBuilder expected) {
+        Rope rope = Rope.valueOf("");
+        for (int i = 0; i < count; i++) {
+            String piece = Integer.toString(i) + ",";
+            rope = rope.concat(Rope.valueOf(piece));
+            expected.append(piece);
+        }
+        return rope;
+    }
+
+    /*
+     * concat and toString method test cases
+     */
+
+    @Test
+    public void testConcat_small() {
+        Rope rope = Rope.valueOf("Go ").concat(Rope.valueOf("Bucks"));
+        assertEquals(8, rope.length());
+        assertEquals("Go Bucks", rope.toString());
+    }
+
+    @Test
+    public void testConcat_empty() {
+        Rope rope = Rope.valueOf("").concat(Rope.valueOf("Bucks"))
+                .concat(Rope.valueOf(""));
+        assertEquals("Bucks", rope.toString());
+    }
+
+    @Test
+    public void testConcat_many() {
+        final int count = 5000;
+        StringBuilder expected = new StringBuilder();
+        Rope rope = numbers(count, expected);
+        assertEquals(expected.length(), rope.length());
+        assertEquals(expected.toString(), rope.toString());
+    }
+
+    /*
+     * charAt, subSequence, prefix, and suffix method test cases
+     */
+
+    @Test
+    public void testCharAt_many() {
+        final int count = 2000;
+        StringBuilder expected = new StringBuilder();
+        Rope rope = numbers(count, expected);
+        for (int i = 0; i < expected.length(); i++) {
+            assertEquals(expected.charAt(i), rope.charAt(i));
+        }
+    }
+
+    @Test
+    public void testSubSequence_across_leaves() {
+        final int count = 2000;
+        StringBuilder expected = new StringBuilder();
+        Rope rope = numbers(count, expected);
+        final int start = 1234;
+        final int end = 5678;
+        assertEquals(expected.substring(start, end),
+                rope.subSequence(start, end).toString());
+        assertEquals("", rope.subSequence(start, start).toString());
+    }
+
+    @Test
+    public void testPrefixSuffix() {
+        final int count = 2000;
+        StringBuilder expected = new StringBuilder();
+        Rope rope = numbers(count, expected);
+        final int k = 777;
+        assertEquals(expected.substring(0, k), rope.prefix(k));
+        assertEquals(expected.substring(expected.length() - k),
+                rope.suffix(k));
+        assertEquals("", rope.prefix(0));
+        assertEquals(expected.toString(), rope.suffix(rope.length()));
+    }
+
+}
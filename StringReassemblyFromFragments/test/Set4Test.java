@@ -0,0 +1,113 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import components.set.Set;
+import components.set.Set1L;
+
+/**
+ *
+ * @author Justin Imber
+ *
+ */
+public class Set4Test {
+
+    /*
+     * add method test cases
+     */
+
+    @Test
+    public void testAdd_empty() {
+        Set<String> expected = new Set1L<>();
+        expected.add("we, the people");
+        Set<String> s = new Set4<>();
+        s.add("we, the people");
+        assertEquals(expected, s);
+    }
+
+    @Test
+    public void testAdd_many_grows_table() {
+        final int count = 1000;
+        Set<String> expected = new Set1L<>();
+        Set<String> s = new Set4<>();
+        for (int i = 0; i < count; i++) {
+            expected.add("fragment " + i);
+            s.add("fragment " + i);
+        }
+        assertEquals(count, s.size());
+        assertEquals(expected, s);
+    }
+
+    /*
+     * remove method test cases
+     */
+
+    @Test
+    public void testRemove_every_other() {
+        final int count = 1000;
+        Set<String> expected = new Set1L<>();
+        Set<String> s = new Set4<>();
+        for (int i = 0; i < count; i++) {
+            s.add("fragment " + i);
+            if (i % 2 == 1) {
+                expected.add("fragment " + i);
+            }
+        }
+        for (int i = 0; i < count; i += 2) {
+            assertEquals("fragment " + i, s.remove("fragment " + i));
+        }
+        assertEquals(expected, s);
+    }
+
+    /*
+     * removeAny method test cases
+     */
+
+    @Test
+    public void testRemoveAny_until_empty() {
+        final int count = 100;
+        Set<String> s = new Set4<>();
+        for (int i = 0; i < count; i++) {
+            s.add("fragment " + i);
+        }
+        Set<String> removed = new Set1L<>();
+        while (s.size() > 0) {
+            String x = s.removeAny();
+            assertFalse(s.contains(x));
+            removed.add(x);
+        }
+        assertEquals(count, removed.size());
+    }
+
+    /*
+     * contains method test cases
+     */
+
+    @Test
+    public void testContains_present_and_absent() {
+        Set<String> s = new Set4<>();
+        s.add("campaign wars");
+        s.add("the president");
+        assertTrue(s.contains("campaign wars"));
+        assertFalse(s.contains("a wonder of the world"));
+    }
+
+    /*
+     * transferFrom method test cases
+     */
+
+    @Test
+    public void testTransferFrom() {
+        Set<String> expected = new Set1L<>();
+        expected.add("campaign wars");
+        Set<String> s = new Set4<>();
+        Set<String> source = new Set4<>();
+        source.add("campaign wars");
+        s.transferFrom(source);
+        assertEquals(expected, s);
+        assertEquals(0, source.size());
+    }
+
+}
@@ -0,0 +1,516 @@
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.Random;
+
+import org.junit.Test;
+
+import components.set.Set;
+import components.simplereader.SimpleReader;
+import components.simplereader.SimpleReader1L;
+
+/**
+ * Performance regression tests: reads generated fragment files of growing size
+ * and assembles them with the engines {@link StringReassembly#main} uses most,
+ * the default {@link AssemblyEngine#GREEDY} and the
+ * {@link AssemblyEngine#IN_PLACE} engine of {@link StringReassembly#assemble}
+ * that checkpoints and the overlap cache need, and with the near-linear
+ * {@link AssemblyEngine#BEST_OVERLAP} up to 100,000 fragments. The tests fail
+ * if the bytes allocated for any size, the time of any size relative to a
+ * calibration run, or the exponent {@code b} of the best fit
+ * {@code time = a * n^b} for an engine, has grown too far past the baselines
+ * recorded in {@value #BASELINES}. Running the tests with
+ * {@code -Dstringreassembly.scale.record=true} records new baselines instead,
+ * after a deliberate change in performance.
+ *
+ * <p>
+ * These checks compare the code with itself rather than with the machine the
+ * baselines were recorded on: the exponent is a ratio of times, the bytes
+ * allocated do not depend on the speed of the machine, and each time is
+ * divided by the time this machine takes for a fixed calibration workload
+ * that does not use the code under test. The times themselves are only
+ * checked against their baselines when
+ * {@code -Dstringreassembly.scale.timing=true} is given, on the machine that
+ * recorded them.
+ *
+ * @author Justin Imber
+ *
+ */
+public class StringReassemblyScaleTest {
+
+    /**
+     * File holding the recorded baselines.
+     */
+    private static final String BASELINES = "test/scale-baselines.properties";
+
+    /**
+     * System property that, when true, records new baselines.
+     */
+    private static final String RECORD_PROPERTY = ""
+            + "stringreassembly.scale.record";
+
+    /**
+     * System property that, when true, checks the times against their
+     * baselines.
+     */
+    private static final String TIMING_PROPERTY = ""
+            + "stringreassembly.scale.timing";
+
+    /**
+     * Engines measured.
+     */
+    private static final AssemblyEngine[] ENGINES = { AssemblyEngine.GREEDY,
+        AssemblyEngine.IN_PLACE, AssemblyEngine.BEST_OVERLAP };
+
+    /**
+     * Numbers of fragments generated for each engine: the all-pairs overlap
+     * graph of {@code GREEDY} takes time quadratic in the number of
+     * fragments, {@code IN_PLACE} time cubic in it, and {@code BEST_OVERLAP}
+     * time close to linear in it.
+     */
+    private static final int[][] SIZES = { { 1000, 2000, 4000, 10000 },
+        { 100, 200, 400 }, { 1000, 10000, 100000 } };
+
+    /**
+     * Number of runs of each size but the largest, which is run once; the
+     * fastest counts.
+     */
+    private static final int RUNS = 3;
+
+    /**
+     * Number of distinct words in the generated text. The few hundred words of
+     * the bundled samples would repeat so often in a text of 100,000
+     * fragments that almost every pair of fragments would overlap by
+     * {@code MIN_OVERLAP} or more, making the overlap graph quadratic in size
+     * for any engine.
+     */
+    private static final int VOCABULARY = 20000;
+
+    /**
+     * Length of the longest word of the generated text.
+     */
+    private static final int MAX_WORD_LENGTH = 9;
+
+    /**
+     * Length of each generated fragment.
+     */
+    private static final int FRAGMENT_LENGTH = 30;
+
+    /**
+     * Minimum overlap between consecutive generated fragments.
+     */
+    private static final int MIN_OVERLAP = 6;
+
+    /**
+     * Coverage of the generated fragments.
+     */
+    private static final double COVERAGE = 3.0;
+
+    /**
+     * How many times its baseline a time may be.
+     */
+    private static final double TIME_TOLERANCE = 3.0;
+
+    /**
+     * How many times its baseline a time relative to the calibration run may
+     * be; looser than {@code TIME_TOLERANCE}, since machines differ in the
+     * relative speed of different workloads too.
+     */
+    private static final double NORMALIZED_TIME_TOLERANCE = 4.0;
+
+    /**
+     * Number of strings compared pairwise by the calibration run.
+     */
+    private static final int CALIBRATION_STRINGS = 1500;
+
+    /**
+     * How many times its baseline an allocation may be.
+     */
+    private static final double BYTES_TOLERANCE = 1.25;
+
+    /**
+     * How far above its baseline a scaling exponent may be.
+     */
+    private static final double EXPONENT_TOLERANCE = 0.5;
+
+    /**
+     * Time of each size for each engine, in nanoseconds, once measured.
+     */
+    private static long[][] nanos = null;
+
+    /**
+     * Bytes allocated for each size for each engine, or -1 if the JVM cannot
+     * tell.
+     */
+    private static long[][] bytes = null;
+
+    /**
+     * Time of the calibration run, in nanoseconds, once measured.
+     */
+    private static long calibrationNanos = 0;
+
+    /**
+     * Reports the number of bytes allocated so far by the current thread, or
+     * -1 if the JVM cannot tell.
+     *
+     * @return bytes allocated by the current thread, or -1
+     */
+    private static long allocatedBytes() {
+        long allocated = -1;
+        java.lang.management.ThreadMXBean bean = ManagementFactory
+                .getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean sunBean;
+            sunBean = (com.sun.management.ThreadMXBean) bean;
+            if (sunBean.isThreadAllocatedMemorySupported()
+                    && sunBean.isThreadAllocatedMemoryEnabled()) {
+                allocated = sunBean.getThreadAllocatedBytes(
+                        Thread.currentThread().getId());
+            }
+        }
+        return allocated;
+    }
+
+    /**
+     * Returns {@value #VOCABULARY} random words of two to
+     * {@value #MAX_WORD_LENGTH} lowercase letters, the same ones every time.
+     *
+     * @return the words
+     */
+    static String[] vocabulary() {
+        final int minLength = 2;
+        final int letters = 26;
+        Random random = new Random(VOCABULARY);
+        String[] words = new String[VOCABULARY];
+        for (int w = 0; w < words.length; w++) {
+            StringBuilder word = new StringBuilder();
+            int length = minLength
+                    + random.nextInt(MAX_WORD_LENGTH - minLength + 1);
+            for (int k = 0; k < length; k++) {
+                word.append((char) ('a' + random.nextInt(letters)));
+            }
+            words[w] = word.toString();
+        }
+        return words;
+    }
+
+    /**
+     * Writes a fragment file of about {@code size} fragments of a text made of
+     * words picked at random from {@code words}.
+     *
+     * @param words
+     *            the words
+     * @param size
+     *            number of fragments
+     * @return the fragment file
+     * @throws IOException
+     *             if the file cannot be written
+     */
+    static File fragmentFile(String[] words, int size)
+            throws IOException {
+        Random random = new Random(size);
+        StringBuilder text = new StringBuilder();
+        while (text.length() < size * FRAGMENT_LENGTH / COVERAGE) {
+            text.append(words[random.nextInt(words.length)]).append(' ');
+        }
+        File file = File.createTempFile("scale-" + size + "-", ".txt");
+        file.deleteOnExit();
+        FragmentGenerator.write(FragmentGenerator.fragments(text.toString(),
+                FRAGMENT_LENGTH, MIN_OVERLAP, COVERAGE, size), file.getPath());
+        return file;
+    }
+
+    /**
+     * Reads the fragments in {@code file} and assembles them with
+     * {@code engine}.
+     *
+     * @param engine
+     *            the engine
+     * @param file
+     *            the fragment file
+     */
+    private static void readAndAssemble(AssemblyEngine engine, File file) {
+        SimpleReader in = new SimpleReader1L(file.getPath());
+        Set<String> fragments = StringReassembly.linesFromInput(in);
+        in.close();
+        engine.assemble(fragments);
+    }
+
+    /**
+     * Times a fixed workload resembling an assembly but using none of the code
+     * under test: the naive overlap of every ordered pair of a fixed set of
+     * random strings, computed by comparing characters one at a time.
+     *
+     * @return the fastest of {@code RUNS} runs, in nanoseconds
+     */
+    private static long calibrate() {
+        Random random = new Random(CALIBRATION_STRINGS);
+        final int letters = 4;
+        String[] strings = new String[CALIBRATION_STRINGS];
+        for (int i = 0; i < strings.length; i++) {
+            StringBuilder str = new StringBuilder();
+            for (int j = 0; j < FRAGMENT_LENGTH; j++) {
+                str.append((char) ('a' + random.nextInt(letters)));
+            }
+            strings[i] = str.toString();
+        }
+        long fastest = Long.MAX_VALUE;
+        long checksum = 0;
+        for (int run = 0; run < RUNS; run++) {
+            long start = System.nanoTime();
+            for (String str1 : strings) {
+                for (String str2 : strings) {
+                    int overlap = str2.length() - 1;
+                    boolean matches = false;
+                    while (!matches && overlap > 0) {
+                        int from = str1.length() - overlap;
+                        int i = 0;
+                        while (i < overlap
+                                && str1.charAt(from + i) == str2.charAt(i)) {
+                            i++;
+                        }
+                        matches = i == overlap;
+                        if (!matches) {
+                            overlap--;
+                        }
+                    }
+                    checksum += overlap;
+                }
+            }
+            fastest = Math.min(fastest, System.nanoTime() - start);
+        }
+        /*
+         * Use the result, so that the loop cannot be optimized away
+         */
+        assertTrue(checksum >= 0);
+        return fastest;
+    }
+
+    /**
+     * Times reading and assembling each file of {@code files} with
+     * {@code engine}, and measures the bytes allocated doing it.
+     *
+     * @param engine
+     *            the engine
+     * @param files
+     *            the fragment files, smallest first
+     * @param times
+     *            the time of each file, in nanoseconds
+     * @param allocations
+     *            the bytes allocated for each file, or -1
+     * @replaces times, allocations
+     */
+    private static void measure(AssemblyEngine engine, File[] files,
+            long[] times, long[] allocations) {
+        /*
+         * Warm up the JIT on the smallest input
+         */
+        for (int i = 0; i < RUNS; i++) {
+            readAndAssemble(engine, files[0]);
+        }
+        for (int s = 0; s < files.length; s++) {
+            int runs = RUNS;
+            if (s == files.length - 1) {
+                runs = 1;
+            }
+            times[s] = Long.MAX_VALUE;
+            for (int i = 0; i < runs; i++) {
+                long bytesBefore = allocatedBytes();
+                long start = System.nanoTime();
+                readAndAssemble(engine, files[s]);
+                times[s] = Math.min(times[s], System.nanoTime() - start);
+                long bytesAfter = allocatedBytes();
+                allocations[s] = -1;
+                if (bytesBefore >= 0 && bytesAfter >= 0) {
+                    allocations[s] = bytesAfter - bytesBefore;
+                }
+            }
+        }
+    }
+
+    /**
+     * Measures every size once, the first time it is called, recording new
+     * baselines if {@value #RECORD_PROPERTY} is true.
+     *
+     * @throws IOException
+     *             if the fragment files or the baselines cannot be written
+     */
+    private static synchronized void measure() throws IOException {
+        if (nanos == null) {
+            String[] words = vocabulary();
+            calibrationNanos = calibrate();
+            long[][] times = new long[ENGINES.length][];
+            long[][] allocations = new long[ENGINES.length][];
+            for (int e = 0; e < ENGINES.length; e++) {
+                File[] files = new File[SIZES[e].length];
+                for (int s = 0; s < files.length; s++) {
+                    files[s] = fragmentFile(words, SIZES[e][s]);
+                }
+                times[e] = new long[files.length];
+                allocations[e] = new long[files.length];
+                measure(ENGINES[e], files, times[e], allocations[e]);
+                for (File file : files) {
+                    file.delete();
+                }
+            }
+            nanos = times;
+            bytes = allocations;
+            if (Boolean.getBoolean(RECORD_PROPERTY)) {
+                Properties baselines = new Properties();
+                baselines.setProperty("calibration.nanos",
+                        Long.toString(calibrationNanos));
+                for (int e = 0; e < ENGINES.length; e++) {
+                    for (int s = 0; s < SIZES[e].length; s++) {
+                        String key = ENGINES[e] + "." + SIZES[e][s];
+                        baselines.setProperty(key + ".nanos",
+                                Long.toString(nanos[e][s]));
+                        baselines.setProperty(key + ".bytes",
+                                Long.toString(bytes[e][s]));
+                    }
+                    baselines.setProperty(ENGINES[e] + ".exponent",
+                            String.format(Locale.ROOT, "%.2f",
+                                    scalingExponent(e)));
+                }
+                try (OutputStream out = new FileOutputStream(BASELINES)) {
+                    baselines.store(out, "Recorded by StringReassemblyScaleTest"
+                            + " on Java " + System.getProperty("java.version")
+                            + ", " + System.getProperty("os.arch"));
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the recorded baselines.
+     *
+     * @return the baselines
+     * @throws IOException
+     *             if the baselines cannot be read
+     */
+    private static Properties baselines() throws IOException {
+        Properties baselines = new Properties();
+        try (InputStream in = new FileInputStream(BASELINES)) {
+            baselines.load(in);
+        }
+        return baselines;
+    }
+
+    /**
+     * Reports the exponent {@code b} of the least-squares fit of
+     * {@code time = a * n^b} to the times measured for engine {@code e}.
+     *
+     * @param e
+     *            index of the engine in {@code ENGINES}
+     * @return the fitted exponent
+     */
+    private static double scalingExponent(int e) {
+        double sumX = 0;
+        double sumY = 0;
+        double sumXY = 0;
+        double sumXX = 0;
+        for (int s = 0; s < SIZES[e].length; s++) {
+            double x = Math.log(SIZES[e][s]);
+            double y = Math.log(nanos[e][s]);
+            sumX += x;
+            sumY += y;
+            sumXY += x * y;
+            sumXX += x * x;
+        }
+        int n = SIZES[e].length;
+        return (n * sumXY - sumX * sumY) / (n * sumXX - sumX * sumX);
+    }
+
+    /*
+     * Scale test cases
+     */
+
+    @Test
+    public void testScale_exponent_within_baseline() throws IOException {
+        measure();
+        Properties baselines = baselines();
+        for (int e = 0; e < ENGINES.length; e++) {
+            double baseline = Double.parseDouble(
+                    baselines.getProperty(ENGINES[e] + ".exponent"));
+            double exponent = scalingExponent(e);
+            assertTrue(String.format("%s scaling exponent %.2f; baseline %.2f",
+                    ENGINES[e], exponent, baseline),
+                    exponent <= baseline + EXPONENT_TOLERANCE);
+        }
+    }
+
+    @Test
+    public void testScale_allocation_within_baselines() throws IOException {
+        measure();
+        Properties baselines = baselines();
+        for (int e = 0; e < ENGINES.length; e++) {
+            for (int s = 0; s < SIZES[e].length; s++) {
+                long baseline = Long.parseLong(baselines.getProperty(
+                        ENGINES[e] + "." + SIZES[e][s] + ".bytes"));
+                /*
+                 * Only comparable when both this JVM and the recording one
+                 * could measure allocation
+                 */
+                if (bytes[e][s] >= 0 && baseline >= 0) {
+                    assertTrue(String.format(
+                            "%s on %d fragments allocated %d bytes;"
+                                    + " baseline %d bytes",
+                            ENGINES[e], SIZES[e][s], bytes[e][s], baseline),
+                            bytes[e][s] <= baseline * BYTES_TOLERANCE);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testScale_normalized_time_within_baselines()
+            throws IOException {
+        measure();
+        Properties baselines = baselines();
+        long baselineCalibration = Long
+                .parseLong(baselines.getProperty("calibration.nanos"));
+        for (int e = 0; e < ENGINES.length; e++) {
+            for (int s = 0; s < SIZES[e].length; s++) {
+                long baseline = Long.parseLong(baselines.getProperty(
+                        ENGINES[e] + "." + SIZES[e][s] + ".nanos"));
+                double baselineRatio = (double) baseline / baselineCalibration;
+                double ratio = (double) nanos[e][s] / calibrationNanos;
+                assertTrue(String.format(
+                        "%s on %d fragments took %.2f calibration runs;"
+                                + " baseline %.2f",
+                        ENGINES[e], SIZES[e][s], ratio, baselineRatio),
+                        ratio <= baselineRatio * NORMALIZED_TIME_TOLERANCE);
+            }
+        }
+    }
+
+    @Test
+    public void testScale_time_within_baselines() throws IOException {
+        /*
+         * Absolute times only mean something on the machine that recorded
+         * the baselines
+         */
+        assumeTrue(Boolean.getBoolean(TIMING_PROPERTY));
+        measure();
+        Properties baselines = baselines();
+        for (int e = 0; e < ENGINES.length; e++) {
+            for (int s = 0; s < SIZES[e].length; s++) {
+                long baseline = Long.parseLong(baselines.getProperty(
+                        ENGINES[e] + "." + SIZES[e][s] + ".nanos"));
+                assertTrue(String.format(
+                        "%s on %d fragments took %d ns; baseline %d ns",
+                        ENGINES[e], SIZES[e][s], nanos[e][s], baseline),
+                        nanos[e][s] <= baseline * TIME_TOLERANCE);
+            }
+        }
+    }
+
+}
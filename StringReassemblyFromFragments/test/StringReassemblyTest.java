@@ -1,9 +1,22 @@
 import static org.junit.Assert.assertEquals;
 
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
 import org.junit.Test;
 
 import components.set.Set;
 import components.set.Set1L;
+import components.simplereader.SimpleReader;
+import components.simplereader.SimpleReader1L;
+import components.simplewriter.SimpleWriter;
+import components.simplewriter.SimpleWriter1L;
 
 /**
  *
@@ -12,6 +25,52 @@ import components.set.Set1L;
  */
 public class StringReassemblyTest {
 
+    /**
+     * Texts for the printWithLineSeparators test cases: no '~', leading and
+     * trailing '~', consecutive '~'s, only '~'s, and nothing at all.
+     */
+    private static final String[] TILDE_CASES = { "we, the people",
+            "~Go Bucks", "Go Bucks~", "Go~~Bucks", "~~", "", "Go Bucks~~" };
+
+    /**
+     * Returns {@code text} with each '~' replaced by a line separator.
+     *
+     * @param text
+     *            the text
+     * @return the text as printWithLineSeparators should print it
+     */
+    private static String withSeparators(String text) {
+        return text.replace("~", System.lineSeparator());
+    }
+
+    /*
+     * overlap method test cases
+     */
+
+    @Test
+    public void testOverlap_untested_tested() {
+        final int expected = 6;
+        assertEquals(expected,
+                StringReassembly.overlap("untested", "tested code"));
+    }
+
+    @Test
+    public void testOverlap_none() {
+        assertEquals(0, StringReassembly.overlap("campaign", "wars"));
+    }
+
+    @Test
+    public void testOverlap_shorter_than_repeated_prefix() {
+        final int expected = 3;
+        assertEquals(expected, StringReassembly.overlap("xabaab", "aababa"));
+    }
+
+    @Test
+    public void testOverlap_repeated_characters() {
+        final int expected = 4;
+        assertEquals(expected, StringReassembly.overlap("baaaa", "aaaaab"));
+    }
+
     /*
      * combination method test cases
      */
@@ -103,4 +162,227 @@ public class StringReassemblyTest {
         StringReassembly.addToSetAvoidingSubstrings(strSet, str);
         assertEquals(expected, strSet);
     }
+
+    /*
+     * linesFromInput method test cases
+     */
+
+    @Test
+    public void testLinesFromInput_cheer() {
+        Set<String> expected = new Set1L<>();
+        expected.add("Bucks -- Beat");
+        expected.add("Go Bucks");
+        expected.add("o Bucks -- B");
+        expected.add("Beat Mich");
+        expected.add("Michigan~");
+        SimpleReader input = new SimpleReader1L("data/cheer-8-2.txt");
+        Set<String> strSet = StringReassembly.linesFromInput(input);
+        input.close();
+        assertEquals(expected, strSet);
+    }
+
+    @Test
+    public void testLinesFromInputInParallel_matches_linesFromInput() {
+        SimpleReader input = new SimpleReader1L("data/declaration-50-8.txt");
+        Set<String> expected = StringReassembly.linesFromInput(input);
+        input.close();
+        input = new SimpleReader1L("data/declaration-50-8.txt");
+        Set<String> strSet = StringReassembly.linesFromInputInParallel(input);
+        input.close();
+        assertEquals(expected, strSet);
+    }
+
+    /*
+     * printWithLineSeparators method test cases
+     */
+
+    @Test
+    public void testPrintWithLineSeparators_writer() throws IOException {
+        String nl = System.lineSeparator();
+        String expected = "Go Bucks" + nl + "Beat Michigan" + nl;
+        StringWriter out = new StringWriter();
+        StringReassembly.printWithLineSeparators("Go Bucks~Beat Michigan~",
+                out);
+        assertEquals(expected, out.toString());
+    }
+
+    @Test
+    public void testPrintWithLineSeparators_writer_no_tilde()
+            throws IOException {
+        StringWriter out = new StringWriter();
+        StringReassembly.printWithLineSeparators("we, the people", out);
+        assertEquals("we, the people", out.toString());
+    }
+
+    @Test
+    public void testPrintWithLineSeparators_writer_edge_tildes()
+            throws IOException {
+        for (String text : TILDE_CASES) {
+            StringWriter out = new StringWriter();
+            StringReassembly.printWithLineSeparators(text, out);
+            assertEquals(text, withSeparators(text), out.toString());
+        }
+    }
+
+    @Test
+    public void testPrintWithLineSeparators_simple_writer()
+            throws IOException {
+        File file = File.createTempFile("print", ".txt");
+        try {
+            for (String text : TILDE_CASES) {
+                SimpleWriter out = new SimpleWriter1L(file.getPath());
+                StringReassembly.printWithLineSeparators(text, out);
+                out.close();
+                assertEquals(text, withSeparators(text),
+                        new String(Files.readAllBytes(file.toPath()),
+                                StandardCharsets.UTF_8));
+            }
+        } finally {
+            Files.deleteIfExists(file.toPath());
+        }
+    }
+
+    @Test
+    public void testPrintWithLineSeparators_channel() throws IOException {
+        for (String text : TILDE_CASES) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (WritableByteChannel channel = Channels.newChannel(bytes)) {
+                StringReassembly.printWithLineSeparators(text, channel);
+            }
+            assertEquals(text, withSeparators(text),
+                    new String(bytes.toByteArray(), StandardCharsets.UTF_8));
+        }
+    }
+
+    /*
+     * assembleInBatches method test cases
+     */
+
+    @Test
+    public void testAssembleInBatches_matches_assemble() {
+        Set<String> strSet = new Set1L<>();
+        strSet.add("we, the peo");
+        strSet.add("the people, are");
+        strSet.add("ople, are great");
+        strSet.add("campaign wars");
+        Set<String> expected = strSet.newInstance();
+        for (String str : strSet) {
+            expected.add(str);
+        }
+        StringReassembly.assemble(expected);
+        StringReassembly.assembleInBatches(strSet);
+        assertEquals(expected, strSet);
+    }
+
+    /*
+     * assemble with an error budget test cases
+     */
+
+    @Test
+    public void testAssemble_corrupted_potato_with_errors() {
+        Set<String> expected = new Set1L<>();
+        expected.add("the potato is indeed quite corrupted");
+        Set<String> strSet = new Set1L<>();
+        strSet.add("the potato is indeed quite");
+        strSet.add("indeed qu1te corrupted");
+        StringReassembly.assemble(strSet, 1);
+        assertEquals(expected, strSet);
+    }
+
+    @Test
+    public void testAssemble_corrupted_potato_deletion() {
+        Set<String> expected = new Set1L<>();
+        expected.add("the potato is indeed quite corrupted");
+        Set<String> strSet = new Set1L<>();
+        strSet.add("the potato is indeed quite");
+        strSet.add("is indeed quie corrupted");
+        StringReassembly.assemble(strSet, 1);
+        assertEquals(expected, strSet);
+    }
+
+    @Test
+    public void testAssemble_errors_prefer_exact_overlap() {
+        /*
+         * The exact overlap "ed quite" is shorter than the approximate one
+         * "indeed qu1te", but not by the 10 characters an edit costs
+         */
+        Set<String> expected = new Set1L<>();
+        expected.add("the potato is indeed quite good");
+        expected.add("indeed qu1te corrupted");
+        Set<String> strSet = new Set1L<>();
+        strSet.add("the potato is indeed quite");
+        strSet.add("ed quite good");
+        strSet.add("indeed qu1te corrupted");
+        StringReassembly.assemble(strSet, 1);
+        assertEquals(expected, strSet);
+    }
+
+    @Test
+    public void testAssemble_errors_leave_clean_data_unchanged() {
+        String[] files = { "data/cheer-8-2.txt", "data/gettysburg-30-4.txt",
+                "data/gettysburg-30-6.txt" };
+        final int maxMaxErrors = 3;
+        for (String fileName : files) {
+            SimpleReader in = new SimpleReader1L(fileName);
+            Set<String> expected = StringReassembly.linesFromInput(in);
+            in.close();
+            StringReassembly.assemble(expected);
+            for (int maxErrors = 1; maxErrors <= maxMaxErrors; maxErrors++) {
+                in = new SimpleReader1L(fileName);
+                Set<String> strSet = StringReassembly.linesFromInput(in);
+                in.close();
+                StringReassembly.assemble(strSet, maxErrors);
+                assertEquals(expected, strSet);
+            }
+        }
+    }
+
+    @Test
+    public void testAssemble_errors_leave_clean_declaration_unchanged() {
+        /*
+         * A few dozen fragments of prose full of repeated words, cut as the
+         * declaration data files are; the whole files take minutes with the
+         * cubic assemblers
+         */
+        final String text = "When in the Course of human events, it becomes "
+                + "necessary for one people to dissolve the political bands "
+                + "which have connected them with another, and to assume "
+                + "among the powers of the earth, the separate and equal "
+                + "station to which the Laws of Nature and of Nature's God "
+                + "entitle them, a decent respect to the opinions of mankind "
+                + "requires that they should declare the causes which impel "
+                + "them to the separation.";
+        final int length = 40;
+        final int minOverlap = 15;
+        final double coverage = 3;
+        final long seed = 1776;
+        final int maxErrors = 3;
+        String[] fragments = FragmentGenerator
+                .fragments(text, length, minOverlap, coverage, seed)
+                .toArray(new String[0]);
+        Set<String> expected = new Set1L<>();
+        for (int i : ContainmentFilter.maximalIndices(fragments)) {
+            expected.add(fragments[i]);
+        }
+        Set<String> strSet = expected.newInstance();
+        for (String str : expected) {
+            strSet.add(str);
+        }
+        StringReassembly.assemble(expected);
+        StringReassembly.assemble(strSet, maxErrors);
+        assertEquals(expected, strSet);
+    }
+
+    @Test
+    public void testAssemble_corrupted_potato_without_errors() {
+        Set<String> expected = new Set1L<>();
+        expected.add("the potato is indeed quite");
+        expected.add("indeed qu1te corrupted");
+        Set<String> strSet = new Set1L<>();
+        strSet.add("the potato is indeed quite");
+        strSet.add("indeed qu1te corrupted");
+        StringReassembly.assemble(strSet, 0);
+        assertEquals(expected, strSet);
+    }
+
 }